@@ -0,0 +1,210 @@
+/*
+ * Copyright 2016, 2017 by HeBIS (www.hebis.de).
+ * 
+ * This file is part of HeBIS project Gnd4Index.
+ *
+ * This is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or any later version.
+ *
+ * This code is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with the code.  If not, see http://www.gnu.org/licenses/agpl>.
+ */
+package de.hebis.it.hds.gnd.bench;
+
+import java.io.IOException;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+import org.apache.solr.client.solrj.SolrQuery;
+import org.apache.solr.client.solrj.SolrServerException;
+import org.apache.solr.client.solrj.embedded.EmbeddedSolrServer;
+import org.apache.solr.common.SolrInputDocument;
+import org.apache.solr.core.CoreContainer;
+
+import de.hebis.it.hds.gnd.in.Loader;
+import de.hebis.it.hds.gnd.in.sink.AuthoritySink;
+import de.hebis.it.hds.gnd.in.sink.SolrSink;
+
+/**
+ * End-to-end benchmark of the import into an embedded solr core.<br>
+ * The core is built in a temporary directory from 'solr_config/schema.xml' and 'solr_config/solrconfig.xml', so the benchmark runs offline and
+ * doesn't disturb a shared solr. The records are read from the given files or generated by {@link MarcXmlGenerator}. The {@link Loader} is
+ * configured by the usual config file (-Dgnd.configfile=..., default: resources/AutorityRecord.properties). So changes of the batches, the
+ * parallelism or the parser can be compared with the same data.<br>
+ * Reported are the records per second, the time of the final commit and the size of the index.<br>
+ * Usage: EmbeddedSolrImport [--records=n] [--seed=n] [--keep] [files...]<br>
+ * From maven: <code>mvn -Pbench,bench-solr test -Dbench.args="--records=1000000"</code>
+ * 
+ * @author Uwe Reh (uh), HeBIS-IT
+ * @version 2026-10-17 uh initial
+ * @version 2026-10-18 uh forward the deletion by the IDN and the failure listener
+ */
+public class EmbeddedSolrImport {
+   private static final String CORE = "gnd";
+
+   /**
+    * @param args [--records=n] [--seed=n] [--keep] [files...]
+    * @throws Exception
+    */
+   public static void main(String[] args) throws Exception {
+      long records = 100000;
+      long seed = 4711;
+      boolean keep = false;
+      List<URI> files = new ArrayList<>();
+      for (String arg : args) {
+         if (arg.startsWith("--records=")) records = Long.parseLong(arg.substring(10));
+         else if (arg.startsWith("--seed=")) seed = Long.parseLong(arg.substring(7));
+         else if (arg.equals("--keep")) keep = true;
+         else if (arg.startsWith("--")) throw new IllegalArgumentException("Unknown option: " + arg);
+         else files.add(Paths.get(arg).toAbsolutePath().toUri());
+      }
+      if (System.getProperty("gnd.configfile") == null) System.setProperty("gnd.configfile", "resources/AutorityRecord.properties");
+      Path workDir = Files.createTempDirectory("EmbeddedSolrImport");
+      try {
+         if (files.isEmpty()) {
+            Path data = workDir.resolve("generated.mrc.xml");
+            long start = System.nanoTime();
+            new MarcXmlGenerator(seed).write(data, records);
+            System.out.println(String.format(Locale.ROOT, "Generated %d records (seed %d) in %.1f s", records, seed, seconds(start)));
+            files.add(data.toUri());
+         }
+         run(createSolrHome(workDir.resolve("solr")), files);
+      }
+      finally {
+         if (keep) System.out.println("Kept " + workDir);
+         else delete(workDir);
+      }
+   }
+
+   private static void run(Path solrHome, List<URI> files) throws IOException, SolrServerException {
+      long start = System.nanoTime();
+      CoreContainer container = new CoreContainer(solrHome.toString());
+      container.load();
+      try {
+         EmbeddedSolrServer solr = new EmbeddedSolrServer(container, CORE);
+         System.out.println(String.format(Locale.ROOT, "Solr started in %.1f s", seconds(start)));
+         SolrSink solrSink = Loader.newSolrSink(solr);
+         CommitTimer sink = new CommitTimer(solrSink);
+         Loader loader = new Loader(sink);
+         start = System.nanoTime();
+         loader.load(files);
+         double total = seconds(start);
+         long docs = solr.query(new SolrQuery("*:*").setRows(0)).getResults().getNumFound();
+         long indexSize = size(solrHome.resolve(CORE).resolve("data"));
+         loader.close();
+         double commit = sink.commitNanos / 1e9;
+         System.out.println("\n--- Import into embedded solr ---");
+         System.out.println(String.format(Locale.ROOT, "Documents sent:   %d (%d failed)", solrSink.getSentCount(), solrSink.getFailedCount()));
+         System.out.println(String.format(Locale.ROOT, "Documents found:  %d", docs));
+         System.out.println(String.format(Locale.ROOT, "Total time:       %.1f s", total));
+         System.out.println(String.format(Locale.ROOT, "Records/sec:      %.0f (without commit: %.0f)", solrSink.getSentCount() / total, solrSink.getSentCount() / (total - commit)));
+         System.out.println(String.format(Locale.ROOT, "Final commit:     %.2f s", commit));
+         System.out.println(String.format(Locale.ROOT, "Index size:       %.1f MB", indexSize / 1048576.0));
+      }
+      finally {
+         if (!container.isShutDown()) container.shutdown();
+      }
+   }
+
+   /**
+    * A solr home with one core, using the config of the project
+    */
+   private static Path createSolrHome(Path solrHome) throws IOException {
+      Path conf = Files.createDirectories(solrHome.resolve(CORE).resolve("conf"));
+      Files.copy(Paths.get("solr_config", "schema.xml"), conf.resolve("schema.xml"));
+      Files.copy(Paths.get("solr_config", "solrconfig.xml"), conf.resolve("solrconfig.xml"));
+      Files.write(solrHome.resolve("solr.xml"), "<solr></solr>\n".getBytes(StandardCharsets.UTF_8));
+      Files.write(solrHome.resolve(CORE).resolve("core.properties"), ("name=" + CORE + "\n").getBytes(StandardCharsets.UTF_8));
+      return solrHome;
+   }
+
+   private static double seconds(long startNanos) {
+      return (System.nanoTime() - startNanos) / 1e9;
+   }
+
+   private static long size(Path dir) throws IOException {
+      try (Stream<Path> paths = Files.walk(dir)) {
+         return paths.filter(Files::isRegularFile).mapToLong(p -> p.toFile().length()).sum();
+      }
+   }
+
+   private static void delete(Path dir) throws IOException {
+      try (Stream<Path> paths = Files.walk(dir)) {
+         paths.sorted(Comparator.reverseOrder()).forEach(p -> p.toFile().delete());
+      }
+   }
+
+   /**
+    * Measures the time of the commits
+    */
+   private static class CommitTimer implements AuthoritySink {
+      private final AuthoritySink sink;
+      private long                commitNanos = 0;
+
+      private CommitTimer(AuthoritySink sink) {
+         this.sink = sink;
+      }
+
+      @Override
+      public void add(SolrInputDocument doc) {
+         sink.add(doc);
+      }
+
+      @Override
+      public void delete(String id) {
+         sink.delete(id);
+      }
+
+      @Override
+      public void deleteByIdn(String idn) {
+         sink.deleteByIdn(idn);
+      }
+
+      @Override
+      public void redirect(String id, String targetId) {
+         sink.redirect(id, targetId);
+      }
+
+      @Override
+      public void setFailureListener(Consumer<SolrInputDocument> listener) {
+         sink.setFailureListener(listener);
+      }
+
+      @Override
+      public void flush() throws IOException {
+         sink.flush();
+      }
+
+      @Override
+      public void commit() throws IOException {
+         long start = System.nanoTime();
+         sink.commit();
+         commitNanos += System.nanoTime() - start;
+      }
+
+      @Override
+      public void close() throws IOException {
+         sink.close();
+      }
+
+      @Override
+      public String toString() {
+         return sink.toString();
+      }
+   }
+}
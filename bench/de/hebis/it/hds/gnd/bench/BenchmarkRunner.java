@@ -0,0 +1,58 @@
+/*
+ * Copyright 2016, 2017 by HeBIS (www.hebis.de).
+ * 
+ * This file is part of HeBIS project Gnd4Index.
+ *
+ * This is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or any later version.
+ *
+ * This code is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with the code.  If not, see http://www.gnu.org/licenses/agpl>.
+ */
+package de.hebis.it.hds.gnd.bench;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.ChainedOptionsBuilder;
+import org.openjdk.jmh.runner.options.CommandLineOptionException;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Start the JMH benchmarks.<br>
+ * The arguments are the usual JMH options (e.g. a regex to select the benchmarks, '-f 1', '-p file=Tn'). The allocation profiler ('-prof gc') is
+ * always added, other profilers can be added by the options. The forks log only warnings (see 'bench/log4j2-bench.xml').<br>
+ * From maven: <code>mvn -Pbench test -Dbench.args="MarcXmlParser -f 1"</code>
+ * 
+ * @author Uwe Reh (uh), HeBIS-IT
+ * @version 2026-10-17 uh initial
+ */
+public class BenchmarkRunner {
+
+   /**
+    * @param args JMH options
+    * @throws CommandLineOptionException If the options are unknown
+    * @throws RunnerException If a benchmark fails
+    */
+   public static void main(String[] args) throws CommandLineOptionException, RunnerException {
+      CommandLineOptions cmdLine = new CommandLineOptions(args);
+      ChainedOptionsBuilder options = new OptionsBuilder().parent(cmdLine);
+      if (cmdLine.getProfilers().stream().noneMatch(p -> "gc".equals(p.getKlass()) || GCProfiler.class.getName().equals(p.getKlass()))) {
+         options.addProfiler(GCProfiler.class);
+      }
+      Path logConfig = Paths.get("bench", "log4j2-bench.xml");
+      if (Files.isRegularFile(logConfig)) options.jvmArgsAppend("-Dlog4j.configurationFile=" + logConfig.toAbsolutePath());
+      new Runner(options.build()).run();
+   }
+}
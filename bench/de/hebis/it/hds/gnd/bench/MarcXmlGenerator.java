@@ -0,0 +1,455 @@
+/*
+ * Copyright 2016, 2017 by HeBIS (www.hebis.de).
+ * 
+ * This file is part of HeBIS project Gnd4Index.
+ *
+ * This is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or any later version.
+ *
+ * This code is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with the code.  If not, see http://www.gnu.org/licenses/agpl>.
+ */
+package de.hebis.it.hds.gnd.bench;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.text.Normalizer;
+import java.util.Locale;
+import java.util.SplittableRandom;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Synthetic GND authority records in marc21-XML, to test the import with millions of records.<br>
+ * The records are formatted like the files of the DNB (one element per line), so all import modes can read them. With the same seed the same
+ * records are generated.<br>
+ * The mix is modeled after the real dumps:
+ * <ul>
+ * <li>The types of the records (persons, organisations, ...) with 075 $b and 079 $b</li>
+ * <li>The number of tracings (4xx) and relations (5xx) per record. Some persons have hundreds of names.</li>
+ * <li>Coordinates (034) in degrees, decimal degrees and without the coding in $9A</li>
+ * <li>Decomposed unicode (which needs NFC normalization) and escaped characters</li>
+ * </ul>
+ * Usage: MarcXmlGenerator [--seed=n] [--types=pnbfgsu] &lt;number of records&gt; &lt;output file&gt; (*.gz is compressed)
+ * 
+ * @author Uwe Reh (uh), HeBIS-IT
+ * @version 2026-10-17 uh initial
+ */
+public class MarcXmlGenerator {
+   /** Types of the records (075 $b gndgen), with their share in the GND */
+   private static final String     TYPES           = "pnbfgsu";
+   private static final double[]   TYPE_SHARES     = { 0.45, 0.17, 0.16, 0.05, 0.05, 0.04, 0.08 };
+   /** Share of persons with hundreds of names */
+   private static final double     PATHOLOGICAL    = 0.0005;
+   private static final String[]   SURNAMES        = { "Müller", "Schmidt", "Schneider", "Fischer", "Weber", "Meyer", "Wagner", "Becker", "Schulz", "Hoffmann",
+         "Schäfer", "Koch", "Bauer", "Richter", "Klein", "Wolf", "Schröder", "Neumann", "Schwarz", "Zimmermann", "Brontë", "Dvořák", "Żeromski", "Ørsted",
+         "Martínez", "Nuñez", "Łukasiewicz", "Čapek", "Gödel", "Smith", "O'Brien", "Kafka" };
+   private static final String[]   GIVEN_NAMES     = { "Anna", "Johann", "Maria", "Peter", "Elisabeth", "Karl", "Margarete", "Friedrich", "Sophie", "Wilhelm",
+         "Renée", "José", "Zoë", "Jürgen", "Ingrid", "Ōtomo", "Aleksandr", "François", "Ludwig", "Hildegard" };
+   private static final String[]   TITLES          = { "Graf", "von", "Dr.", "Heiliger", "König", "Prinz", "Freiherr" };
+   private static final String[]   TERMS           = { "Geschichte", "Kunst", "Philosophie", "Bibliothek", "Katalogisierung", "Sozialarbeit", "Ästhetik",
+         "Übersetzung", "Naturwissenschaft", "Elektrotechnik", "Ökologie", "Bildung", "Musik", "Theologie", "Recht", "Wirtschaft", "Medizin", "Sprache" };
+   private static final String[]   CONTEXTS        = { "Soziologie", "Informatik", "Motiv", "Recht", "Musik", "Physik", "Kunst" };
+   private static final String[]   PLACES          = { "Frankfurt am Main", "Gießen", "Marburg", "Kassel", "Darmstadt", "Wiesbaden", "Fulda", "Köln", "Zürich",
+         "Wien", "Genève", "Kraków", "Praha", "São Paulo", "Malmö", "Göttingen" };
+   private static final String[]   ORGANISATIONS   = { "Universität", "Verlag", "Gesellschaft", "Verein", "Stiftung", "Akademie", "Bibliothek", "Museum" };
+   private static final String[]   PROFESSIONS     = { "Schriftsteller", "Journalist", "Maler", "Komponist", "Bibliothekar", "Historiker", "Physiker" };
+   private final SplittableRandom  random;
+   private final String            types;
+   private final double[]          shares;
+   private final StringBuilder     buffer          = new StringBuilder(1 << 14);
+   private long                    count           = 0;
+
+   /**
+    * Generator for all types of records
+    * 
+    * @param seed The seed for the random numbers
+    */
+   public MarcXmlGenerator(long seed) {
+      this(seed, TYPES);
+   }
+
+   /**
+    * Generator for selected types of records
+    * 
+    * @param seed The seed for the random numbers
+    * @param types The types to generate. e.g. "pn" for persons only. (see 075 $b: p, n, b, f, g, s, u)
+    */
+   public MarcXmlGenerator(long seed, String types) {
+      random = new SplittableRandom(seed);
+      this.types = types;
+      shares = new double[types.length()];
+      double sum = 0;
+      for (int i = 0; i < types.length(); i++) {
+         int index = TYPES.indexOf(types.charAt(i));
+         if (index < 0) throw new IllegalArgumentException("Unknown type \"" + types.charAt(i) + "\". Known are: " + TYPES);
+         sum += TYPE_SHARES[index];
+         shares[i] = sum;
+      }
+      for (int i = 0; i < shares.length; i++) {
+         shares[i] /= sum;
+      }
+   }
+
+   /**
+    * Write a complete collection
+    * 
+    * @param out The destination (UTF-8)
+    * @param records Number of records
+    * @throws IOException
+    */
+   public void write(Writer out, long records) throws IOException {
+      out.write("<?xml version=\"1.0\" encoding=\"UTF-8\"?>\n<!-- Synthetic GND records, not for publication -->\n");
+      out.write("<collection xmlns=\"http://www.loc.gov/MARC21/slim\">\n");
+      for (long i = 0; i < records; i++) {
+         out.append(nextRecord());
+      }
+      out.write("</collection>\n");
+   }
+
+   /**
+    * Write a complete collection into a file
+    * 
+    * @param file The destination. Files named *.gz are compressed.
+    * @param records Number of records
+    * @throws IOException
+    */
+   public void write(Path file, long records) throws IOException {
+      OutputStream stream = Files.newOutputStream(file);
+      if (file.getFileName().toString().endsWith(".gz")) stream = new GZIPOutputStream(stream, 1 << 16);
+      try (Writer out = new BufferedWriter(new OutputStreamWriter(stream, StandardCharsets.UTF_8), 1 << 16)) {
+         write(out, records);
+      }
+   }
+
+   /**
+    * @return The next record as XML, one element per line. The buffer is reused, copy it if needed.
+    */
+   public CharSequence nextRecord() {
+      buffer.setLength(0);
+      char type = nextType();
+      String id = gndId(++count, type);
+      buffer.append("  <record type=\"Authority\">\n");
+      buffer.append("    <leader>00000nz  a2200000n  4500</leader>\n");
+      controlField("001", id.replace("-", ""));
+      controlField("003", "DE-101");
+      controlField("005", String.format(Locale.ROOT, "2017%02d%02d%02d%02d%02d.0", 1 + random.nextInt(12), 1 + random.nextInt(28), random.nextInt(24), random.nextInt(60), random.nextInt(60)));
+      dataField("024", '7', ' ', "a", "http://d-nb.info/gnd/" + id, "2", "uri");
+      dataField("035", ' ', ' ', "a", "(DE-101)" + id.replace("-", ""));
+      dataField("035", ' ', ' ', "a", "(DE-588)" + id);
+      dataField("040", ' ', ' ', "a", "DE-603", "9", "r:DE-603", "b", "ger", "d", "0603", "e", "rda");
+      dataField("075", ' ', ' ', "b", String.valueOf(type), "2", "gndgen");
+      dataField("075", ' ', ' ', "b", specialType(type), "2", "gndspec");
+      dataField("079", ' ', ' ', "a", "g", "b", String.valueOf(type), "c", String.valueOf(1 + random.nextInt(6)), "q", "f");
+      switch (type) {
+         case 'p':
+         case 'n':
+            person(type);
+            break;
+         case 'b':
+            organisation();
+            break;
+         case 'f':
+            meeting();
+            break;
+         case 'g':
+            place();
+            break;
+         case 's':
+            topic();
+            break;
+         case 'u':
+            work();
+            break;
+      }
+      if (random.nextInt(3) == 0) dataField("670", ' ', ' ', "a", "Wikipedia", "u", "https://de.wikipedia.org/wiki/" + id);
+      buffer.append("  </record>\n");
+      return buffer;
+   }
+
+   /**
+    * @return The number of records generated
+    */
+   public long getCount() {
+      return count;
+   }
+
+   private char nextType() {
+      double r = random.nextDouble();
+      for (int i = 0; i < shares.length; i++) {
+         if (r < shares[i]) return types.charAt(i);
+      }
+      return types.charAt(types.length() - 1);
+   }
+
+   private String specialType(char type) {
+      switch (type) {
+         case 'p':
+            return "piz";
+         case 'n':
+            return "nip";
+         case 'b':
+            return pick("kiz", "kif", "kio");
+         case 'f':
+            return pick("vie", "vif");
+         case 'g':
+            return pick("gik", "gif", "gio", "gil");
+         case 's':
+            return pick("saz", "sah", "sab");
+         default:
+            return pick("wit", "wim", "wis");
+      }
+   }
+
+   private void person(char type) {
+      String surname = unicode(pick(SURNAMES));
+      String given = unicode(pick(GIVEN_NAMES));
+      int born = 1400 + random.nextInt(600);
+      String dates = born + "-" + (born + 20 + random.nextInt(70));
+      if (type == 'p') dataField("100", '1', ' ', "a", surname + ", " + given, "d", dates);
+      else if (random.nextInt(10) == 0) dataField("100", '1', ' ', "a", surname + ", " + given, "c", pick(TITLES));
+      else dataField("100", '1', ' ', "a", surname + ", " + given);
+      int names = (random.nextDouble() < PATHOLOGICAL) ? 200 + random.nextInt(600) : geometric(0.6, 30);
+      for (int i = 0; i < names; i++) {
+         switch (random.nextInt(4)) {
+            case 0:
+               dataField("400", '0', ' ', "a", given + " " + surname + ((i < 4) ? "" : " " + i));
+               break;
+            case 1:
+               dataField("400", '1', ' ', "a", unicode(pick(SURNAMES)) + ", " + given + ((i < 4) ? "" : " " + i), "9", "4:nawi", "w", "r", "i", "Wirklicher Name");
+               break;
+            case 2:
+               dataField("400", '1', ' ', "a", surname + ", " + given.charAt(0) + ".", "c", pick(TITLES));
+               break;
+            default:
+               dataField("400", '1', ' ', "a", surname + ", " + unicode(pick(GIVEN_NAMES)) + ((i < 4) ? "" : " " + i));
+         }
+      }
+      int related = geometric(0.4, 10);
+      for (int i = 0; i < related; i++) {
+         String relatedId = gndId(random.nextInt(100000000), 'p');
+         dataField("500", '1', ' ', "0", "(DE-588)" + relatedId, "0", "http://d-nb.info/gnd/" + relatedId, "a", unicode(pick(SURNAMES)) + ", " + unicode(pick(GIVEN_NAMES)), "9",
+               pick("4:bezf", "4:bezb", "4:pseu"), "w", "r", "i", "Beziehung");
+      }
+      if (type == 'p') {
+         dataField("548", ' ', ' ', "a", dates, "9", "4:datl", "w", "r", "i", "Lebensdaten");
+         dataField("550", ' ', ' ', "0", "(DE-588)" + gndId(random.nextInt(1000), 's'), "a", pick(PROFESSIONS), "9", "4:beru", "w", "r", "i", "Beruf");
+         if (random.nextBoolean()) dataField("551", ' ', ' ', "0", "(DE-588)" + gndId(random.nextInt(1000), 'g'), "a", unicode(pick(PLACES)), "9", "4:ortg", "w", "r", "i", "Geburtsort");
+      }
+   }
+
+   private void organisation() {
+      String name = pick(ORGANISATIONS) + " " + unicode(pick(PLACES));
+      dataField("110", '2', ' ', "a", name, "b", unicode(pick(TERMS)));
+      int names = geometric(0.5, 20);
+      for (int i = 0; i < names; i++) {
+         dataField("410", '2', ' ', "a", name + " & " + pick(TERMS) + " " + i);
+      }
+      int related = geometric(0.4, 10);
+      for (int i = 0; i < related; i++) {
+         dataField("510", '2', ' ', "0", "(DE-588)" + gndId(random.nextInt(1000000), 'b'), "a", pick(ORGANISATIONS) + " " + unicode(pick(PLACES)), "9", pick("4:adue", "4:vorg", "4:nach"),
+               "w", "r", "i", "Beziehung");
+      }
+   }
+
+   private void meeting() {
+      String name = "Tagung " + unicode(pick(TERMS));
+      dataField("111", '2', ' ', "a", name, "n", String.valueOf(1 + random.nextInt(40)), "d", String.valueOf(1900 + random.nextInt(120)), "c", unicode(pick(PLACES)));
+      int names = geometric(0.5, 10);
+      for (int i = 0; i < names; i++) {
+         dataField("411", '2', ' ', "a", "Conference on " + pick(TERMS) + " " + i);
+      }
+      if (random.nextBoolean()) dataField("511", '2', ' ', "a", "Tagung " + unicode(pick(TERMS)), "9", "4:vorg", "w", "r", "i", "Vorgaenger");
+   }
+
+   private void place() {
+      String name = unicode(pick(PLACES));
+      if (random.nextBoolean()) dataField("151", ' ', ' ', "a", name);
+      else dataField("151", ' ', ' ', "a", name, "g", pick(CONTEXTS));
+      if (random.nextInt(10) < 6) coordinates();
+      int names = geometric(0.5, 20);
+      for (int i = 0; i < names; i++) {
+         dataField("451", ' ', ' ', "a", name + " (" + i + ")");
+      }
+      int related = geometric(0.5, 10);
+      for (int i = 0; i < related; i++) {
+         dataField("551", ' ', ' ', "0", "(DE-588)" + gndId(random.nextInt(1000000), 'g'), "a", unicode(pick(PLACES)), "9", pick("4:obpa", "4:nach", "4:vorg"), "w", "r", "i", "Beziehung");
+      }
+   }
+
+   /**
+    * Coordinates in the formats seen in the GND. Mostly points, sometimes areas.
+    */
+   private void coordinates() {
+      double lon = random.nextDouble() * 359 - 180; // leave space for the width of the area
+      double lat = random.nextDouble() * 179 - 90;
+      double width = (random.nextInt(4) == 0) ? random.nextDouble() : 0;
+      switch (random.nextInt(4)) {
+         case 0: // degrees, minutes, seconds with spaces
+            dataField("034", ' ', ' ', "d", dms(lon, 'E', 'W', true), "e", dms(lon + width, 'E', 'W', true), "f", dms(lat + width, 'N', 'S', true), "g", dms(lat, 'N', 'S', true), "9",
+                  "A:agx");
+            break;
+         case 1: // degrees, minutes, seconds without spaces
+            dataField("034", ' ', ' ', "d", dms(lon, 'E', 'W', false), "e", dms(lon + width, 'E', 'W', false), "f", dms(lat + width, 'N', 'S', false), "g", dms(lat, 'N', 'S', false),
+                  "9", "A:agx");
+            break;
+         case 2: // decimal degrees
+            dataField("034", ' ', ' ', "d", decimal(lon, 'E', 'W'), "e", decimal(lon + width, 'E', 'W'), "f", decimal(lat + width, 'N', 'S'), "g", decimal(lat, 'N', 'S'), "9",
+                  "A:dgx");
+            break;
+         default: // without coding
+            dataField("034", ' ', ' ', "d", dms(lon, 'E', 'W', true), "e", dms(lon, 'E', 'W', true), "f", dms(lat, 'N', 'S', true), "g", dms(lat, 'N', 'S', true));
+      }
+   }
+
+   private static String dms(double value, char positive, char negative, boolean spaces) {
+      char hemisphere = (value < 0) ? negative : positive;
+      long seconds = Math.round(Math.abs(value) * 3600);
+      String sep = spaces ? " " : "";
+      return String.format(Locale.ROOT, "%c%s%03d%s%02d%s%02d", hemisphere, sep, seconds / 3600, sep, (seconds / 60) % 60, sep, seconds % 60);
+   }
+
+   private static String decimal(double value, char positive, char negative) {
+      return String.format(Locale.ROOT, "%c%010.6f", (value < 0) ? negative : positive, Math.abs(value));
+   }
+
+   private void topic() {
+      String term = unicode(pick(TERMS));
+      if (random.nextBoolean()) dataField("150", ' ', ' ', "a", term);
+      else dataField("150", ' ', ' ', "a", term, "g", pick(CONTEXTS));
+      int names = geometric(0.6, 30);
+      for (int i = 0; i < names; i++) {
+         // The DNB marks the non sorting part with SOS/EOS characters
+         if (random.nextInt(20) == 0) dataField("450", ' ', ' ', "a", "&#152;Die&#156; " + term + " " + i);
+         else dataField("450", ' ', ' ', "a", term + "s" + i);
+      }
+      int related = geometric(0.5, 10);
+      for (int i = 0; i < related; i++) {
+         dataField("550", ' ', ' ', "0", "(DE-588)" + gndId(random.nextInt(100000), 's'), "a", unicode(pick(TERMS)), "9", pick("4:obal", "4:obin", "4:vbal"), "w", "r", "i", "Oberbegriff");
+      }
+   }
+
+   private void work() {
+      String title = unicode(pick(TERMS)) + " und " + unicode(pick(TERMS));
+      dataField("130", ' ', '0', "a", title);
+      int names = geometric(0.5, 20);
+      for (int i = 0; i < names; i++) {
+         dataField("430", ' ', '0', "a", title + " <" + i + ">");
+      }
+      dataField("500", '1', ' ', "0", "(DE-588)" + gndId(random.nextInt(100000000), 'p'), "a", unicode(pick(SURNAMES)) + ", " + unicode(pick(GIVEN_NAMES)), "9", "4:aut1", "w", "r",
+            "i", "Verfasser");
+   }
+
+   /**
+    * @return A number with geometric distribution (p = continue probability), limited to max
+    */
+   private int geometric(double p, int max) {
+      int ret = 0;
+      while ((ret < max) && (random.nextDouble() < p)) {
+         ret++;
+      }
+      return ret;
+   }
+
+   private String pick(String... values) {
+      return values[random.nextInt(values.length)];
+   }
+
+   /**
+    * Every tenth value is decomposed (NFD), like in some records of the DNB.
+    */
+   private String unicode(String value) {
+      if (random.nextInt(10) != 0) return value;
+      return Normalizer.normalize(value, Normalizer.Form.NFD);
+   }
+
+   /**
+    * A GND id with check digit. Persons have nine digits, the other types have a hyphen before the check digit.
+    */
+   private static String gndId(long number, char type) {
+      String digits = (type == 'p' || type == 'n') ? String.valueOf(100000000L + number % 900000000L) : String.valueOf(1000000L + number % 9000000L);
+      int sum = 0;
+      for (int i = 0; i < digits.length(); i++) {
+         sum += (digits.charAt(i) - '0') * (digits.length() + 1 - i);
+      }
+      int check = (11 - (sum % 11)) % 11;
+      String checkDigit = (check == 10) ? "X" : String.valueOf(check);
+      return (type == 'p' || type == 'n') ? digits + checkDigit : digits + "-" + checkDigit;
+   }
+
+   private void controlField(String tag, String value) {
+      buffer.append("    <controlfield tag=\"").append(tag).append("\">").append(value).append("</controlfield>\n");
+   }
+
+   /**
+    * @param codesAndValues Pairs of subfield code and value
+    */
+   private void dataField(String tag, char ind1, char ind2, String... codesAndValues) {
+      buffer.append("    <datafield tag=\"").append(tag).append("\" ind1=\"").append(ind1).append("\" ind2=\"").append(ind2).append("\">\n");
+      for (int i = 0; i < codesAndValues.length; i += 2) {
+         buffer.append("      <subfield code=\"").append(codesAndValues[i]).append("\">");
+         escape(codesAndValues[i + 1]);
+         buffer.append("</subfield>\n");
+      }
+      buffer.append("    </datafield>\n");
+   }
+
+   /**
+    * Escape the XML characters. Character references (like the SOS/EOS) are kept.
+    */
+   private void escape(String value) {
+      for (int i = 0; i < value.length(); i++) {
+         char c = value.charAt(i);
+         switch (c) {
+            case '<':
+               buffer.append("&lt;");
+               break;
+            case '>':
+               buffer.append("&gt;");
+               break;
+            case '&':
+               if (value.startsWith("&#", i)) buffer.append(c);
+               else buffer.append("&amp;");
+               break;
+            default:
+               buffer.append(c);
+         }
+      }
+   }
+
+   /**
+    * @param args [--seed=n] [--types=pnbfgsu] &lt;number of records&gt; &lt;output file&gt;
+    * @throws IOException
+    */
+   public static void main(String[] args) throws IOException {
+      long seed = 4711;
+      String types = TYPES;
+      int next = 0;
+      for (; (next < args.length) && args[next].startsWith("--"); next++) {
+         if (args[next].startsWith("--seed=")) seed = Long.parseLong(args[next].substring(7));
+         else if (args[next].startsWith("--types=")) types = args[next].substring(8);
+         else throw new IllegalArgumentException("Unknown option: " + args[next]);
+      }
+      if (args.length - next != 2) {
+         System.err.println("Usage: MarcXmlGenerator [--seed=n] [--types=" + TYPES + "] <number of records> <output file>");
+         System.exit(1);
+      }
+      long records = Long.parseLong(args[next]);
+      Path file = Paths.get(args[next + 1]);
+      long start = System.currentTimeMillis();
+      new MarcXmlGenerator(seed, types).write(file, records);
+      System.out.println(records + " records written to " + file + " in " + (System.currentTimeMillis() - start) + " ms.");
+   }
+}
@@ -0,0 +1,95 @@
+/*
+ * Copyright 2016, 2017 by HeBIS (www.hebis.de).
+ * 
+ * This file is part of HeBIS project Gnd4Index.
+ *
+ * This is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or any later version.
+ *
+ * This code is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with the code.  If not, see http://www.gnu.org/licenses/agpl>.
+ */
+package de.hebis.it.hds.gnd.in;
+
+import java.io.IOException;
+import java.net.URISyntaxException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Predicate;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import data.TestData;
+import de.hebis.it.hds.gnd.in.sink.NullSink;
+import de.hebis.it.hds.tools.streams.TextBlockSpliterator;
+
+/**
+ * Benchmark for {@link MarcXmlParser#apply(List)} with the records of the sample files.<br>
+ * Each call parses the next record of the file. The lines are grouped in advance, like the reading thread of the {@link Loader} does.
+ * 
+ * @author Uwe Reh (uh), HeBIS-IT
+ * @version 2026-10-17 uh initial
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class MarcXmlParserBenchmark {
+   private static final Predicate<String> startpattern = Pattern.compile(".*<record[^>].*").asPredicate();
+   private static final Predicate<String> endpattern   = Pattern.compile(".*</record.*").asPredicate();
+   /** The sample file (Tb: organisations, Tf: conferences, Tg: geographic names, Tn/Tp: persons, Ts: terms, Tu: works) */
+   @Param({ "Tb", "Tf", "Tg", "Tn", "Tp", "Ts", "Tu" })
+   public String                          file;
+   private List<List<String>>             records;
+   private MarcXmlParser                  parser;
+   private int                            next         = 0;
+
+   /**
+    * Read and group the records
+    * 
+    * @throws IOException
+    * @throws URISyntaxException
+    */
+   @Setup
+   public void setup() throws IOException, URISyntaxException {
+      parser = new MarcXmlParser(new NullSink());
+      try (Stream<String> lines = Files.lines(Paths.get(TestData.class.getResource(file + ".mrc.xml").toURI()), StandardCharsets.UTF_8)) {
+         records = TextBlockSpliterator.toTextBlocks(lines, startpattern, endpattern, true).collect(Collectors.toList());
+      }
+      if (records.isEmpty()) throw new IllegalStateException("No records in " + file);
+   }
+
+   /**
+    * @return The result of the parser
+    */
+   @Benchmark
+   public Boolean apply() {
+      List<String> record = records.get(next);
+      next = (next + 1) % records.size();
+      return parser.apply(record);
+   }
+}
@@ -0,0 +1,114 @@
+/*
+ * Copyright 2016, 2017 by HeBIS (www.hebis.de).
+ * 
+ * This file is part of HeBIS project Gnd4Index.
+ *
+ * This is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or any later version.
+ *
+ * This code is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with the code.  If not, see http://www.gnu.org/licenses/agpl>.
+ */
+package de.hebis.it.hds.gnd.in.subfields;
+
+import java.util.concurrent.TimeUnit;
+
+import org.apache.solr.common.SolrInputDocument;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmarks for the basic operations of {@link DataField}.<br>
+ * 'fillMultiValued' stores n distinct values into a new document, like the synonyms of a person with many names.
+ * 
+ * @author Uwe Reh (uh), HeBIS-IT
+ * @version 2026-10-17 uh initial
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class DataFieldBenchmark {
+   /** Number of values in the multivalued field */
+   @Param({ "1", "10", "100", "500" })
+   public int        values;
+   private DataField dataField;
+   private String[]  names;
+
+   /**
+    * Prepare the values
+    */
+   @Setup
+   public void setup() {
+      dataField = new DataField("(DE-588)118540238", null);
+      names = new String[values];
+      for (int i = 0; i < values; i++) {
+         names[i] = "Goethe, Johann Wolfgang <" + i + ">";
+      }
+   }
+
+   /**
+    * A typical field with six subfields
+    * 
+    * @return The filled data field
+    */
+   @Benchmark
+   public DataField addSubField() {
+      dataField.reset(null, "(DE-588)118540238", 400, ' ', ' ');
+      dataField.addSubField("a", "Goethe, Johann Wolfgang");
+      dataField.addSubField("c", "von");
+      dataField.addSubField("0", "(DE-588)118540238");
+      dataField.addSubField("0", "http://d-nb.info/gnd/118540238");
+      dataField.addSubField("4", "nawi");
+      dataField.addSubField("5", "DE-101");
+      return dataField;
+   }
+
+   /**
+    * Copy a repeated subfield into a new document
+    * 
+    * @return The document
+    */
+   @Benchmark
+   public SolrInputDocument storeValues() {
+      SolrInputDocument doc = new SolrInputDocument();
+      dataField.reset(doc, "(DE-588)118540238", 400, ' ', ' ');
+      for (int i = 0; i < values; i++) {
+         dataField.addSubField("a", names[i]);
+      }
+      dataField.storeValues("a", "synonyms", true, (FieldMapping.ValueFilter) null);
+      return doc;
+   }
+
+   /**
+    * Store distinct values one by one into a new document
+    * 
+    * @return The document
+    */
+   @Benchmark
+   public SolrInputDocument fillMultiValued() {
+      SolrInputDocument doc = new SolrInputDocument();
+      dataField.reset(doc, "(DE-588)118540238", 400, ' ', ' ');
+      for (int i = 0; i < values; i++) {
+         dataField.storeMultiValued("synonyms", names[i]);
+      }
+      return doc;
+   }
+}
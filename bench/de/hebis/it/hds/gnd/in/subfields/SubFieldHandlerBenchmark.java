@@ -0,0 +1,128 @@
+/*
+ * Copyright 2016, 2017 by HeBIS (www.hebis.de).
+ * 
+ * This file is part of HeBIS project Gnd4Index.
+ *
+ * This is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or any later version.
+ *
+ * This code is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with the code.  If not, see http://www.gnu.org/licenses/agpl>.
+ */
+package de.hebis.it.hds.gnd.in.subfields;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import de.hebis.it.hds.gnd.EvalDataFieldException;
+
+/**
+ * Benchmarks for the handlers with own string processing: the coordinates and the formatted names.<br>
+ * The data fields are filled once, the values are stored again and again into the same document. (The doublets are skipped)
+ * 
+ * @author Uwe Reh (uh), HeBIS-IT
+ * @version 2026-10-17 uh initial
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SubFieldHandlerBenchmark {
+   private DataField person;
+   private DataField topic;
+
+   /**
+    * Fill the data fields
+    */
+   @Setup
+   public void setup() {
+      person = new DataField("(DE-588)118540238", null).reset(null, "(DE-588)118540238", 400, '1', ' ');
+      person.addSubField("a", "Goethe, Johann Wolfgang");
+      person.addSubField("c", "von");
+      person.addSubField("c", "Dichter");
+      topic = new DataField("(DE-588)4021477-1", null).reset(null, "(DE-588)4021477-1", 450, ' ', ' ');
+      topic.addSubField("a", "Gesellschaftsordnung");
+      topic.addSubField("g", "Soziologie");
+   }
+
+   /**
+    * @param state The data field with the coordinates
+    * @return The data field with the center of the area
+    * @throws EvalDataFieldException
+    */
+   @Benchmark
+   public DataField coordinates(Coordinates state) throws EvalDataFieldException {
+      GeoFields.coordinates(state.dataField);
+      return state.dataField;
+   }
+
+   /**
+    * @return The data field with the formatted name
+    */
+   @Benchmark
+   public DataField personName() {
+      PersonFields.tracingPersonalName(person);
+      return person;
+   }
+
+   /**
+    * @return The data field with the formatted term
+    */
+   @Benchmark
+   public DataField topicName() {
+      TopicFields.tracingTopicalTerm(topic);
+      return topic;
+   }
+
+   /**
+    * A data field 034 in one of the codings
+    */
+   @State(Scope.Thread)
+   public static class Coordinates {
+      /** 'dms' = degrees, minutes, seconds; 'decimal' = decimal degrees */
+      @Param({ "dms", "decimal" })
+      public String    coding;
+      private DataField dataField;
+
+      /**
+       * Fill the data field
+       */
+      @Setup
+      public void setup() {
+         dataField = new DataField("(DE-588)4007879-6", null).reset(null, "(DE-588)4007879-6", 34, '0', ' ');
+         if ("dms".equals(coding)) {
+            dataField.addSubField("d", "E 015 59 15");
+            dataField.addSubField("e", "E 016 00 25");
+            dataField.addSubField("f", "N 054 00 25");
+            dataField.addSubField("g", "N 053 59 15");
+            dataField.addSubField("9", "A:agx");
+         }
+         else {
+            dataField.addSubField("d", "E015.987500");
+            dataField.addSubField("e", "E016.006944");
+            dataField.addSubField("f", "N054.006944");
+            dataField.addSubField("g", "N053.987500");
+            dataField.addSubField("9", "A:dgx");
+         }
+      }
+   }
+}
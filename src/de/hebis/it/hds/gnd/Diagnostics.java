@@ -0,0 +1,189 @@
+/*
+ * Copyright 2016, 2017 by HeBIS (www.hebis.de).
+ * 
+ * This file is part of HeBIS project Gnd4Index.
+ *
+ * This is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or any later version.
+ *
+ * This code is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with the code.  If not, see http://www.gnu.org/licenses/agpl>.
+ */
+package de.hebis.it.hds.gnd;
+
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+/**
+ * Aggregated conversion warnings.<br>
+ * Instead of one log line per record, the warnings are counted per type and tag. For each combination the ids of the first records are kept as
+ * examples. The summary is logged periodically and at the end of the import.<br>
+ * The single warnings are still logged, if the log level of this class is DEBUG.
+ * 
+ * @author Uwe Reh (uh), HeBIS-IT
+ * @version 2026-10-17 uh initial
+ */
+public class Diagnostics {
+   private static final Logger                                     LOG         = LogManager.getLogger(Diagnostics.class);
+   /** Number of example ids per type and tag */
+   public static final int                                         SAMPLE_SIZE = 5;
+   private static final int                                        NO_TAG      = 1000;
+   private static final Map<String, AtomicReferenceArray<Counter>> counters    = new ConcurrentHashMap<>();
+   private static ScheduledExecutorService                         reporter    = null;
+
+   private Diagnostics() {
+      // only static methods
+   }
+
+   /**
+    * Count a warning
+    * 
+    * @param type Short description of the warning (should be a constant)
+    * @param tag The numeric tag of the data field or a negative number if the warning isn't bound to a field
+    * @param recordId The id of the record
+    */
+   public static void report(String type, int tag, String recordId) {
+      if (LOG.isDebugEnabled()) LOG.debug(recordId + ": " + type + ((tag < 0) ? "" : " (" + tag + ")"));
+      AtomicReferenceArray<Counter> perTag = counters.get(type);
+      if (perTag == null) perTag = counters.computeIfAbsent(type, k -> new AtomicReferenceArray<>(NO_TAG + 1));
+      int index = ((tag < 0) || (tag >= NO_TAG)) ? NO_TAG : tag;
+      Counter counter = perTag.get(index);
+      if (counter == null) {
+         perTag.compareAndSet(index, null, new Counter());
+         counter = perTag.get(index);
+      }
+      counter.add(recordId);
+   }
+
+   /**
+    * Count a warning
+    * 
+    * @param type Short description of the warning (should be a constant)
+    * @param tagId The tag of the data field (three digits) or NULL
+    * @param recordId The id of the record
+    */
+   public static void report(String type, String tagId, String recordId) {
+      int tag = -1;
+      if ((tagId != null) && (tagId.length() == 3)) {
+         try {
+            tag = Integer.parseInt(tagId);
+         }
+         catch (NumberFormatException e) {
+            // not bound to a tag
+         }
+      }
+      report(type, tag, recordId);
+   }
+
+   /**
+    * @param type The type of the warning
+    * @param tag The numeric tag or a negative number
+    * @return The number of warnings counted
+    */
+   public static long getCount(String type, int tag) {
+      AtomicReferenceArray<Counter> perTag = counters.get(type);
+      if (perTag == null) return 0;
+      Counter counter = perTag.get(((tag < 0) || (tag >= NO_TAG)) ? NO_TAG : tag);
+      return (counter == null) ? 0 : counter.count.get();
+   }
+
+   /**
+    * @return All counts as text, one line per type and tag. Empty if nothing was counted.
+    */
+   public static String getSummary() {
+      Map<String, AtomicReferenceArray<Counter>> sorted = new TreeMap<>(counters);
+      StringBuilder ret = new StringBuilder();
+      for (Map.Entry<String, AtomicReferenceArray<Counter>> entry : sorted.entrySet()) {
+         AtomicReferenceArray<Counter> perTag = entry.getValue();
+         for (int tag = 0; tag <= NO_TAG; tag++) {
+            Counter counter = perTag.get(tag);
+            if (counter == null) continue;
+            ret.append("\n   ").append(entry.getKey());
+            if (tag < NO_TAG) ret.append(" [").append(String.format("%03d", tag)).append(']');
+            ret.append(": ").append(counter.count.get()).append(" e.g. ").append(counter.samples());
+         }
+      }
+      return ret.toString();
+   }
+
+   /**
+    * Log the summary (INFO)
+    * 
+    * @param title First line of the summary
+    */
+   public static void logSummary(String title) {
+      String summary = getSummary();
+      if (!summary.isEmpty()) LOG.info(title + summary);
+   }
+
+   /**
+    * Log the summary periodically
+    * 
+    * @param interval Time between two summaries in milliseconds (0 = no periodic summary)
+    */
+   public static synchronized void startPeriodicSummary(long interval) {
+      stopPeriodicSummary();
+      if (interval <= 0) return;
+      reporter = Executors.newSingleThreadScheduledExecutor(r -> {
+         Thread ret = new Thread(r, "GndDiagnostics");
+         ret.setDaemon(true);
+         return ret;
+      });
+      reporter.scheduleWithFixedDelay(() -> logSummary("Conversion warnings until now:"), interval, interval, TimeUnit.MILLISECONDS);
+   }
+
+   /**
+    * Stop the periodic summary
+    */
+   public static synchronized void stopPeriodicSummary() {
+      if (reporter == null) return;
+      reporter.shutdownNow();
+      reporter = null;
+   }
+
+   /**
+    * Forget all counts
+    */
+   public static void reset() {
+      counters.clear();
+   }
+
+   /**
+    * Counter for one type and tag, with the first ids as examples
+    */
+   private static class Counter {
+      private final AtomicLong                   count   = new AtomicLong(0);
+      private final AtomicReferenceArray<String> samples = new AtomicReferenceArray<>(SAMPLE_SIZE);
+
+      private void add(String recordId) {
+         long n = count.getAndIncrement();
+         if (n < SAMPLE_SIZE) samples.set((int) n, recordId);
+      }
+
+      private String samples() {
+         StringBuilder ret = new StringBuilder("[");
+         for (int i = 0; i < SAMPLE_SIZE; i++) {
+            String sample = samples.get(i);
+            if (sample == null) continue;
+            if (ret.length() > 1) ret.append(", ");
+            ret.append(sample);
+         }
+         return ret.append(']').toString();
+      }
+   }
+}
@@ -0,0 +1,479 @@
+/*
+ * Copyright 2016, 2017 by HeBIS (www.hebis.de).
+ * 
+ * This file is part of HeBIS project Gnd4Index.
+ *
+ * This is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or any later version.
+ *
+ * This code is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with the code.  If not, see http://www.gnu.org/licenses/agpl>.
+ */
+package de.hebis.it.hds.gnd;
+
+import java.io.BufferedWriter;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.lang.management.ManagementFactory;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.IntSupplier;
+
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+/**
+ * Live metrics of the import stages.<br>
+ * The stages report via the static methods: bytes read, records grouped, time to parse a record, time of the handler per tag, requests in the queue
+ * of the sink, latency and errors of the requests to solr. The counters are {@link LongAdder}s, so the parser threads don't compete for them.<br>
+ * The values are visible as MBean "de.hebis.it.hds.gnd:type=ImportMetrics" and can be dumped periodically into a CSV file.
+ * 
+ * @author Uwe Reh (uh), HeBIS-IT
+ * @version 2026-10-17 uh initial
+ */
+public class ImportMetrics implements ImportMetricsMBean {
+   private static final Logger                           LOG           = LogManager.getLogger(ImportMetrics.class);
+   /** The name of the MBean */
+   public static final String                            OBJECT_NAME   = "de.hebis.it.hds.gnd:type=ImportMetrics";
+   private static final String                           CSV_HEADER    = "time;bytesRead;bytesPerSecond;recordsGrouped;recordsParsed;recordsPerSecond;parseP50Micros;parseP99Micros;sinkQueueDepth;solrRequests;solrErrors;solrLatencyMeanMillis;solrLatencyP99Millis";
+   private static final int                              TAGS          = 1000;
+   private static final ImportMetrics                    INSTANCE      = new ImportMetrics();
+   private static final LongAdder                        bytesRead     = new LongAdder();
+   private static final LongAdder                        grouped       = new LongAdder();
+   private static final Histogram                        parseTime     = new Histogram();
+   private static final Histogram                        solrLatency   = new Histogram();
+   private static final LongAdder                        solrErrors    = new LongAdder();
+   private static final AtomicReferenceArray<TagTimer>   tagTimers     = new AtomicReferenceArray<>(TAGS);
+   private static volatile IntSupplier                   sinkQueue     = null;
+   private static volatile long                          startTime     = System.nanoTime();
+   private static ScheduledExecutorService               csvWriter     = null;
+   private static CsvDump                                csvDump       = null;
+
+   private ImportMetrics() {
+      // only one instance as MBean
+   }
+
+   /**
+    * @return The instance registered as MBean
+    */
+   public static ImportMetrics getInstance() {
+      return INSTANCE;
+   }
+
+   /**
+    * Register the MBean at the platform MBean server. Further calls are ignored.
+    */
+   public static synchronized void register() {
+      MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+      try {
+         ObjectName name = new ObjectName(OBJECT_NAME);
+         if (!server.isRegistered(name)) server.registerMBean(INSTANCE, name);
+      }
+      catch (JMException e) {
+         LOG.warn("Can't register the import metrics as MBean.", e);
+      }
+   }
+
+   /**
+    * Count the bytes read from a stream
+    * 
+    * @param in The stream to observe
+    * @return The stream counting the bytes
+    */
+   public static InputStream meter(InputStream in) {
+      return new MeteredInputStream(in);
+   }
+
+   /**
+    * Count a record grouped from lines
+    */
+   public static void recordGrouped() {
+      grouped.increment();
+   }
+
+   /**
+    * @param nanos The time to parse the record
+    */
+   public static void recordParsed(long nanos) {
+      parseTime.add(nanos);
+   }
+
+   /**
+    * @param tag The numeric tag of the data field
+    * @param nanos The time used by the handler
+    */
+   public static void tagHandled(int tag, long nanos) {
+      if ((tag < 0) || (tag >= TAGS)) return;
+      TagTimer timer = tagTimers.get(tag);
+      if (timer == null) {
+         tagTimers.compareAndSet(tag, null, new TagTimer());
+         timer = tagTimers.get(tag);
+      }
+      timer.calls.increment();
+      timer.nanos.add(nanos);
+   }
+
+   /**
+    * @param nanos The latency of the request
+    * @param success FALSE if the request failed
+    */
+   public static void solrRequest(long nanos, boolean success) {
+      solrLatency.add(nanos);
+      if (!success) solrErrors.increment();
+   }
+
+   /**
+    * @param queueDepth The source of the current queue depth of the sink, or NULL if there is no queue
+    */
+   public static void watchSinkQueue(IntSupplier queueDepth) {
+      sinkQueue = queueDepth;
+   }
+
+   /**
+    * Append the metrics periodically to a CSV file. A running dump is stopped before.
+    * 
+    * @param csvFile The file to append to. The header is written if the file is new.
+    * @param interval Time between two lines in milliseconds
+    * @throws IOException If the file can't be opened
+    */
+   public static void startCsvDump(Path csvFile, long interval) throws IOException {
+      if (interval <= 0) throw new IllegalArgumentException("The interval has to be positive.");
+      stopCsvDump();
+      synchronized (ImportMetrics.class) {
+         csvDump = new CsvDump(csvFile);
+         csvWriter = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread ret = new Thread(r, "GndMetrics");
+            ret.setDaemon(true);
+            return ret;
+         });
+         csvWriter.scheduleWithFixedDelay(ImportMetrics::writeCsvLine, interval, interval, TimeUnit.MILLISECONDS);
+      }
+   }
+
+   /**
+    * Stop the dump after writing a final line.
+    */
+   public static void stopCsvDump() {
+      ScheduledExecutorService writer;
+      synchronized (ImportMetrics.class) {
+         writer = csvWriter;
+         csvWriter = null;
+      }
+      if (writer == null) return;
+      writer.shutdown();
+      try {
+         writer.awaitTermination(10, TimeUnit.SECONDS);
+      }
+      catch (InterruptedException e) {
+         Thread.currentThread().interrupt();
+      }
+      synchronized (ImportMetrics.class) {
+         writeCsvLine();
+         try {
+            csvDump.close();
+         }
+         catch (IOException e) {
+            LOG.warn("Can't close the CSV file of the metrics.", e);
+         }
+         csvDump = null;
+      }
+   }
+
+   private static synchronized void writeCsvLine() {
+      if (csvDump == null) return;
+      try {
+         csvDump.write();
+      }
+      catch (IOException e) {
+         LOG.warn("Can't write the metrics to the CSV file.", e);
+      }
+   }
+
+   @Override
+   public long getBytesRead() {
+      return bytesRead.sum();
+   }
+
+   @Override
+   public long getBytesPerSecond() {
+      return perSecond(bytesRead.sum());
+   }
+
+   @Override
+   public long getRecordsGrouped() {
+      return grouped.sum();
+   }
+
+   @Override
+   public long getRecordsParsed() {
+      return parseTime.getCount();
+   }
+
+   @Override
+   public long getRecordsPerSecond() {
+      return perSecond(parseTime.getCount());
+   }
+
+   @Override
+   public double getParseTimeMeanMicros() {
+      return parseTime.getMean() / 1e3;
+   }
+
+   @Override
+   public double getParseTimeP50Micros() {
+      return parseTime.getPercentile(0.5) / 1e3;
+   }
+
+   @Override
+   public double getParseTimeP99Micros() {
+      return parseTime.getPercentile(0.99) / 1e3;
+   }
+
+   @Override
+   public String[] getTagHandlerTimes() {
+      List<long[]> used = new ArrayList<>();
+      for (int tag = 0; tag < TAGS; tag++) {
+         TagTimer timer = tagTimers.get(tag);
+         if (timer != null) used.add(new long[] { tag, timer.calls.sum(), timer.nanos.sum() });
+      }
+      used.sort((a, b) -> Long.compare(b[2], a[2]));
+      String[] ret = new String[used.size()];
+      for (int i = 0; i < ret.length; i++) {
+         long[] values = used.get(i);
+         ret[i] = String.format(Locale.ROOT, "%03d: %d calls, %.1f ms total, %.2f micros mean", values[0], values[1], values[2] / 1e6, values[2] / 1e3 / Math.max(1, values[1]));
+      }
+      return ret;
+   }
+
+   /**
+    * @param tag The numeric tag of the data field
+    * @return The number of calls of the handler
+    */
+   public long getTagHandlerCalls(int tag) {
+      TagTimer timer = ((tag < 0) || (tag >= TAGS)) ? null : tagTimers.get(tag);
+      return (timer == null) ? 0 : timer.calls.sum();
+   }
+
+   @Override
+   public int getSinkQueueDepth() {
+      IntSupplier queue = sinkQueue;
+      return (queue == null) ? 0 : queue.getAsInt();
+   }
+
+   @Override
+   public long getSolrRequests() {
+      return solrLatency.getCount();
+   }
+
+   @Override
+   public long getSolrErrors() {
+      return solrErrors.sum();
+   }
+
+   @Override
+   public double getSolrLatencyMeanMillis() {
+      return solrLatency.getMean() / 1e6;
+   }
+
+   @Override
+   public double getSolrLatencyP99Millis() {
+      return solrLatency.getPercentile(0.99) / 1e6;
+   }
+
+   @Override
+   public void reset() {
+      bytesRead.reset();
+      grouped.reset();
+      parseTime.reset();
+      solrLatency.reset();
+      solrErrors.reset();
+      for (int tag = 0; tag < TAGS; tag++) {
+         tagTimers.set(tag, null);
+      }
+      startTime = System.nanoTime();
+   }
+
+   private static long perSecond(long value) {
+      long elapsed = System.nanoTime() - startTime;
+      return (elapsed <= 0) ? 0 : (long) (value * 1e9 / elapsed);
+   }
+
+   /**
+    * Histogram of durations with buckets by powers of two. The percentiles are accurate to a factor of two, that's enough to see outliers.
+    */
+   public static class Histogram {
+      private final LongAdder[]     buckets = new LongAdder[64];
+      private final LongAdder       sum     = new LongAdder();
+      private final LongAccumulator max     = new LongAccumulator(Math::max, 0);
+
+      /**
+       * An empty histogram
+       */
+      public Histogram() {
+         for (int i = 0; i < buckets.length; i++) {
+            buckets[i] = new LongAdder();
+         }
+      }
+
+      /**
+       * @param nanos The duration to count
+       */
+      public void add(long nanos) {
+         if (nanos < 0) nanos = 0;
+         buckets[64 - Long.numberOfLeadingZeros(nanos) - ((nanos == 0) ? 0 : 1)].increment();
+         sum.add(nanos);
+         max.accumulate(nanos);
+      }
+
+      /**
+       * @return The number of durations counted
+       */
+      public long getCount() {
+         long ret = 0;
+         for (LongAdder bucket : buckets) {
+            ret += bucket.sum();
+         }
+         return ret;
+      }
+
+      /**
+       * @return The mean duration in nanoseconds
+       */
+      public double getMean() {
+         long count = getCount();
+         return (count == 0) ? 0 : (double) sum.sum() / count;
+      }
+
+      /**
+       * @param quantile The quantile (0..1)
+       * @return The upper bound of the bucket containing the quantile in nanoseconds. Never more than the maximum.
+       */
+      public long getPercentile(double quantile) {
+         long[] counts = new long[buckets.length];
+         long total = 0;
+         for (int i = 0; i < counts.length; i++) {
+            counts[i] = buckets[i].sum();
+            total += counts[i];
+         }
+         if (total == 0) return 0;
+         long rank = (long) Math.ceil(quantile * total);
+         long seen = 0;
+         for (int i = 0; i < counts.length; i++) {
+            seen += counts[i];
+            if (seen >= rank) return Math.min(max.get(), (i >= 62) ? Long.MAX_VALUE : (2L << i) - 1);
+         }
+         return max.get();
+      }
+
+      /**
+       * Forget all durations
+       */
+      public void reset() {
+         for (LongAdder bucket : buckets) {
+            bucket.reset();
+         }
+         sum.reset();
+         max.reset();
+      }
+   }
+
+   /**
+    * Calls and time of the handler for one tag
+    */
+   private static class TagTimer {
+      private final LongAdder calls = new LongAdder();
+      private final LongAdder nanos = new LongAdder();
+   }
+
+   /**
+    * Input stream counting the bytes read
+    */
+   private static class MeteredInputStream extends FilterInputStream {
+
+      private MeteredInputStream(InputStream in) {
+         super(in);
+      }
+
+      @Override
+      public int read() throws IOException {
+         int ret = super.read();
+         if (ret >= 0) bytesRead.increment();
+         return ret;
+      }
+
+      @Override
+      public int read(byte[] b, int off, int len) throws IOException {
+         int ret = super.read(b, off, len);
+         if (ret > 0) bytesRead.add(ret);
+         return ret;
+      }
+
+      @Override
+      public long skip(long n) throws IOException {
+         long ret = super.skip(n);
+         if (ret > 0) bytesRead.add(ret);
+         return ret;
+      }
+   }
+
+   /**
+    * The CSV file, with the values of the last line to calculate the rates of the interval
+    */
+   private static class CsvDump {
+      private final BufferedWriter out;
+      private long                 lastTime    = System.nanoTime();
+      private long                 lastBytes   = bytesRead.sum();
+      private long                 lastRecords = parseTime.getCount();
+
+      private CsvDump(Path csvFile) throws IOException {
+         boolean isNew = !Files.exists(csvFile) || (Files.size(csvFile) == 0);
+         out = Files.newBufferedWriter(csvFile, StandardCharsets.UTF_8, StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+         if (isNew) {
+            out.write(CSV_HEADER);
+            out.newLine();
+            out.flush();
+         }
+      }
+
+      private void write() throws IOException {
+         long now = System.nanoTime();
+         long bytes = bytesRead.sum();
+         long records = parseTime.getCount();
+         double seconds = Math.max(1, now - lastTime) / 1e9;
+         out.write(String.format(Locale.ROOT, "%tFT%<tT;%d;%d;%d;%d;%d;%.1f;%.1f;%d;%d;%d;%.1f;%.1f", System.currentTimeMillis(), bytes, (long) ((bytes - lastBytes) / seconds),
+               grouped.sum(), records, (long) ((records - lastRecords) / seconds), INSTANCE.getParseTimeP50Micros(), INSTANCE.getParseTimeP99Micros(),
+               INSTANCE.getSinkQueueDepth(), INSTANCE.getSolrRequests(), solrErrors.sum(), INSTANCE.getSolrLatencyMeanMillis(), INSTANCE.getSolrLatencyP99Millis()));
+         out.newLine();
+         out.flush();
+         lastTime = now;
+         lastBytes = bytes;
+         lastRecords = records;
+      }
+
+      private void close() throws IOException {
+         out.close();
+      }
+   }
+}
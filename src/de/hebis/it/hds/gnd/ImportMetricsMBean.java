@@ -0,0 +1,73 @@
+/*
+ * Copyright 2016, 2017 by HeBIS (www.hebis.de).
+ * 
+ * This file is part of HeBIS project Gnd4Index.
+ *
+ * This is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or any later version.
+ *
+ * This code is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with the code.  If not, see http://www.gnu.org/licenses/agpl>.
+ */
+package de.hebis.it.hds.gnd;
+
+/**
+ * The attributes of {@link ImportMetrics} visible via JMX (e.g. jconsole or VisualVM).<br>
+ * The rates are averages since the start or the last reset.
+ * 
+ * @author Uwe Reh (uh), HeBIS-IT
+ * @version 2026-10-17 uh initial
+ */
+public interface ImportMetricsMBean {
+
+   /** @return The bytes read from the input files (uncompressed) */
+   long getBytesRead();
+
+   /** @return The bytes read per second */
+   long getBytesPerSecond();
+
+   /** @return The records grouped from lines (ImportMode 'lines' only) */
+   long getRecordsGrouped();
+
+   /** @return The records parsed */
+   long getRecordsParsed();
+
+   /** @return The records parsed per second */
+   long getRecordsPerSecond();
+
+   /** @return The mean time to parse a record in microseconds */
+   double getParseTimeMeanMicros();
+
+   /** @return The median of the time to parse a record in microseconds */
+   double getParseTimeP50Micros();
+
+   /** @return The 99th percentile of the time to parse a record in microseconds */
+   double getParseTimeP99Micros();
+
+   /** @return The time used by the handlers of the data fields, one line per tag, the most expensive first */
+   String[] getTagHandlerTimes();
+
+   /** @return The requests to solr in flight or waiting for a slot */
+   int getSinkQueueDepth();
+
+   /** @return The requests sent to solr (including retries) */
+   long getSolrRequests();
+
+   /** @return The failed requests to solr (including retries) */
+   long getSolrErrors();
+
+   /** @return The mean latency of a request to solr in milliseconds */
+   double getSolrLatencyMeanMillis();
+
+   /** @return The 99th percentile of the latency of a request to solr in milliseconds */
+   double getSolrLatencyP99Millis();
+
+   /** Forget all values */
+   void reset();
+}
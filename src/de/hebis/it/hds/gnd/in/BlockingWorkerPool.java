@@ -0,0 +1,190 @@
+/*
+ * Copyright 2016, 2017 by HeBIS (www.hebis.de).
+ * 
+ * This file is part of HeBIS project Gnd4Index.
+ *
+ * This is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or any later version.
+ *
+ * This code is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with the code.  If not, see http://www.gnu.org/licenses/agpl>.
+ */
+package de.hebis.it.hds.gnd.in;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+/**
+ * Fixed pool of named worker threads with a bounded queue.<br>
+ * If the queue is full, {@link #execute(Runnable)} blocks until a worker takes the next task. So the producer is slowed down exactly to the speed of
+ * the workers. A task failing with a RuntimeException is logged and counted, the worker survives.<br>
+ * Several producers may share the pool. Each one waits only for its own tasks, see {@link #newGroup()}.
+ * 
+ * @author Uwe Reh (uh), HeBIS-IT
+ * @version 2026-10-18 uh initial
+ * @version 2026-10-18 uh groups of tasks in a shared pool
+ */
+class BlockingWorkerPool extends ThreadPoolExecutor {
+   private static final Logger LOG      = LogManager.getLogger(BlockingWorkerPool.class);
+   private final String        name;
+   private final LongAdder     failures = new LongAdder();
+
+   /**
+    * @param name Prefix of the thread names
+    * @param queueSize Max. number of waiting tasks
+    * @param threads Number of workers
+    */
+   BlockingWorkerPool(String name, int queueSize, int threads) {
+      super(Math.max(1, threads), Math.max(1, threads), 0, TimeUnit.MILLISECONDS, new ArrayBlockingQueue<>(Math.max(1, queueSize)), newThreadFactory(name), BlockingWorkerPool::waitForSpace);
+      this.name = name;
+   }
+
+   private static ThreadFactory newThreadFactory(String name) {
+      AtomicInteger count = new AtomicInteger();
+      return task -> new Thread(task, name + "-" + count.incrementAndGet());
+   }
+
+   /**
+    * Wait for free space in the queue, instead of rejecting the task
+    */
+   private static void waitForSpace(Runnable task, ThreadPoolExecutor pool) {
+      if (pool.isShutdown()) throw new RejectedExecutionException("The pool is shut down.");
+      try {
+         pool.getQueue().put(task);
+      }
+      catch (InterruptedException e) {
+         Thread.currentThread().interrupt();
+         throw new RejectedExecutionException("Interrupted while waiting for a worker.", e);
+      }
+   }
+
+   /**
+    * Execute the task by one of the workers. Blocks while the queue is full.
+    */
+   @Override
+   public void execute(Runnable task) {
+      super.execute(() -> {
+         try {
+            task.run();
+         }
+         catch (RuntimeException e) {
+            failures.increment();
+            LOG.error("A task in " + name + " failed.", e);
+         }
+      });
+   }
+
+   /**
+    * Wait until all tasks are done and stop the workers.
+    */
+   void shutdownAndWait() {
+      shutdown();
+      try {
+         while (!awaitTermination(1, TimeUnit.MINUTES)) {
+            if (LOG.isDebugEnabled()) LOG.debug("Still waiting for the workers of " + name);
+         }
+      }
+      catch (InterruptedException e) {
+         shutdownNow();
+         Thread.currentThread().interrupt();
+         throw new RuntimeException("Interrupted while waiting for the workers of " + name, e);
+      }
+   }
+
+   /**
+    * @return The number of tasks which failed with an exception
+    */
+   int getFailures() {
+      return failures.intValue();
+   }
+
+   /**
+    * @return A new group of tasks, executed by this pool
+    */
+   Group newGroup() {
+      return new Group();
+   }
+
+   /**
+    * The tasks of one producer (e.g. one input file) in a shared pool.
+    */
+   class Group {
+      private final LongAdder groupFailures = new LongAdder();
+      private int             pending       = 0;
+
+      private Group() {
+         // see newGroup()
+      }
+
+      /**
+       * Execute the task by one of the workers of the pool. Blocks while the queue is full.
+       * 
+       * @param task The task
+       */
+      void execute(Runnable task) {
+         started();
+         try {
+            BlockingWorkerPool.this.execute(() -> {
+               try {
+                  task.run();
+               }
+               catch (RuntimeException e) {
+                  groupFailures.increment();
+                  throw e;
+               }
+               finally {
+                  finished();
+               }
+            });
+         }
+         catch (RuntimeException e) {
+            finished(); // not queued
+            throw e;
+         }
+      }
+
+      private synchronized void started() {
+         pending++;
+      }
+
+      private synchronized void finished() {
+         if (--pending == 0) notifyAll();
+      }
+
+      /**
+       * Wait until all tasks of this group are done. The pool keeps running.
+       */
+      synchronized void await() {
+         try {
+            while (pending > 0) {
+               wait();
+            }
+         }
+         catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Interrupted while waiting for the tasks in " + name, e);
+         }
+      }
+
+      /**
+       * @return The number of tasks of this group, which failed with an exception
+       */
+      int getFailures() {
+         return groupFailures.intValue();
+      }
+   }
+}
@@ -0,0 +1,167 @@
+/*
+ * Copyright 2016, 2017 by HeBIS (www.hebis.de).
+ * 
+ * This file is part of HeBIS project Gnd4Index.
+ *
+ * This is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or any later version.
+ *
+ * This code is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with the code.  If not, see http://www.gnu.org/licenses/agpl>.
+ */
+package de.hebis.it.hds.gnd.in;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.List;
+import java.util.Properties;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import de.hebis.it.hds.gnd.in.sink.AuthoritySink;
+
+/**
+ * Remember how far the import of a file is done, to resume after a crash.<br>
+ * The state file holds the byte offset behind the last range, whose records are all parsed and flushed to the sink. Ranges finished out of order
+ * are counted only if all ranges before them are finished, too. The state is bound to the size and the modification time of the input file.
+ * 
+ * @author Uwe Reh (uh), HeBIS-IT
+ * @version 2026-10-17 uh initial
+ */
+class ImportCheckpoint {
+   private static final Logger             LOG          = LogManager.getLogger(ImportCheckpoint.class);
+   private static final String             KEY_FILE     = "file";
+   private static final String             KEY_SIZE     = "size";
+   private static final String             KEY_MODIFIED = "lastModified";
+   private static final String             KEY_OFFSET   = "offset";
+   private final Path                      input;
+   private final Path                      stateFile;
+   private List<MarcXmlFileSplitter.Range> ranges       = null;
+   private boolean[]                       done         = null;
+   private int                             nextPending  = 0;
+
+   /**
+    * @param input The file to import
+    * @param stateDir Directory for the state file. NULL for the directory of the input file.
+    */
+   ImportCheckpoint(Path input, String stateDir) {
+      this.input = input.toAbsolutePath();
+      String stateName = this.input.getFileName().toString() + ".checkpoint";
+      stateFile = ((stateDir == null) || stateDir.trim().isEmpty()) ? this.input.resolveSibling(stateName) : Paths.get(stateDir.trim(), stateName);
+   }
+
+   /**
+    * Read the offset of the last checkpoint.
+    * 
+    * @return The offset to resume or 0, if there is no valid checkpoint
+    */
+   long readOffset() {
+      if (!Files.isRegularFile(stateFile)) return 0;
+      Properties state = new Properties();
+      try (InputStream in = Files.newInputStream(stateFile)) {
+         state.load(in);
+         if (!input.toString().equals(state.getProperty(KEY_FILE)) || (Files.size(input) != Long.parseLong(state.getProperty(KEY_SIZE, "-1")))
+               || (Files.getLastModifiedTime(input).toMillis() != Long.parseLong(state.getProperty(KEY_MODIFIED, "-1")))) {
+            LOG.warn("The checkpoint " + stateFile.toString() + " doesn't match the input file. Start from the beginning.");
+            return 0;
+         }
+         return Long.parseLong(state.getProperty(KEY_OFFSET, "0"));
+      }
+      catch (IOException | NumberFormatException e) {
+         LOG.warn("Can't read the checkpoint " + stateFile.toString() + ". Start from the beginning.", e);
+         return 0;
+      }
+   }
+
+   /**
+    * Define the ranges to track
+    * 
+    * @param ranges All ranges, which will be processed.
+    */
+   synchronized void start(List<MarcXmlFileSplitter.Range> ranges) {
+      this.ranges = ranges;
+      done = new boolean[ranges.size()];
+      nextPending = 0;
+   }
+
+   /**
+    * Mark a range as finished. If the watermark moves, the sink is flushed and the new offset is written.
+    * 
+    * @param range The range, whose records are all parsed
+    * @param sink The destination of the records.
+    */
+   synchronized void done(MarcXmlFileSplitter.Range range, AuthoritySink sink) {
+      done[range.index] = true;
+      int before = nextPending;
+      while ((nextPending < done.length) && done[nextPending]) nextPending++;
+      if (nextPending == before) return; // an earlier range is still in work
+      long offset = ranges.get(nextPending - 1).end;
+      try {
+         sink.flush();
+         write(offset);
+      }
+      catch (IOException e) {
+         LOG.error("Can't write the checkpoint at " + offset + " for " + input.toString(), e);
+      }
+   }
+
+   /**
+    * @return TRUE if all ranges are finished
+    */
+   synchronized boolean isComplete() {
+      return (done != null) && (nextPending == done.length);
+   }
+
+   /**
+    * Remove the state file after the successful import.
+    */
+   void delete() {
+      try {
+         Files.deleteIfExists(stateFile);
+      }
+      catch (IOException e) {
+         LOG.warn("Can't delete the checkpoint " + stateFile.toString(), e);
+      }
+   }
+
+   /**
+    * @return The path of the state file
+    */
+   Path getStateFile() {
+      return stateFile;
+   }
+
+   /**
+    * Replace the state file (atomic, if the file system can)
+    */
+   private void write(long offset) throws IOException {
+      Properties state = new Properties();
+      state.setProperty(KEY_FILE, input.toString());
+      state.setProperty(KEY_SIZE, String.valueOf(Files.size(input)));
+      state.setProperty(KEY_MODIFIED, String.valueOf(Files.getLastModifiedTime(input).toMillis()));
+      state.setProperty(KEY_OFFSET, String.valueOf(offset));
+      Path tmp = stateFile.resolveSibling(stateFile.getFileName().toString() + ".tmp");
+      try (OutputStream out = Files.newOutputStream(tmp)) {
+         state.store(out, "Checkpoint of the GND import");
+      }
+      try {
+         Files.move(tmp, stateFile, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+      }
+      catch (IOException e) {
+         Files.move(tmp, stateFile, StandardCopyOption.REPLACE_EXISTING);
+      }
+      if (LOG.isDebugEnabled()) LOG.debug("Checkpoint for " + input.getFileName().toString() + " at " + offset);
+   }
+}
@@ -0,0 +1,105 @@
+/*
+ * Copyright 2016, 2017 by HeBIS (www.hebis.de).
+ * 
+ * This file is part of HeBIS project Gnd4Index.
+ *
+ * This is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or any later version.
+ *
+ * This code is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with the code.  If not, see http://www.gnu.org/licenses/agpl>.
+ */
+package de.hebis.it.hds.gnd.in;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.function.Function;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+/**
+ * Process several input files concurrently.<br>
+ * The files are started by size, the biggest first. So the small files are done while the biggest one is still running and the whole set needs
+ * about the time of the biggest file.
+ * 
+ * @author Uwe Reh (uh), HeBIS-IT
+ * @version 2026-10-17 uh initial
+ * @version 2026-10-18 uh blocking worker pool
+ */
+class ImportScheduler {
+   private static final Logger LOG    = LogManager.getLogger(ImportScheduler.class);
+   private final int           slots;
+   private final List<Path>    failed = Collections.synchronizedList(new ArrayList<>());
+
+   /**
+    * @param slots Max. number of files processed at the same time
+    */
+   ImportScheduler(int slots) {
+      this.slots = Math.max(1, slots);
+   }
+
+   /**
+    * Process the files and wait until all are done. A failure of one file doesn't stop the others.
+    * 
+    * @param files The files to process
+    * @param task The processing of one file
+    * @return The results of the successful files (in order of the start)
+    */
+   <R> List<R> run(List<Path> files, Function<Path, R> task) {
+      List<Path> ordered = new ArrayList<>(files);
+      ordered.sort((a, b) -> Long.compare(sizeOf(b), sizeOf(a)));
+      if (LOG.isDebugEnabled()) LOG.debug("Order of the files: " + ordered.toString());
+      BlockingWorkerPool pool = new BlockingWorkerPool("GndFile", Math.max(1, ordered.size()), slots);
+      Map<Path, Future<R>> pending = new LinkedHashMap<>();
+      for (Path file : ordered) {
+         pending.put(file, pool.submit(() -> task.apply(file)));
+      }
+      pool.shutdownAndWait(); // waits till all files are done
+      List<R> ret = new ArrayList<>(ordered.size());
+      for (Map.Entry<Path, Future<R>> entry : pending.entrySet()) {
+         try {
+            ret.add(entry.getValue().get());
+         }
+         catch (ExecutionException e) {
+            LOG.error("Failed to load " + entry.getKey().toString(), e.getCause());
+            failed.add(entry.getKey());
+         }
+         catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Interrupted while waiting for " + entry.getKey().toString(), e);
+         }
+      }
+      return ret;
+   }
+
+   /**
+    * @return The files which couldn't be processed
+    */
+   List<Path> getFailed() {
+      return failed;
+   }
+
+   private static long sizeOf(Path file) {
+      try {
+         return Files.size(file);
+      }
+      catch (IOException e) {
+         return 0; // the error is reported by the task
+      }
+   }
+}
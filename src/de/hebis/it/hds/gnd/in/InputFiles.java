@@ -0,0 +1,86 @@
+/*
+ * Copyright 2016, 2017 by HeBIS (www.hebis.de).
+ * 
+ * This file is part of HeBIS project Gnd4Index.
+ *
+ * This is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or any later version.
+ *
+ * This code is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with the code.  If not, see http://www.gnu.org/licenses/agpl>.
+ */
+package de.hebis.it.hds.gnd.in;
+
+import java.io.BufferedInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipInputStream;
+
+import org.apache.commons.compress.compressors.bzip2.BZip2CompressorInputStream;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+/**
+ * Open the input files of the {@link Loader}.<br>
+ * Compressed files (*.gz, *.bz2, *.zip) are decompressed on the fly. The decompression runs in an own thread, to overlap with the parsing.
+ * 
+ * @author Uwe Reh (uh), HeBIS-IT
+ * @version 2026-10-17 uh initial
+ */
+public class InputFiles {
+   private static final Logger LOG        = LogManager.getLogger(InputFiles.class);
+   private static final int    BUFFERSIZE = 1 << 16;
+
+   /**
+    * Open the file for reading.
+    * 
+    * @param path2InputFile The file to read. The extension decides about the decompression.
+    * @return The (decompressed) content of the file
+    * @throws IOException If the file can't be opened
+    */
+   public static InputStream open(Path path2InputFile) throws IOException {
+      String name = path2InputFile.getFileName().toString().toLowerCase();
+      InputStream raw = new BufferedInputStream(Files.newInputStream(path2InputFile), BUFFERSIZE);
+      InputStream decompressed;
+      if (name.endsWith(".gz")) {
+         decompressed = new GZIPInputStream(raw, BUFFERSIZE);
+      }
+      else if (name.endsWith(".bz2")) {
+         decompressed = new BZip2CompressorInputStream(raw, true);
+      }
+      else if (name.endsWith(".zip")) {
+         ZipInputStream zip = new ZipInputStream(raw);
+         ZipEntry entry = zip.getNextEntry();
+         if (entry == null) {
+            zip.close();
+            throw new IOException("The zip archive " + path2InputFile.toString() + " is empty.");
+         }
+         if (LOG.isDebugEnabled()) LOG.debug("Read " + entry.getName() + " from " + path2InputFile.toString() + ". Further entries are ignored.");
+         decompressed = zip;
+      }
+      else {
+         return raw;
+      }
+      if (LOG.isDebugEnabled()) LOG.debug("Decompress " + path2InputFile.toString() + " in background.");
+      return new ReadAheadInputStream(decompressed, "Decompress " + path2InputFile.getFileName());
+   }
+
+   /**
+    * @param path2InputFile The file to check
+    * @return TRUE if the file will be decompressed by {@link #open(Path)}
+    */
+   public static boolean isCompressed(Path path2InputFile) {
+      String name = path2InputFile.getFileName().toString().toLowerCase();
+      return name.endsWith(".gz") || name.endsWith(".bz2") || name.endsWith(".zip");
+   }
+}
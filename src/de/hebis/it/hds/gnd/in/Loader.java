@@ -17,13 +17,19 @@
  */
 package de.hebis.it.hds.gnd.in;
 
+import java.io.BufferedReader;
+import java.io.Closeable;
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
 import java.net.URI;
 import java.net.URISyntaxException;
-import java.nio.file.Files;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.function.Predicate;
 import java.util.regex.Pattern;
 import java.util.stream.Stream;
@@ -31,23 +37,54 @@ import java.util.stream.Stream;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 import org.apache.solr.client.solrj.SolrClient;
-import org.apache.solr.client.solrj.SolrServerException;
-import org.apache.solr.client.solrj.impl.ConcurrentUpdateSolrClient;
 import org.apache.solr.client.solrj.impl.HttpSolrClient;
 
+import de.hebis.it.hds.gnd.Diagnostics;
+import de.hebis.it.hds.gnd.ImportMetrics;
 import de.hebis.it.hds.gnd.Model;
+import de.hebis.it.hds.gnd.in.sink.AuthoritySink;
+import de.hebis.it.hds.gnd.in.sink.ChangeDetectingSink;
+import de.hebis.it.hds.gnd.in.sink.DeadLetterFile;
+import de.hebis.it.hds.gnd.in.sink.FileSink;
+import de.hebis.it.hds.gnd.in.sink.NullSink;
+import de.hebis.it.hds.gnd.in.sink.RedirectFileSink;
+import de.hebis.it.hds.gnd.in.sink.SolrSink;
+import de.hebis.it.hds.gnd.in.sink.SynonymFileSink;
+import de.hebis.it.hds.gnd.in.sink.TeeSink;
+import de.hebis.it.hds.gnd.in.subfields.FieldMapping;
+import de.hebis.it.hds.gnd.in.subfields.GeoFields;
 import de.hebis.it.hds.tools.streams.TextBlockSpliterator;
 
 /**
  * Import program for GND authority record files provided by the DNB.<br>
- * The input files need to bee formated as marc21-XML.<br>
- * The processed records will be send to an solr index.
+ * The input files need to bee formated as marc21-XML. They may be compressed. (*.gz, *.bz2 or *.zip)<br>
+ * The processed records will be send to an solr index, or to other sinks (see the options of {@link #main(String[])}).<br>
+ * The reading thread only groups the lines to records. The parsing is done by a pool of workers (see 'ParserThreads' in the config file). The
+ * files loaded concurrently share this pool.
  * 
  * @author Uwe Reh (uh), HeBIS-IT
  * @version 2017-03-17 uh First try
+ * @version 2026-10-17 uh Parallel parsing with a bounded worker pool
+ * @version 2026-10-17 uh Configurable batches to solr, independent of the log level
+ * @version 2026-10-17 uh Pluggable destinations (solr, file, null)
+ * @version 2026-10-17 uh Checkpoints to resume the import
+ * @version 2026-10-17 uh Redirections into a file
+ * @version 2026-10-17 uh Incremental updates via OAI
+ * @version 2026-10-17 uh Skip unchanged records
+ * @version 2026-10-17 uh Several files concurrently, with one commit at the end
+ * @version 2026-10-17 uh Retries and dead letters
+ * @version 2026-10-17 uh Summary of the conversion warnings
+ * @version 2026-10-17 uh Live metrics as MBean and CSV
+ * @version 2026-10-17 uh Solr sink for any solr client (e.g. embedded)
+ * @version 2026-10-17 uh Optional bounding box of coordinates
+ * @version 2026-10-18 uh Blocking worker pool instead of sleeping on a full queue
+ * @version 2026-10-18 uh Skip unchanged records only for solr
+ * @version 2026-10-18 uh The OAI harvester commits the sink itself
+ * @version 2026-10-18 uh One request in flight by default, always for OAI
+ * @version 2026-10-18 uh One pool of parsers shared by all files
  * 
  **/
-public class Loader {
+public class Loader implements Closeable {
 
    /** The Constant LOG. */
    private static final Logger            LOG          = LogManager.getLogger(Loader.class);
@@ -55,36 +92,205 @@ public class Loader {
    private static final Predicate<String> startpattern = Pattern.compile(".*<record[^>].*").asPredicate();
    private static final Predicate<String> endpattern   = Pattern.compile(".*</record.*").asPredicate();
    private static Model                   config       = Model.getModel();
-   private SolrClient                     server       = null;
+   private AuthoritySink                  sink         = null;
+   private int                            threads      = Integer.valueOf(config.getProperty("ParserThreads", String.valueOf(Runtime.getRuntime().availableProcessors())));
+   private int                            queueSize    = Integer.valueOf(config.getProperty("ParserQueueSize", String.valueOf(threads * 4)));
+   private String                         importMode   = config.getProperty("ImportMode", "lines");
+   private long                           checkpointInterval = Long.valueOf(config.getProperty("CheckpointInterval", String.valueOf(1 << 26)));
+   private int                            fileSlots    = Integer.valueOf(config.getProperty("ImportSlots", "3"));
+   private boolean                        resume       = false;
+   private BlockingWorkerPool             parsers      = null;
 
    /**
-    * Instantiates a new loader.
+    * Instantiates a new loader, writing to solr.
     *
     * @param baseSolrURL The URL to the repository (solr core)
     */
    public Loader(String baseSolrURL) {
-      if (baseSolrURL == null) throw new RuntimeException("No URL to solr server provided.");
-      if (LOG.isDebugEnabled()) {
-         server = new HttpSolrClient.Builder(baseSolrURL).build();
-      }
-      else {
-         server = new ConcurrentUpdateSolrClient.Builder(baseSolrURL).withQueueSize(1000).withThreadCount(10).build();
+      this(newSolrSink(baseSolrURL));
+   }
+
+   /**
+    * Instantiates a new loader.
+    *
+    * @param sink The destination of the parsed records
+    */
+   public Loader(AuthoritySink sink) {
+      if (sink == null) throw new RuntimeException("No destination for the records provided.");
+      FieldMapping.configure(config.getProperty("FieldMappingFile"));
+      GeoFields.configure(Boolean.parseBoolean(config.getProperty("GeoBoundingBox", "false")));
+      this.sink = sink;
+      Diagnostics.startPeriodicSummary(Long.valueOf(config.getProperty("DiagnosticsInterval", "300000")));
+      ImportMetrics.register();
+      String metricsFile = config.getProperty("MetricsCsvFile");
+      if ((metricsFile != null) && !metricsFile.trim().isEmpty()) {
+         try {
+            ImportMetrics.startCsvDump(Paths.get(metricsFile.trim()), Long.valueOf(config.getProperty("MetricsCsvInterval", "10000")));
+         }
+         catch (IOException e) {
+            LOG.error("Can't write the metrics to " + metricsFile, e);
+            throw new RuntimeException(e);
+         }
       }
-      if (server == null) throw new RuntimeException("Can't initialize the solrj client.");
+      LOG.debug("Loader writes to " + sink.toString());
+   }
+
+   /**
+    * Build the sink to solr as defined in the config file
+    * 
+    * @param baseSolrURL The URL to the repository (solr core)
+    * @return The sink sending the records in batches
+    */
+   public static SolrSink newSolrSink(String baseSolrURL) {
+      if (baseSolrURL == null) throw new RuntimeException("No URL to solr server provided.");
+      SolrClient client = new HttpSolrClient.Builder(baseSolrURL).build();
+      if (client == null) throw new RuntimeException("Can't initialize the solrj client.");
       LOG.debug("SolrWriter is connected to " + baseSolrURL);
+      return newSolrSink(client);
    }
 
    /**
-    * Load.
+    * Build the sink to solr as defined in the config file
+    * 
+    * @param client The client to the repository (e.g. an embedded solr)
+    * @return The sink sending the records in batches
+    */
+   public static SolrSink newSolrSink(SolrClient client) {
+      int batchSize = Integer.valueOf(config.getProperty("SolrBatchSize", "1000"));
+      long flushInterval = Long.valueOf(config.getProperty("SolrFlushInterval", "5000"));
+      int maxInFlight = Integer.valueOf(config.getProperty("SolrMaxInFlight", "1"));
+      int commitWithin = Integer.valueOf(config.getProperty("SolrCommitWithin", "-1"));
+      SolrSink ret = new SolrSink(client, batchSize, flushInterval, maxInFlight, commitWithin);
+      ret.setRetries(Integer.valueOf(config.getProperty("SolrMaxRetries", "3")), Long.valueOf(config.getProperty("SolrRetryDelay", "1000")));
+      String deadLetters = config.getProperty("DeadLetterFile", "GndDeadLetters");
+      if (!deadLetters.trim().isEmpty()) ret.setDeadLetters(DeadLetterFile.withTimestamp(deadLetters.trim()));
+      return ret;
+   }
+
+   /**
+    * Load a single file and commit.
     *
     * @param marcXmlFile the marc xml file
     */
    public void load(URI marcXmlFile) {
-      LOG.debug("Starting with " + marcXmlFile.toString());
-      Path path2InputFile = Paths.get(marcXmlFile);
+      List<ImportCheckpoint> checkpoints = new ArrayList<>(1);
+      checkpoints.add(process(Paths.get(marcXmlFile)));
+      commit(checkpoints);
+   }
+
+   /**
+    * Load several files concurrently into the same sink, with one commit at the end. (see 'ImportSlots' in the config file)<br>
+    * The biggest files are started first, the small ones are processed while the big ones are still running.
+    *
+    * @param marcXmlFiles the marc xml files
+    */
+   public void load(List<URI> marcXmlFiles) {
+      List<Path> paths = new ArrayList<>(marcXmlFiles.size());
+      for (URI marcXmlFile : marcXmlFiles) {
+         paths.add(Paths.get(marcXmlFile));
+      }
+      ImportScheduler scheduler = new ImportScheduler(fileSlots);
+      List<ImportCheckpoint> checkpoints = scheduler.run(paths, this::process);
+      commit(checkpoints);
+      if (!scheduler.getFailed().isEmpty()) throw new RuntimeException("Failed to load " + scheduler.getFailed().toString());
+   }
+
+   /**
+    * Parse one file into the sink, without commit.
+    *
+    * @param path2InputFile the marc xml file
+    * @return The checkpoint of the file or NULL if no checkpoints are written
+    */
+   private ImportCheckpoint process(Path path2InputFile) {
+      LOG.debug("Starting with " + path2InputFile.toString());
+      MarcXmlParser parser = new MarcXmlParser(sink);
+      ImportCheckpoint checkpoint = null;
+      boolean compressed = InputFiles.isCompressed(path2InputFile);
+      if (resume && compressed) LOG.warn("Compressed files can't be resumed. " + path2InputFile.toString() + " is read from the beginning.");
+      if (("split".equalsIgnoreCase(importMode) || resume) && !compressed) {
+         checkpoint = new ImportCheckpoint(path2InputFile, config.getProperty("CheckpointDir"));
+         loadSplitted(path2InputFile, parser, checkpoint);
+      }
+      else if ("stream".equalsIgnoreCase(importMode) || "split".equalsIgnoreCase(importMode)) loadStreaming(path2InputFile, parser);
+      else loadLines(path2InputFile, parser);
+      LOG.info("Finished with " + path2InputFile.toString());
+      return checkpoint;
+   }
+
+   /**
+    * Commit the sink and remove the checkpoints of the completed files
+    *
+    * @param checkpoints The checkpoints of the loaded files (NULL entries are ignored)
+    */
+   private void commit(List<ImportCheckpoint> checkpoints) {
+      try {
+         sink.commit();
+      }
+      catch (IOException e) {
+         LOG.error("Failed sending final commit to " + sink.toString(), e);
+         throw new RuntimeException(e);
+      }
+      for (ImportCheckpoint checkpoint : checkpoints) {
+         if (checkpoint == null) continue;
+         if (checkpoint.isComplete()) checkpoint.delete();
+         else LOG.error("Not all records are processed. Use '--resume' to continue after " + checkpoint.getStateFile().toString());
+      }
+   }
+
+   /**
+    * Close the sink. The loader can't be used afterwards.
+    */
+   @Override
+   public void close() {
+      synchronized (this) {
+         if (parsers != null) parsers.shutdownAndWait();
+         parsers = null;
+      }
+      Diagnostics.stopPeriodicSummary();
+      Diagnostics.logSummary("Conversion warnings:");
+      ImportMetrics.stopCsvDump();
+      try {
+         sink.close();
+      }
+      catch (IOException e) {
+         LOG.error("Failed to close " + sink.toString(), e);
+         throw new RuntimeException(e);
+      }
+   }
+
+   /**
+    * Harvest the changes from the OAI repository defined in the config file. The state of the last harvest is kept in the file 'OaiStateFile'.
+    */
+   public void harvest() {
+      OaiHarvester harvester = new OaiHarvester(sink, config.getProperty("OaiBaseURL", "http://services.dnb.de/oai/repository"),
+            config.getProperty("OaiMetadataPrefix", "MARC21-xml"), config.getProperty("OaiSet", "authorities"), Paths.get(config.getProperty("OaiStateFile", "GndOai.state")));
+      try {
+         harvester.harvest(config.getProperty("OaiFrom")); // commits the sink
+      }
+      catch (IOException e) {
+         LOG.error("Failed to harvest the changes into " + sink.toString(), e);
+         throw new RuntimeException(e);
+      }
+   }
+
+   /**
+    * Group the lines of the input file to records and let them parse by the workers.
+    * 
+    * @param path2InputFile The marc xml file
+    * @param parser The parser to use
+    */
+   private void loadLines(Path path2InputFile, MarcXmlParser parser) {
       Stream<String> lineStream;
       try {
-         lineStream = Files.lines(path2InputFile);
+         BufferedReader lineReader = new BufferedReader(new InputStreamReader(ImportMetrics.meter(InputFiles.open(path2InputFile)), StandardCharsets.UTF_8), 1 << 16);
+         lineStream = lineReader.lines().onClose(() -> {
+            try {
+               lineReader.close();
+            }
+            catch (IOException e) {
+               LOG.warn("Can't close " + path2InputFile.toString());
+            }
+         });
       }
       catch (IOException e) {
          LOG.fatal("Fehler beim Lesen der Eingabedatei: " + path2InputFile.toString());
@@ -93,20 +299,101 @@ public class Loader {
       // group the lines. TODO find better code
       Stream<List<String>> marcXmlStream = TextBlockSpliterator.toTextBlocks(lineStream, startpattern, endpattern, true);
       // process the data. map and consume
-      marcXmlStream.map(new MarcXmlParser(server)).forEach(x -> {
-         if (!x) System.err.println("Fail");
-      });
-      LOG.info("Finished with " + marcXmlFile.toString());
-      try {
-         server.commit();
-         server.close();
+      AtomicInteger failures = new AtomicInteger(0);
+      if (threads <= 1) {
+         marcXmlStream.forEach(record -> {
+            ImportMetrics.recordGrouped();
+            if (!parser.apply(record)) failures.incrementAndGet();
+         });
+      }
+      else {
+         BlockingWorkerPool.Group workers = parsers().newGroup();
+         marcXmlStream.forEach(record -> {
+            ImportMetrics.recordGrouped();
+            workers.execute(() -> { // blocks while all workers are busy and the queue is full
+               if (!parser.apply(record)) failures.incrementAndGet();
+            });
+         });
+         workers.await(); // waits till all records of the file are parsed
+         failures.addAndGet(workers.getFailures());
+      }
+      lineStream.close();
+      if (failures.get() > 0) LOG.warn(failures.get() + " unusable records in " + path2InputFile.toString());
+   }
+
+   /**
+    * Parse the whole input file with one stax parser. (see 'ImportMode' in the config file)
+    * 
+    * @param path2InputFile The marc xml file
+    * @param parser The parser to use
+    */
+   private void loadStreaming(Path path2InputFile, MarcXmlParser parser) {
+      try (InputStream marcXmlStream = ImportMetrics.meter(InputFiles.open(path2InputFile))) {
+         int count = parser.parseStream(marcXmlStream);
+         if (LOG.isDebugEnabled()) LOG.debug(count + " records found in " + path2InputFile.toString());
+      }
+      catch (IOException e) {
+         LOG.fatal("Fehler beim Lesen der Eingabedatei: " + path2InputFile.toString());
+         throw new RuntimeException(e);
+      }
+   }
+
+   /**
+    * Split the input file into byte ranges, which are parsed in parallel. Each range is parsed by an own stax parser. (see 'ImportMode' in the
+    * config file)<br>
+    * After a range is done, the offset is saved as checkpoint. With {@link #setResume(boolean)} the import starts at the last checkpoint.
+    * 
+    * @param path2InputFile The marc xml file (uncompressed)
+    * @param parser The parser to use
+    * @param checkpoint The tracker for the progress
+    */
+   private void loadSplitted(Path path2InputFile, MarcXmlParser parser, ImportCheckpoint checkpoint) {
+      try (MarcXmlFileSplitter splitter = new MarcXmlFileSplitter(path2InputFile)) {
+         long from = resume ? checkpoint.readOffset() : 0;
+         if (from > 0) LOG.info("Resume " + path2InputFile.toString() + " at byte " + from + " of " + splitter.size());
+         long chunkSize = Math.max(1, Math.min(checkpointInterval, (splitter.size() - from) / threads));
+         List<MarcXmlFileSplitter.Range> ranges = splitter.split(from, chunkSize);
+         checkpoint.start(ranges);
+         BlockingWorkerPool.Group workers = parsers().newGroup();
+         for (MarcXmlFileSplitter.Range range : ranges) {
+            workers.execute(() -> {
+               try (InputStream marcXmlStream = ImportMetrics.meter(splitter.open(range))) {
+                  int count = parser.parseStream(marcXmlStream);
+                  if (LOG.isDebugEnabled()) LOG.debug(count + " records found in " + range.toString() + " of " + path2InputFile.toString());
+                  checkpoint.done(range, sink);
+               }
+               catch (Exception e) {
+                  LOG.error("Failed to parse " + range.toString() + " of " + path2InputFile.toString(), e);
+               }
+            });
+         }
+         workers.await(); // waits till all ranges of the file are parsed
       }
-      catch (SolrServerException | IOException e) {
-         LOG.error("Failed sending final commit for:" + marcXmlFile.toString() + " to " + server.toString(), e);
+      catch (IOException e) {
+         LOG.fatal("Fehler beim Lesen der Eingabedatei: " + path2InputFile.toString());
          throw new RuntimeException(e);
       }
    }
 
+   /**
+    * The pool of parsers is shared by all files, so concurrently loaded files don't multiply the number of threads.
+    * 
+    * @return The pool, created on the first call
+    */
+   private synchronized BlockingWorkerPool parsers() {
+      if (parsers == null) parsers = new BlockingWorkerPool("GndParser", queueSize, threads);
+      return parsers;
+   }
+
+   /**
+    * Start the import at the last checkpoint of the file. (Only for uncompressed files)
+    * 
+    * @param resume TRUE to skip the records of a previous, failed run.
+    */
+   public void setResume(boolean resume) {
+      this.resume = resume;
+   }
+
    /**
     * Read authority records (marcXML) from file
     * 
@@ -115,20 +402,112 @@ public class Loader {
     */
    public static void main(String[] args) throws URISyntaxException {
       if (args.length == 0) printHelp("At least one URI or filepath is needed.");
-      Loader me = new Loader(config.getProperty("BaseURL"));
-      for (String filepath : args) {
+      boolean toSolr = true;
+      boolean resume = false;
+      boolean oai = false;
+      AuthoritySink sink = null;
+      List<String> files = new ArrayList<>();
+      for (String arg : args) {
+         if (arg.equals("--no-solr")) toSolr = false;
+         else if (arg.equals("--resume")) resume = true;
+         else if (arg.equals("--oai")) oai = true;
+         else if (arg.startsWith("--file=")) sink = addSink(sink, newFileSink(arg.substring(7)));
+         else if (arg.startsWith("--synonyms=")) sink = addSink(sink, newSynonymFileSink(arg.substring(11)));
+         else if (arg.startsWith("--redirects=")) sink = addSink(sink, newRedirectFileSink(arg.substring(12)));
+         else if (arg.startsWith("--")) printHelp("Unknown option \"" + arg + "\".");
+         else files.add(arg);
+      }
+      if (oai && !files.isEmpty()) printHelp("Either harvest via OAI or load files.");
+      if (!oai && files.isEmpty()) printHelp("At least one URI or filepath is needed.");
+      if (oai) config.setProperty("SolrMaxInFlight", "1"); // a record may be changed twice while harvesting, the versions have to arrive in order
+      ChangeDetectingSink changes = null;
+      if (toSolr) { // only solr gets just the changes, the files are always complete
+         AuthoritySink solr = newSolrSink(config.getProperty("BaseURL"));
+         changes = newChangeDetectingSink(solr, config.getProperty("HashStoreFile"));
+         sink = addSink(sink, (changes == null) ? solr : changes);
+      }
+      if (sink == null) sink = new NullSink(); // just parse
+      Loader me = new Loader(sink);
+      me.setResume(resume);
+      if (oai) me.harvest();
+      List<URI> uris = new ArrayList<>(files.size());
+      for (String filepath : files) {
          System.out.println("GndLoader: process " + filepath);
-         if (filepath.toLowerCase().startsWith("file")) me.load(new URI(filepath));
-         else if (filepath.charAt(0) == '/') me.load(new URI("file:" + filepath));
+         if (filepath.toLowerCase().startsWith("file")) uris.add(new URI(filepath));
+         else if (filepath.charAt(0) == '/') uris.add(new URI("file:" + filepath));
          else printHelp("Dont't know how to handle \"" + filepath + "\".");
       }
+      if (!uris.isEmpty()) me.load(uris);
+      me.close();
+      if (sink instanceof NullSink) System.out.println(((NullSink) sink).getCount() + " records parsed, " + ((NullSink) sink).getDeletedCount() + " deleted/redirected.");
+      if (changes != null) System.out.println("Records " + changes.getReport());
       System.out.println("\n--- Fertsch --\n");
    }
 
+   /**
+    * Combine the sinks given on the command line
+    */
+   private static AuthoritySink addSink(AuthoritySink sinks, AuthoritySink newSink) {
+      return (sinks == null) ? newSink : new TeeSink(sinks, newSink);
+   }
+
+   private static AuthoritySink newFileSink(String filePath) {
+      try {
+         return new FileSink(Paths.get(filePath));
+      }
+      catch (IOException e) {
+         LOG.fatal("Can't create the output file: " + filePath);
+         throw new RuntimeException(e);
+      }
+   }
+
+   private static AuthoritySink newSynonymFileSink(String filePath) {
+      try {
+         return new SynonymFileSink(Paths.get(filePath), config.getProperty("EntrySeperator", "!_#_!"));
+      }
+      catch (IOException e) {
+         LOG.fatal("Can't create the synonym file: " + filePath);
+         throw new RuntimeException(e);
+      }
+   }
+
+   private static AuthoritySink newRedirectFileSink(String filePath) {
+      try {
+         return new RedirectFileSink(Paths.get(filePath));
+      }
+      catch (IOException e) {
+         LOG.fatal("Can't create the redirection file: " + filePath);
+         throw new RuntimeException(e);
+      }
+   }
+
+   /**
+    * Skip the unchanged records, if a hash store is configured
+    * 
+    * @return NULL if 'HashStoreFile' isn't defined
+    */
+   private static ChangeDetectingSink newChangeDetectingSink(AuthoritySink sink, String filePath) {
+      if ((filePath == null) || filePath.trim().isEmpty()) return null;
+      try {
+         return new ChangeDetectingSink(sink, Paths.get(filePath.trim()));
+      }
+      catch (IOException e) {
+         LOG.fatal("Can't read the hash store: " + filePath);
+         throw new RuntimeException(e);
+      }
+   }
+
    private static void printHelp(String msg) {
       System.out.println("\n\nLoader");
       System.out.println("  Msg: " + msg);
-      System.out.println("  Params: List of URIs or absolut Filenames to import.");
+      System.out.println("  Params: [Options] List of URIs or absolut Filenames to import.");
+      System.out.println("  Options:");
+      System.out.println("    --oai           Harvest the changes since the last harvest from the OAI repository. (see 'OaiBaseURL' in the config file)");
+      System.out.println("    --resume        Continue the import of (uncompressed) files at the last checkpoint. (written in ImportMode split)");
+      System.out.println("    --no-solr       Don't send the records to solr. (Without other options the records are just parsed and counted)");
+      System.out.println("    --file=<path>   Write the records as solr update XML into the file. (*.gz will be compressed)");
+      System.out.println("    --synonyms=<path> Write the synonym file directly. (like AutorityRecordFileWriter, but without solr)");
+      System.out.println("    --redirects=<path> Write the redirected ids (old id <TAB> new id) into the file. (e.g. from T_umlenk_loesch)");
       System.out.println("  Example: java Loader file:/home/user/git/GndNormDaten/test/de/hebis/it/hds/gnd/in/data/Ts.mrc.xml /home/user/git/GndNormDaten/test/de/hebis/it/hds/gnd/in/data/Tp.mrc.xml");
       System.exit(-1);
    }
@@ -0,0 +1,287 @@
+/*
+ * Copyright 2016, 2017 by HeBIS (www.hebis.de).
+ * 
+ * This file is part of HeBIS project Gnd4Index.
+ *
+ * This is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or any later version.
+ *
+ * This code is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with the code.  If not, see http://www.gnu.org/licenses/agpl>.
+ */
+package de.hebis.it.hds.gnd.in;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.SequenceInputStream;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileChannel.MapMode;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+/**
+ * Split a (uncompressed) marc21-XML collection into ranges of bytes, which can be parsed independently.<br>
+ * The file is memory mapped. The ranges start at a record tag ("&lt;record", optionally with a namespace prefix, followed by whitespace, '&gt;' or
+ * '/') near to the equal distributed offsets.<br>
+ * The header of the file (XML declaration and the opening tag of the collection) is prepended to each range and the closing tag of the collection
+ * is appended, so each range is a well formed collection.
+ * 
+ * @author Uwe Reh (uh), HeBIS-IT
+ * @version 2026-10-17 uh initial
+ * @version 2026-10-17 uh ranges of a given size behind an offset, to resume an import
+ * @version 2026-10-18 uh record tags without attributes or with a namespace prefix, warn if the file can't be split
+ */
+public class MarcXmlFileSplitter implements AutoCloseable {
+   private static final Logger LOG          = LogManager.getLogger(MarcXmlFileSplitter.class);
+   private static final byte[] RECORD_NAME  = "record".getBytes(StandardCharsets.US_ASCII);
+   /** Maximal length of a namespace prefix, which is recognized in the record tag */
+   private static final int    MAX_PREFIX   = 32;
+   /** Maximal length of the record tag including the following character */
+   private static final int    MAX_TAG      = 1 + MAX_PREFIX + 1 + RECORD_NAME.length + 1;
+   /** Size of the mapped windows while searching and reading */
+   private static final int    WINDOW       = 1 << 26;
+   private final Path          path2InputFile;
+   private final FileChannel   channel;
+   private final long          size;
+   private final long          firstRecord;
+   private final byte[]        header;
+   private final byte[]        footer;
+
+   /**
+    * Open the file and read the header.
+    * 
+    * @param path2InputFile The marc xml file
+    * @throws IOException If the file can't be read
+    */
+   public MarcXmlFileSplitter(Path path2InputFile) throws IOException {
+      this.path2InputFile = path2InputFile;
+      channel = FileChannel.open(path2InputFile, StandardOpenOption.READ);
+      size = channel.size();
+      firstRecord = findRecordStart(0);
+      if (firstRecord >= size) LOG.warn("No record tag found in " + path2InputFile.toString() + ". The file can't be split.");
+      if (firstRecord > Integer.MAX_VALUE) throw new IOException("No record found in the first 2 GB of " + path2InputFile.toString());
+      header = new byte[(int) firstRecord];
+      if (firstRecord > 0) channel.map(MapMode.READ_ONLY, 0, firstRecord).get(header);
+      String rootElement = rootElementName(header);
+      footer = (rootElement == null) ? null : ("</" + rootElement + ">").getBytes(StandardCharsets.UTF_8);
+   }
+
+   /**
+    * Compute the ranges
+    * 
+    * @param parts The wanted number of ranges. Small files may be split in fewer ranges.
+    * @return The ranges in the order of the file
+    * @throws IOException If the file can't be read
+    */
+   public List<Range> split(int parts) throws IOException {
+      if ((parts < 1) || (footer == null)) parts = 1; // a single record can't be split
+      List<Range> ret = new ArrayList<>();
+      long start = 0;
+      for (int i = 1; i < parts; i++) {
+         long nominal = Math.max(size * i / parts, firstRecord + 1);
+         long boundary = findRecordStart(nominal);
+         if (boundary >= size) break;
+         if (boundary <= start) continue;
+         ret.add(new Range(ret.size(), start, boundary));
+         start = boundary;
+      }
+      ret.add(new Range(ret.size(), start, size));
+      if (LOG.isDebugEnabled()) LOG.debug(path2InputFile.toString() + " is split into " + ret.size() + " ranges.");
+      return Collections.unmodifiableList(ret);
+   }
+
+   /**
+    * Compute ranges of a maximal size, starting at the given offset. (To resume an import)
+    * 
+    * @param from Offset of the first record to read. (0 for the whole file)
+    * @param chunkSize The size of the ranges. The ranges are extended to the next record start.
+    * @return The ranges in the order of the file. Empty if nothing is left behind the offset.
+    * @throws IOException If the file can't be read or the offset isn't the start of a record
+    */
+   public List<Range> split(long from, long chunkSize) throws IOException {
+      if ((from <= firstRecord) || (footer == null)) from = 0; // whole file
+      else if ((from < size) && (findRecordStart(from) != from)) throw new IOException("Offset " + from + " is not the start of a record in " + path2InputFile.toString());
+      if ((chunkSize < 1) || (footer == null)) chunkSize = size; // a single record can't be split
+      List<Range> ret = new ArrayList<>();
+      long start = from;
+      while (start < size) {
+         long boundary = findRecordStart(Math.max(start + chunkSize, firstRecord + 1));
+         ret.add(new Range(ret.size(), start, boundary));
+         start = boundary;
+      }
+      if (LOG.isDebugEnabled()) LOG.debug(path2InputFile.toString() + " is split into " + ret.size() + " ranges, starting at " + from);
+      return Collections.unmodifiableList(ret);
+   }
+
+   /**
+    * @return The size of the file in bytes
+    */
+   public long size() {
+      return size;
+   }
+
+   /**
+    * Open a range for reading. The content is completed to a well formed collection.
+    * 
+    * @param range One of the ranges computed by {@link #split(int)} or {@link #split(long, long)}
+    * @return The content of the range
+    */
+   public InputStream open(Range range) {
+      List<InputStream> parts = new ArrayList<>(3);
+      if (range.start >= firstRecord) parts.add(new ByteArrayInputStream(header));
+      parts.add(new MappedRangeInputStream(range.start, range.end));
+      if (range.end < size) parts.add(new ByteArrayInputStream(footer));
+      return new SequenceInputStream(Collections.enumeration(parts));
+   }
+
+   /**
+    * Find the next start of a record.
+    * 
+    * @param from The offset to start the search
+    * @return The offset of the next record or the size of the file, if no more record follows.
+    * @throws IOException If the file can't be read
+    */
+   long findRecordStart(long from) throws IOException {
+      long windowStart = from;
+      while (windowStart < size) {
+         long windowSize = Math.min(WINDOW, size - windowStart);
+         MappedByteBuffer window = channel.map(MapMode.READ_ONLY, windowStart, windowSize);
+         boolean lastWindow = (windowStart + windowSize >= size);
+         int limit = (int) windowSize;
+         int last = lastWindow ? limit : limit - MAX_TAG; // tags crossing the window border are found in the next window
+         for (int i = 0; i < last; i++) {
+            if ((window.get(i) == '<') && isRecordStart(window, i, limit)) return windowStart + i;
+         }
+         if (lastWindow) break;
+         windowStart += last;
+      }
+      return size;
+   }
+
+   /**
+    * Check for a start tag of a record, e.g. "&lt;record&gt;", "&lt;record type=..." or "&lt;marc:record ..."
+    * 
+    * @param window The mapped part of the file
+    * @param pos The position of the '&lt;'
+    * @param limit The end of the window
+    * @return TRUE if a record starts at the position
+    */
+   private static boolean isRecordStart(MappedByteBuffer window, int pos, int limit) {
+      int name = pos + 1;
+      // skip an optional namespace prefix
+      int i = name;
+      while ((i < limit) && (i - name <= MAX_PREFIX) && isNameChar(window.get(i))) i++;
+      if ((i < limit) && (window.get(i) == ':') && (i > name)) name = i + 1;
+      if (name + RECORD_NAME.length >= limit) return false;
+      for (int j = 0; j < RECORD_NAME.length; j++) {
+         if (window.get(name + j) != RECORD_NAME[j]) return false;
+      }
+      byte next = window.get(name + RECORD_NAME.length);
+      return (next == ' ') || (next == '\t') || (next == '\n') || (next == '\r') || (next == '>') || (next == '/');
+   }
+
+   private static boolean isNameChar(byte b) {
+      return ((b >= 'a') && (b <= 'z')) || ((b >= 'A') && (b <= 'Z')) || ((b >= '0') && (b <= '9')) || (b == '-') || (b == '_') || (b == '.');
+   }
+
+   /**
+    * Extract the name of the root element from the header
+    * 
+    * @param header The bytes before the first record
+    * @return The qualified name of the root element or NULL if the file is a single record
+    */
+   private static String rootElementName(byte[] header) {
+      String text = new String(header, StandardCharsets.UTF_8);
+      int pos = 0;
+      while ((pos = text.indexOf('<', pos)) >= 0) {
+         pos++;
+         if ((pos < text.length()) && (text.charAt(pos) != '?') && (text.charAt(pos) != '!')) {
+            int end = pos;
+            while ((end < text.length()) && !Character.isWhitespace(text.charAt(end)) && (text.charAt(end) != '>')) end++;
+            return text.substring(pos, end);
+         }
+      }
+      return null;
+   }
+
+   @Override
+   public void close() throws IOException {
+      channel.close();
+   }
+
+   /**
+    * A range of the file, starting with a record
+    */
+   public static class Range {
+      /** Number of the range in the file */
+      public final int  index;
+      /** Offset of the first byte */
+      public final long start;
+      /** Offset behind the last byte */
+      public final long end;
+
+      Range(int index, long start, long end) {
+         this.index = index;
+         this.start = start;
+         this.end = end;
+      }
+
+      @Override
+      public String toString() {
+         return "Range #" + index + " [" + start + ", " + end + ")";
+      }
+   }
+
+   /**
+    * Read a range of the file through sequentially mapped windows.
+    */
+   private class MappedRangeInputStream extends InputStream {
+      private long             next;
+      private final long       end;
+      private MappedByteBuffer window = null;
+
+      MappedRangeInputStream(long start, long end) {
+         this.next = start;
+         this.end = end;
+      }
+
+      private boolean ensureData() throws IOException {
+         if ((window != null) && window.hasRemaining()) return true;
+         if (next >= end) return false;
+         long windowSize = Math.min(WINDOW, end - next);
+         window = channel.map(MapMode.READ_ONLY, next, windowSize);
+         next += windowSize;
+         return true;
+      }
+
+      @Override
+      public int read() throws IOException {
+         if (!ensureData()) return -1;
+         return window.get() & 0xFF;
+      }
+
+      @Override
+      public int read(byte[] buffer, int offset, int length) throws IOException {
+         if (length == 0) return 0;
+         if (!ensureData()) return -1;
+         int count = Math.min(length, window.remaining());
+         window.get(buffer, offset, count);
+         return count;
+      }
+   }
+}
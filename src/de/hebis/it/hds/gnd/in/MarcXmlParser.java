@@ -18,8 +18,8 @@
 package de.hebis.it.hds.gnd.in;
 
 import java.io.ByteArrayInputStream;
+import java.io.InputStream;
 import java.text.Normalizer;
-import java.util.Arrays;
 import java.util.List;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.function.Function;
@@ -34,11 +34,18 @@ import org.apache.logging.log4j.Logger;
 import org.apache.solr.client.solrj.SolrClient;
 import org.apache.solr.client.solrj.impl.ConcurrentUpdateSolrClient;
 import org.apache.solr.common.SolrInputDocument;
+import org.apache.solr.common.SolrInputField;
 
+import de.hebis.it.hds.gnd.Diagnostics;
+import de.hebis.it.hds.gnd.ImportMetrics;
 import de.hebis.it.hds.gnd.EvalDataFieldException;
 import de.hebis.it.hds.gnd.Model;
+import de.hebis.it.hds.gnd.in.sink.AuthoritySink;
+import de.hebis.it.hds.gnd.in.sink.SolrSink;
 import de.hebis.it.hds.gnd.in.subfields.CooperationFields;
 import de.hebis.it.hds.gnd.in.subfields.DataField;
+import de.hebis.it.hds.gnd.in.subfields.DataFieldHandler;
+import de.hebis.it.hds.gnd.in.subfields.FieldMapping;
 import de.hebis.it.hds.gnd.in.subfields.GeneralFields;
 import de.hebis.it.hds.gnd.in.subfields.GeoFields;
 import de.hebis.it.hds.gnd.in.subfields.MeetingFields;
@@ -48,28 +55,58 @@ import de.hebis.it.hds.gnd.in.subfields.TopicFields;
 
 /**
  * Function to parse/convert a single Marc21-XML authority record<br>
- * The converted data will be returned as a {@link SolrInputDocument}.
+ * The converted data will be returned as a {@link SolrInputDocument}.<br>
+ * The parser holds no state of the current record, so one instance may be shared by all workers of the {@link Loader}.
  * 
  * @author Uwe Reh (uh), HeBIS-IT
  * @version 2017-03-17 uh initial
+ * @version 2026-10-17 uh record state moved to local variables, to be thread safe
+ * @version 2026-10-17 uh dispatch table for the data fields
+ * @version 2026-10-17 uh reuse the DataField per thread
+ * @version 2026-10-17 uh send the records in batches
+ * @version 2026-10-17 uh write into an AuthoritySink
+ * @version 2026-10-17 uh deletions and redirections from the leader
+ * @version 2026-10-17 uh records embedded in OAI responses
+ * @version 2026-10-17 uh aggregated warnings
+ * @version 2026-10-17 uh metrics of the parse time
+ * @version 2026-10-18 uh field 'idn', deleted records with the IDN only
+ * @version 2026-10-18 uh dispatch table built with the first parser, after the field mapping is configured
  *
  */
 public class MarcXmlParser implements Function<List<String>, Boolean> {
    private final static Logger          LOG                = LogManager.getLogger(MarcXmlParser.class);
    private final static XMLInputFactory srf                = XMLInputFactory.newInstance();
-   private static final String[]        unusedfields       = { "001", "003", "005", "008", "024", "040", "043", "065", "079", "089", "336", "339", "372", "375", "377", "380", "382", "383", "384", "548", "667", "670", "672", "675", "677", "678", "679", "680", "682", "692", "885", "912", "913" };
-   private static final List<String>    dataFieldsToIgnore = Arrays.asList(unusedfields);
+   private static final String[]        unusedfields       = { "001", "003", "005", "008", "024", "040", "043", "065", "079", "089", "336", "339", "372", "375", "377", "380", "382", "383", "384", "548", "667", "670", "672", "675", "677", "678", "679", "680", "692", "885", "912", "913" };
+   /** Marker for fields, which are known but not needed */
+   private static final DataFieldHandler IGNORE            = dataField -> {};
+   /** The dispatch table of the field mapping in use */
+   private static DataFieldHandler[]    sharedHandlers     = null;
+   private static FieldMapping          sharedMapping      = null;
+   /** One DataField per worker thread, reset for each data field */
+   private static final ThreadLocal<DataField> reusableDataField = ThreadLocal.withInitial(() -> new DataField(null));
    private final static AtomicInteger   counter            = new AtomicInteger(1);
-   private String                       recordId           = null;
-   private SolrClient                   solrClient         = null;
+   private static final String          MARC_NAMESPACE     = "http://www.loc.gov/MARC21/slim";
+   private AuthoritySink                sink               = null;
+   /** The handlers indexed by the numeric tag of the data field */
+   private final DataFieldHandler[]     handlers;
 
    /**
-    * Define where to store the parsed records.
+    * Define where to store the parsed records. Each record is sent immediately.
     * 
     * @param solrClient A solrj client to the designated index.
     */
    public MarcXmlParser(SolrClient solrClient) {
-      this.solrClient = solrClient;
+      this(new SolrSink(solrClient));
+   }
+
+   /**
+    * Define where to store the parsed records.
+    * 
+    * @param sink The destination of the records. (solr, file, ...)
+    */
+   public MarcXmlParser(AuthoritySink sink) {
+      this.sink = sink;
+      handlers = dispatchTable(FieldMapping.getInstance());
    }
 
    /**
@@ -83,7 +120,7 @@ public class MarcXmlParser implements Function<List<String>, Boolean> {
          return true;
       }
       if (recordAsListOfLines.size() < 3) {
-         LOG.warn("Unusable record received");
+         Diagnostics.report("Unusable record", -1, null);
          return false;
       }
       StringBuilder fullrecord = new StringBuilder();
@@ -95,6 +132,59 @@ public class MarcXmlParser implements Function<List<String>, Boolean> {
       return true;
    }
 
+   /**
+    * Streaming mode: Parse all records of a marc21-XML collection with one single stax parser.<br>
+    * The records are evaluated while reading. The XML of each record is echoed on the fly to fill the field 'fullrecord', so the record needs
+    * neither to be grouped as lines nor to be parsed twice.
+    * 
+    * @param marcXmlCollection The input stream of the collection (UTF-8)
+    * @return The number of records found
+    */
+   public int parseStream(InputStream marcXmlCollection) {
+      XMLStreamReader rawreader = null;
+      XmlEcho echo = new XmlEcho();
+      int count = 0;
+      try {
+         rawreader = srf.createXMLStreamReader(marcXmlCollection, "UTF-8");
+      }
+      catch (Exception e) {
+         LOG.error("Can't create the stax parser.");
+         throw new RuntimeException(e);
+      }
+      try {
+         while (rawreader.hasNext()) {
+            if (rawreader.next() != XMLStreamConstants.START_ELEMENT) continue;
+            if (!isMarcRecord(rawreader)) continue;
+            parseEmbedded(rawreader, echo);
+            count++;
+         }
+         rawreader.close();
+      }
+      catch (XMLStreamException e) {
+         throw new RuntimeException("Data error in XML file after record #" + count + ".", e);
+      }
+      return count;
+   }
+
+   /**
+    * Parse the marc record at the current position of a foreign stax reader. (e.g. inside of an OAI envelope)
+    * 
+    * @param rawreader The stax reader, positioned at the start tag of the record. Returns positioned at the end tag of the record.
+    * @param echo The collector for the XML of the record, will be reset.
+    * @return FALSE if the record is unusable
+    * @throws XMLStreamException
+    */
+   boolean parseEmbedded(XMLStreamReader rawreader, XmlEcho echo) throws XMLStreamException {
+      SolrInputDocument doc = new SolrInputDocument();
+      echo.reset();
+      long start = System.nanoTime();
+      char recordType = parseRecord(rawreader, doc, echo);
+      ImportMetrics.recordParsed(System.nanoTime() - start);
+      String xmlRecord = echo.toString();
+      doc.addField("fullrecord", xmlRecord);
+      return finishRecord(doc, recordType, xmlRecord);
+   }
+
    /**
     * Real start of parsing.
     * 
@@ -102,12 +192,8 @@ public class MarcXmlParser implements Function<List<String>, Boolean> {
     */
    private void parse(String xmlRecord) {
       SolrInputDocument doc = new SolrInputDocument();
-      doc.addField("fullrecord", xmlRecord);
       XMLStreamReader rawreader = null;
-      DataField dataField = null;
-      recordId = null;
-      @SuppressWarnings("unused")
-      char recordType = 'n'; // New/Normal
+      long start = System.nanoTime();
       try {
          rawreader = srf.createXMLStreamReader(new ByteArrayInputStream(xmlRecord.getBytes("UTF-8")), "UTF-8");
       }
@@ -115,63 +201,165 @@ public class MarcXmlParser implements Function<List<String>, Boolean> {
          LOG.error("Can't create the stax parser.");
          throw new RuntimeException(e);
       }
+      char recordType;
       try {
-         while (rawreader.hasNext()) {
-            switch (rawreader.getEventType()) {
-               case XMLStreamConstants.START_ELEMENT:
-                  switch (rawreader.getLocalName()) {
-                     case "leader":
-                        if (LOG.isTraceEnabled()) LOG.trace("Process leader.");
-                        recordType = readTypeFromLeader(rawreader);
-                        break;
-                     case "controlfield":
-                        if ("001".equals(rawreader.getAttributeValue(null, "tag"))) {
-                           recordId = "PPN: " + rawreader.getElementText();
-                        }
-                        break;
-                     case "datafield":
-                        String tagId = rawreader.getAttributeValue(null, "tag");
-                           if (dataFieldsToIgnore.contains(tagId)) {
-                              if (LOG.isTraceEnabled()) LOG.trace("Skip unused field : " + tagId);
-                              break;
-                           }
-                        // only if used
-                        if (LOG.isTraceEnabled()) LOG.trace("Found field : " + tagId);
-                        dataField = new DataField(recordId, doc);
-                        dataField.put("tag", dataField.newList(tagId));
-                        dataField.put("ind1", dataField.newList(rawreader.getAttributeValue(null, "ind1")));
-                        dataField.put("ind2", dataField.newList(rawreader.getAttributeValue(null, "ind2")));
-                        break;
-                     case "subfield":
-                        if (dataField == null) break; // Only if the field matters
-                        dataField.addSubField(rawreader);
-                        break;
-                  }
-                  break;
-               case XMLStreamConstants.END_ELEMENT:
-                  if ("datafield".equals(rawreader.getLocalName())) {
-                     if (dataField != null) { // // Only if the field matters
-                        if (LOG.isTraceEnabled()) LOG.trace("Process field.");
-                        try {
-                           evalDataField(dataField);
-                        }
-                        catch (EvalDataFieldException e) {
-                           LOG.warn("Conversion error in \"" + recordId + "\": " + e.getMessage());
-                        }
-                        dataField = null;
-                     }
-                  }
-                  break;
-            }
-            rawreader.next();
+         while (rawreader.next() != XMLStreamConstants.START_ELEMENT) {
+            // skip the prolog
          }
+         recordType = parseRecord(rawreader, doc, null);
          rawreader.close();
+         ImportMetrics.recordParsed(System.nanoTime() - start);
       }
       catch (XMLStreamException e) {
          throw new RuntimeException("Data error in XML file.", e);
       }
-      if (LOG.isTraceEnabled()) LOG.trace("Index record");
-      addToIndex(doc, xmlRecord);
+      doc.addField("fullrecord", xmlRecord); // the last field, like in the streaming mode
+      finishRecord(doc, recordType, xmlRecord);
+   }
+
+   /**
+    * Evaluate the elements of one record.
+    * 
+    * @param rawreader The stax reader, positioned at the start tag of the record. Returns positioned at the end tag of the record.
+    * @param doc The document to fill
+    * @param echo NULL if the record is already normalized. Otherwise the collector for the normalized XML of the record (streaming mode)
+    * @return The record status from the leader
+    * @throws XMLStreamException
+    */
+   private char parseRecord(XMLStreamReader rawreader, SolrInputDocument doc, XmlEcho echo) throws XMLStreamException {
+      DataField dataField = null;
+      DataFieldHandler handler = null;
+      String recordId = null;
+      char recordType = 'n'; // New/Normal
+      int depth = 0;
+      while (true) {
+         switch (rawreader.getEventType()) {
+            case XMLStreamConstants.START_ELEMENT:
+               depth++;
+               if (echo != null) echo.startElement(rawreader);
+               switch (rawreader.getLocalName()) {
+                  case "leader":
+                     if (LOG.isTraceEnabled()) LOG.trace("Process leader.");
+                     recordType = readTypeFromLeader(rawreader, echo);
+                     depth--;
+                     break;
+                  case "controlfield":
+                     if ("001".equals(rawreader.getAttributeValue(null, "tag"))) {
+                        String idn = readText(rawreader, echo);
+                        doc.addField("idn", idn); // for deletions by OAI
+                        recordId = "PPN: " + idn;
+                        depth--;
+                     }
+                     break;
+                  case "datafield":
+                     String tagId = rawreader.getAttributeValue(null, "tag");
+                     handler = getHandler(tagId, recordId);
+                     if (handler == IGNORE) {
+                        if (LOG.isTraceEnabled()) LOG.trace("Skip unused field : " + tagId);
+                        break;
+                     }
+                     // only if used
+                     if (LOG.isTraceEnabled()) LOG.trace("Found field : " + tagId);
+                     dataField = reusableDataField.get().reset(doc, recordId, DataField.toNumericTag(tagId), DataField.toIndicator(rawreader.getAttributeValue(null, "ind1")),
+                           DataField.toIndicator(rawreader.getAttributeValue(null, "ind2")));
+                     break;
+                  case "subfield":
+                     if (dataField == null) break; // Only if the field matters
+                     String code = rawreader.getAttributeValue(null, "code");
+                     dataField.addSubField(code, readText(rawreader, echo));
+                     depth--;
+                     break;
+               }
+               break;
+            case XMLStreamConstants.CHARACTERS:
+            case XMLStreamConstants.CDATA:
+               if ((echo != null) && !rawreader.isWhiteSpace()) echo.text(normalize(rawreader.getText()));
+               break;
+            case XMLStreamConstants.END_ELEMENT:
+               depth--;
+               if (echo != null) echo.endElement(rawreader);
+               if ("datafield".equals(rawreader.getLocalName())) {
+                  if (dataField != null) { // // Only if the field matters
+                     if (LOG.isTraceEnabled()) LOG.trace("Process field.");
+                     long start = System.nanoTime();
+                     try {
+                        handler.eval(dataField);
+                        recordId = dataField.getRecordId(); // may be changed by field 035
+                     }
+                     catch (EvalDataFieldException e) {
+                        Diagnostics.report("Conversion error", dataField.getTag(), recordId);
+                        if (LOG.isDebugEnabled()) LOG.debug("Conversion error in \"" + recordId + "\": " + e.getMessage());
+                     }
+                     ImportMetrics.tagHandled(dataField.getTag(), System.nanoTime() - start);
+                     dataField = null;
+                  }
+               }
+               break;
+         }
+         if (depth == 0) return recordType; // end of the record
+         rawreader.next();
+      }
+   }
+
+   /**
+    * Read the text of a simple element (without subtags)
+    * 
+    * @param rawreader The stax reader, positioned at the start tag. Returns positioned at the end tag.
+    * @param echo NULL or the collector for the XML of the record (streaming mode)
+    * @return The text of the element
+    * @throws XMLStreamException
+    */
+   private String readText(XMLStreamReader rawreader, XmlEcho echo) throws XMLStreamException {
+      String text = rawreader.getElementText();
+      if (echo == null) return text; // already normalized
+      text = normalize(text);
+      echo.text(text);
+      echo.endElement(rawreader); // positioned at the end tag
+      return text;
+   }
+
+   /**
+    * Streaming mode: Trim wrapped lines, replace the weird SOS and EOS characters and normalize to NFC.<br>
+    * In the line oriented mode, this is done with the complete record in {@link #apply(List)}
+    * 
+    * @param text The raw text
+    * @return The normalized text
+    */
+   private static String normalize(String text) {
+      if (text.indexOf('\n') >= 0) text = trimLines(text);
+      if ((text.indexOf('\u0098') >= 0) || (text.indexOf('\u009C') >= 0)) text = text.replace('\u0098', '<').replace('\u009C', '>');
+      if (Normalizer.isNormalized(text, Normalizer.Form.NFC)) return text;
+      return Normalizer.normalize(text, Normalizer.Form.NFC);
+   }
+
+   /**
+    * Remove line breaks and the whitespace around them, like the concatenation of trimmed lines in {@link #apply(List)}
+    * 
+    * @param text Text with line breaks
+    * @return The text without line breaks
+    */
+   private static String trimLines(String text) {
+      StringBuilder ret = new StringBuilder(text.length());
+      int lineStart = 0;
+      while (lineStart <= text.length()) {
+         int lineEnd = text.indexOf('\n', lineStart);
+         if (lineEnd < 0) lineEnd = text.length();
+         ret.append(text.substring(lineStart, lineEnd).trim());
+         lineStart = lineEnd + 1;
+      }
+      return ret.toString();
+   }
+
+   /**
+    * Detect the start of a marc record.<br>
+    * The record is in the marc namespace or has attributes. (the OAI-Format has enclosing record tags without attributes)
+    * 
+    * @param rawreader The stax reader positioned at a start tag
+    * @return TRUE if it is a marc record
+    */
+   static boolean isMarcRecord(XMLStreamReader rawreader) {
+      if (!"record".equals(rawreader.getLocalName())) return false;
+      return MARC_NAMESPACE.equals(rawreader.getNamespaceURI()) || (rawreader.getAttributeCount() > 0);
    }
 
    /**
@@ -181,11 +369,11 @@ public class MarcXmlParser implements Function<List<String>, Boolean> {
       if (LOG.isTraceEnabled()) LOG.trace("New Document: " + doc.toString());
       String docId = (String) doc.getFieldValue("id");
       if (docId == null) {
-         LOG.warn("No Id found. ID:" + docId);
+         Diagnostics.report("No id found", -1, null);
          return false;
       }
       if (doc.getFieldValue("preferred") == null) {
-         LOG.warn(docId + ": No preferred naming found in marcXml. ID:" + docId);
+         Diagnostics.report("No preferred naming found", -1, docId);
          return false;
       }
       if (LOG.isDebugEnabled()) {
@@ -195,12 +383,7 @@ public class MarcXmlParser implements Function<List<String>, Boolean> {
             }
          }
       }
-      try {
-         solrClient.add(doc);
-      }
-      catch (Exception e) {
-         LOG.warn("Failed sending document:" + docId + " to " + solrClient.toString(), e);
-      }
+      sink.add(doc); // failures are logged by the sink
       if (LOG.isDebugEnabled()) {
          int logStepSize = 10000;
          if (LOG.isTraceEnabled()) logStepSize = 10;
@@ -211,124 +394,183 @@ public class MarcXmlParser implements Function<List<String>, Boolean> {
    }
 
    /**
+    * Pass the parsed record to the sink according to its status.
+    * <ul>
+    * <li>'d', 's' : The record is deleted.</li>
+    * <li>'x' : The record is redirected to the id found in field 682. Without a known target the record is deleted.</li>
+    * <li>others : The record is new or changed.</li>
+    * </ul>
     * 
-    * @param rawreader
-    * @return
+    * @param doc The parsed record
+    * @param recordType The record status from the leader
+    * @param marcXml The record as marc21-XML
+    * @return FALSE if the record is unusable
     */
-   private char readTypeFromLeader(XMLStreamReader rawreader) {
-      // TODO Auto-generated method stub
-      // TODO Dummy for upcoming functions for deletions and redirections.
-      return 'n';
+   private boolean finishRecord(SolrInputDocument doc, char recordType, String marcXml) {
+      SolrInputField target = doc.removeField(GeneralFields.REDIRECT_TARGET);
+      switch (recordType) {
+         case 'd':
+         case 's':
+            return removeFromIndex(doc, null);
+         case 'x':
+            if (target == null) Diagnostics.report("Redirection without a target, deleted", 682, (String) doc.getFieldValue("id"));
+            return removeFromIndex(doc, (target == null) ? null : (String) target.getFirstValue());
+         default:
+            if (LOG.isTraceEnabled()) LOG.trace("Index record");
+            return addToIndex(doc, marcXml);
+      }
+   }
+
+   /**
+    * Delete or redirect a record.
+    * 
+    * @param doc The parsed record (only the id is needed, a deleted record may have just the IDN)
+    * @param targetId The id of the surviving record or NULL to delete
+    * @return FALSE if the record has no id
+    */
+   private boolean removeFromIndex(SolrInputDocument doc, String targetId) {
+      String docId = (String) doc.getFieldValue("id");
+      String idn = (String) doc.getFieldValue("idn");
+      if ((docId == null) && (targetId == null) && (idn != null)) {
+         if (LOG.isDebugEnabled()) LOG.debug("IDN " + idn + ": Delete record.");
+         sink.deleteByIdn(idn);
+         return true;
+      }
+      if (docId == null) {
+         Diagnostics.report("No id found in deleted/redirected record", -1, null);
+         return false;
+      }
+      if (targetId == null) {
+         if (LOG.isDebugEnabled()) LOG.debug(docId + ": Delete record.");
+         sink.delete(docId);
+      }
+      else {
+         if (LOG.isDebugEnabled()) LOG.debug(docId + ": Redirect record to " + targetId);
+         sink.redirect(docId, targetId);
+      }
+      return true;
+   }
+
+   /**
+    * Read the record status (position 5) from the leader.
+    * 
+    * @param rawreader The stax reader, positioned at the start tag of the leader. Returns positioned at the end tag.
+    * @param echo NULL or the collector for the XML of the record (streaming mode)
+    * @return The record status, 'n' if the leader is too short
+    * @throws XMLStreamException
+    */
+   private char readTypeFromLeader(XMLStreamReader rawreader, XmlEcho echo) throws XMLStreamException {
+      String leader = readText(rawreader, echo);
+      if (leader.length() < 6) {
+         Diagnostics.report("Unusual leader", -1, leader);
+         return 'n';
+      }
+      return leader.charAt(5);
    }
 
    /**
     * Interpret a single marcXML 'datafield'
     * 
     * @param dataField internal representation of the authority record
+    * @throws EvalDataFieldException If the data can't be evaluated
     */
    public void evalDataField(DataField dataField) throws EvalDataFieldException {
-      String subFieldId = dataField.getFirstValue("tag");
-      if ((subFieldId == null) || subFieldId.isEmpty()) {
-         LOG.warn("XML Data error: Category without the attribute 'tag'.");
-         return;
+      getHandler(dataField.getTagId(), dataField.getRecordId()).eval(dataField);
+   }
+
+   /**
+    * Lookup the handler for the tag of a data field.
+    * 
+    * @param tagId The tag of the data field (three digits)
+    * @param recordId The id of the record, only for logging
+    * @return The handler to use. Unknown tags are mapped to {@link #IGNORE}
+    */
+   private DataFieldHandler getHandler(String tagId, String recordId) {
+      if ((tagId == null) || tagId.isEmpty()) {
+         Diagnostics.report("Data field without the attribute 'tag'", -1, recordId);
+         return IGNORE;
       }
-      switch (subFieldId) {
-          case "034": // geographic coordinates
-            GeoFields.coordinates(dataField);
-            break;
-         case "035": // The id(s) of the record
-            recordId = GeneralFields.id(dataField);
-            break;
-         case "042": // Trust level of authority record
-            GeneralFields.qualityLevel(dataField);
-            break;
-         case "075": // type of authority record
-            GeneralFields.type(dataField);
-            break;
-         case "083": // DDC
-            GeneralFields.dewey(dataField);
-            break;
-         case "100": // Personal name
-            PersonFields.headingPersonalName(dataField);
-            break;
-         case "110": // Cooperation name
-            CooperationFields.headingCooperationName(dataField);
-            break;
-         case "111": // Meeting name
-            MeetingFields.headingMeetingName(dataField);
-            break;
-         case "130": // Title name
-            TitleFields.headingTitle(dataField);
-            break;
-         case "150": // This term/topic
-            TopicFields.headingTopicalTerm(dataField);
-            break;
-         case "151": // This term/topic
-            GeoFields.headingGeoName(dataField);
-            break;
-         case "260": // This complex term/topic
-            TopicFields.complexSeeReferenceTerm(dataField);
-            break;
-         case "400": // Alternative name
-         case "500": // Related personal name
-            PersonFields.tracingPersonalName(dataField);
-            break;
-         case "410": // Alternative cooperation name
-            CooperationFields.tracingCooperationName(dataField);
-            break;
-         case "411": // Alternative meeting name
-            MeetingFields.tracingMeetingName(dataField);
-            break;
-         case "430": // Alternative title
-            TitleFields.tracingTitle(dataField);
-            break;
-         case "450": // Alternative term/topic
-            TopicFields.tracingTopicalTerm(dataField);
-            break;
-         case "451": // Alternative geoname
-            GeoFields.tracingGeoName(dataField);
-            break;
-         case "510": // Related cooperation
-            CooperationFields.relatedCooperationName(dataField);
-            break;
-         case "511": // Related meeting
-            MeetingFields.relatedMeetingName(dataField);
-            break;
-         case "530": // Related uniform title
-            TitleFields.relatedTitle(dataField);
-            break;
-         case "550": // Related term
-            TopicFields.relatedTopicalTerm(dataField);
-            break;
-         case "551": // Related geographic name
-            GeoFields.relatedGeoName(dataField);
-            break;
-         case "682": // Infos for control records TODO
-            GeneralFields.controllInfos(dataField);
-            break;
-         case "700": // Alternative name for person in other system
-            PersonFields.linkingEntryPersonalName(dataField);
-            break;
-         case "710": // Alternative cooperation name in other system
-            CooperationFields.linkingEntryCooperationName(dataField);
-            break;
-         case "711": // Alternative meeting name in other system
-            MeetingFields.linkingEntryMeetingName(dataField);
-            break;
-         case "730": // Alternative title in other system
-            TitleFields.linkingEntryTitle(dataField);
-            break;
-         case "750": // Alternative name for topic in other system
-            TopicFields.linkingEntryTopicalTerm(dataField);
-            break;
-         case "751": // Alternative name for topic in other system
-            GeoFields.linkingEntryGeoName(dataField);
-            break;
-         default:
-            LOG.warn("No Rule for " + recordId + " : " + subFieldId);
+      int tag = DataField.toNumericTag(tagId);
+      if (tag < 0) {
+         Diagnostics.report("Data field without a numeric 'tag'", -1, recordId);
+         return IGNORE;
+      }
+      DataFieldHandler ret = handlers[tag];
+      if (ret == null) {
+         Diagnostics.report("No rule for the data field", tag, recordId);
+         return IGNORE;
       }
-      return;
+      return ret;
+   }
 
+   /**
+    * The routing of the data fields is compiled once per field mapping. Not earlier than the first parser, so the mapping can be configured
+    * before.
+    * 
+    * @param mapping The field mapping in use
+    * @return The handlers indexed by the numeric tag. NULL for unknown tags.
+    */
+   private static synchronized DataFieldHandler[] dispatchTable(FieldMapping mapping) {
+      if (mapping != sharedMapping) {
+         sharedHandlers = buildDispatchTable(mapping);
+         sharedMapping = mapping;
+      }
+      return sharedHandlers;
+   }
+
+   /**
+    * Compile the routing of the data fields.
+    * 
+    * @param mapping The field mapping for the data fields without an own handler
+    * @return The handlers indexed by the numeric tag. NULL for unknown tags.
+    */
+   private static DataFieldHandler[] buildDispatchTable(FieldMapping mapping) {
+      DataFieldHandler[] table = new DataFieldHandler[1000];
+      for (String tag : unusedfields) {
+         table[DataField.toNumericTag(tag)] = IGNORE;
+      }
+      table[34] = GeoFields::coordinates; // geographic coordinates
+      table[35] = GeneralFields::id; // The id(s) of the record
+      table[42] = GeneralFields::qualityLevel; // Trust level of authority record
+      table[75] = GeneralFields::type; // type of authority record
+      table[83] = GeneralFields::dewey; // DDC
+      table[100] = PersonFields::headingPersonalName; // Personal name
+      table[110] = CooperationFields::headingCooperationName; // Cooperation name
+      table[111] = MeetingFields::headingMeetingName; // Meeting name
+      table[130] = TitleFields::headingTitle; // Title name
+      table[150] = TopicFields::headingTopicalTerm; // This term/topic
+      table[151] = GeoFields::headingGeoName; // This term/topic
+      table[260] = TopicFields::complexSeeReferenceTerm; // This complex term/topic
+      table[400] = PersonFields::tracingPersonalName; // Alternative name
+      table[500] = PersonFields::tracingPersonalName; // Related personal name
+      table[410] = CooperationFields::tracingCooperationName; // Alternative cooperation name
+      table[411] = MeetingFields::tracingMeetingName; // Alternative meeting name
+      table[430] = TitleFields::tracingTitle; // Alternative title
+      table[450] = TopicFields::tracingTopicalTerm; // Alternative term/topic
+      table[451] = GeoFields::tracingGeoName; // Alternative geoname
+      table[510] = CooperationFields::relatedCooperationName; // Related cooperation
+      table[511] = MeetingFields::relatedMeetingName; // Related meeting
+      table[530] = TitleFields::relatedTitle; // Related uniform title
+      table[550] = TopicFields::relatedTopicalTerm; // Related term
+      table[551] = GeoFields::relatedGeoName; // Related geographic name
+      table[700] = PersonFields::linkingEntryPersonalName; // Alternative name for person in other system
+      table[710] = CooperationFields::linkingEntryCooperationName; // Alternative cooperation name in other system
+      table[711] = MeetingFields::linkingEntryMeetingName; // Alternative meeting name in other system
+      table[730] = TitleFields::linkingEntryTitle; // Alternative title in other system
+      table[750] = TopicFields::linkingEntryTopicalTerm; // Alternative name for topic in other system
+      table[751] = GeoFields::linkingEntryGeoName; // Alternative name for topic in other system
+      table[682] = GeneralFields::controllInfos; // Infos for control records (target of redirections)
+      // Fields without an own handler may be mapped by rules
+      for (String ruleSetName : mapping.getRuleSetNames()) {
+         int tag = DataField.toNumericTag(ruleSetName);
+         if (tag < 0) continue;
+         if ((table[tag] != null) && (table[tag] != IGNORE)) {
+            LOG.warn("The rule set \"" + ruleSetName + "\" is ignored. The data field has an own handler.");
+            continue;
+         }
+         table[tag] = dataField -> FieldMapping.apply(ruleSetName, dataField);
+      }
+      return table;
    }
 
    public static void main(String[] args) {
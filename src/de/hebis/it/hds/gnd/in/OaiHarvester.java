@@ -0,0 +1,256 @@
+/*
+ * Copyright 2016, 2017 by HeBIS (www.hebis.de).
+ * 
+ * This file is part of HeBIS project Gnd4Index.
+ *
+ * This is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or any later version.
+ *
+ * This code is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with the code.  If not, see http://www.gnu.org/licenses/agpl>.
+ */
+package de.hebis.it.hds.gnd.in;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UnsupportedEncodingException;
+import java.net.HttpURLConnection;
+import java.net.URL;
+import java.net.URLEncoder;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.Properties;
+
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import de.hebis.it.hds.gnd.in.sink.AuthoritySink;
+
+/**
+ * Incremental import of the changes via OAI-PMH ('ListRecords').<br>
+ * The pages of the response are read as stream. Each embedded marc record is passed to the {@link MarcXmlParser}, records with the header status
+ * "deleted" are deleted in the sink. The harvest follows the resumption tokens until the last page.<br>
+ * The header of a deleted record has only the OAI identifier. Its local part is the IDN of the DNB (controlfield 001), which differs from the id
+ * for the older records. (e.g. "oai:dnb.de/authorities/041766180" for "(DE-588)4176618-0") So the records are deleted by the IDN.<br>
+ * After the sink committed the harvest, the newest datestamp is saved in the state file. The next harvest starts with this datestamp. ('from' is
+ * inclusive, so the records of the last second are read twice.)
+ * 
+ * @author Uwe Reh (uh), HeBIS-IT
+ * @version 2026-10-17 uh initial
+ * @version 2026-10-18 uh delete by the IDN, save the state after the commit
+ */
+public class OaiHarvester {
+   private static final Logger          LOG      = LogManager.getLogger(OaiHarvester.class);
+   private static final String          KEY_FROM = "from";
+   private final static XMLInputFactory srf      = XMLInputFactory.newInstance();
+   private final String                 baseUrl;
+   private final String                 metadataPrefix;
+   private final String                 set;
+   private final Path                   stateFile;
+   private final AuthoritySink          sink;
+   private final MarcXmlParser          parser;
+   private int                          timeout         = 60000;
+   private String                       newestDatestamp = null;
+   private int                          records         = 0;
+   private int                          deletions       = 0;
+
+   /**
+    * @param sink The destination of the records
+    * @param baseUrl The base URL of the OAI repository (e.g. http://services.dnb.de/oai/repository)
+    * @param metadataPrefix The requested format (e.g. MARC21-xml)
+    * @param set The set to harvest (e.g. authorities) or NULL for all
+    * @param stateFile The file to remember the last datestamp
+    */
+   public OaiHarvester(AuthoritySink sink, String baseUrl, String metadataPrefix, String set, Path stateFile) {
+      if (sink == null) throw new RuntimeException("No destination for the records provided.");
+      if (baseUrl == null) throw new RuntimeException("No URL to the OAI repository provided.");
+      this.sink = sink;
+      this.baseUrl = baseUrl;
+      this.metadataPrefix = metadataPrefix;
+      this.set = set;
+      this.stateFile = stateFile;
+      parser = new MarcXmlParser(sink);
+   }
+
+   /**
+    * Harvest all changes since the last run and commit them. The state is saved only after a successful commit.
+    * 
+    * @param initialFrom The datestamp to start with, if there is no state file. NULL for all records.
+    * @return The number of records and deletions read
+    * @throws IOException If the repository isn't reachable, the sink can't commit or the state can't be saved
+    */
+   public int harvest(String initialFrom) throws IOException {
+      String from = readFrom();
+      if (from == null) from = initialFrom;
+      LOG.info("Harvest " + baseUrl + ((from == null) ? " completely" : " from " + from));
+      String token = null;
+      int pages = 0;
+      do {
+         token = harvestPage(new URL(buildRequest(from, token)));
+         pages++;
+         if (LOG.isDebugEnabled()) LOG.debug("Page " + pages + ": " + records + " records and " + deletions + " deletions so far.");
+      } while (token != null);
+      sink.commit();
+      if (newestDatestamp != null) writeFrom(newestDatestamp);
+      LOG.info(records + " records and " + deletions + " deletions harvested in " + pages + " pages.");
+      return records + deletions;
+   }
+
+   /**
+    * @param timeout Connect and read timeout in milliseconds (default: 60000)
+    */
+   public void setTimeout(int timeout) {
+      this.timeout = timeout;
+   }
+
+   /**
+    * @return The newest datestamp seen, NULL if no record was harvested
+    */
+   public String getNewestDatestamp() {
+      return newestDatestamp;
+   }
+
+   /**
+    * Build the URL of the next request
+    */
+   private String buildRequest(String from, String token) throws UnsupportedEncodingException {
+      StringBuilder ret = new StringBuilder(baseUrl);
+      ret.append((baseUrl.indexOf('?') < 0) ? '?' : '&').append("verb=ListRecords");
+      if (token != null) { // exclusive argument
+         ret.append("&resumptionToken=").append(URLEncoder.encode(token, "UTF-8"));
+         return ret.toString();
+      }
+      ret.append("&metadataPrefix=").append(URLEncoder.encode(metadataPrefix, "UTF-8"));
+      if (set != null) ret.append("&set=").append(URLEncoder.encode(set, "UTF-8"));
+      if (from != null) ret.append("&from=").append(URLEncoder.encode(from, "UTF-8"));
+      return ret.toString();
+   }
+
+   /**
+    * Request and process one page
+    * 
+    * @return The resumption token or NULL for the last page
+    */
+   private String harvestPage(URL request) throws IOException {
+      if (LOG.isDebugEnabled()) LOG.debug("Request: " + request.toString());
+      HttpURLConnection connection = (HttpURLConnection) request.openConnection();
+      connection.setConnectTimeout(timeout);
+      connection.setReadTimeout(timeout);
+      try {
+         if (connection.getResponseCode() != HttpURLConnection.HTTP_OK) {
+            throw new IOException("The OAI repository responds with " + connection.getResponseCode() + " to: " + request.toString());
+         }
+         try (InputStream response = connection.getInputStream()) {
+            return processPage(response);
+         }
+      }
+      finally {
+         connection.disconnect();
+      }
+   }
+
+   /**
+    * Read the OAI envelope and pass the records to the parser
+    * 
+    * @param response The response of 'ListRecords'
+    * @return The resumption token or NULL for the last page
+    * @throws IOException If the response is not readable or an OAI error is reported
+    */
+   String processPage(InputStream response) throws IOException {
+      String token = null;
+      boolean deleted = false;
+      XmlEcho echo = new XmlEcho();
+      try {
+         XMLStreamReader rawreader = srf.createXMLStreamReader(response, "UTF-8");
+         while (rawreader.hasNext()) {
+            if (rawreader.next() != XMLStreamConstants.START_ELEMENT) continue;
+            switch (rawreader.getLocalName()) {
+               case "header":
+                  deleted = "deleted".equals(rawreader.getAttributeValue(null, "status"));
+                  break;
+               case "identifier":
+                  String identifier = rawreader.getElementText().trim();
+                  if (deleted) delete(identifier);
+                  break;
+               case "datestamp":
+                  String datestamp = rawreader.getElementText().trim();
+                  if ((newestDatestamp == null) || (datestamp.compareTo(newestDatestamp) > 0)) newestDatestamp = datestamp;
+                  break;
+               case "record":
+                  if (!MarcXmlParser.isMarcRecord(rawreader)) break; // the OAI envelope
+                  parser.parseEmbedded(rawreader, echo);
+                  records++;
+                  break;
+               case "resumptionToken":
+                  token = rawreader.getElementText().trim();
+                  if (token.isEmpty()) token = null; // the last page
+                  break;
+               case "error":
+                  String code = rawreader.getAttributeValue(null, "code");
+                  String msg = rawreader.getElementText();
+                  if ("noRecordsMatch".equals(code)) {
+                     LOG.info("No changes found.");
+                     break;
+                  }
+                  throw new IOException("OAI error \"" + code + "\": " + msg);
+            }
+         }
+         rawreader.close();
+      }
+      catch (XMLStreamException e) {
+         throw new IOException("Data error in the OAI response after record #" + records + ".", e);
+      }
+      return token;
+   }
+
+   /**
+    * Delete the record named by the OAI identifier. The local part is the IDN.
+    */
+   private void delete(String identifier) {
+      int localStart = Math.max(identifier.lastIndexOf('/'), identifier.lastIndexOf(':')) + 1;
+      String idn = identifier.substring(localStart);
+      if (LOG.isDebugEnabled()) LOG.debug("IDN " + idn + ": Deleted by OAI (" + identifier + ")");
+      sink.deleteByIdn(idn);
+      deletions++;
+   }
+
+   /**
+    * @return The saved datestamp of the last harvest or NULL
+    */
+   private String readFrom() throws IOException {
+      if ((stateFile == null) || !Files.isRegularFile(stateFile)) return null;
+      Properties state = new Properties();
+      try (InputStream in = Files.newInputStream(stateFile)) {
+         state.load(in);
+      }
+      return state.getProperty(KEY_FROM);
+   }
+
+   /**
+    * Save the datestamp for the next harvest
+    */
+   private void writeFrom(String from) throws IOException {
+      if (stateFile == null) return;
+      Properties state = new Properties();
+      state.setProperty(KEY_FROM, from);
+      Path tmp = stateFile.resolveSibling(stateFile.getFileName().toString() + ".tmp");
+      try (OutputStream out = Files.newOutputStream(tmp)) {
+         state.store(out, "State of the OAI harvest " + baseUrl);
+      }
+      Files.move(tmp, stateFile, StandardCopyOption.REPLACE_EXISTING);
+      if (LOG.isDebugEnabled()) LOG.debug("Next harvest starts from " + from);
+   }
+}
@@ -0,0 +1,182 @@
+/*
+ * Copyright 2016, 2017 by HeBIS (www.hebis.de).
+ * 
+ * This file is part of HeBIS project Gnd4Index.
+ *
+ * This is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or any later version.
+ *
+ * This code is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with the code.  If not, see http://www.gnu.org/licenses/agpl>.
+ */
+package de.hebis.it.hds.gnd.in;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+/**
+ * Reads the source stream in an own thread and hands the data over in chunks.<br>
+ * A bounded queue of chunks limits the read ahead. Any failure of the background thread is passed to the consumer.
+ * 
+ * @author Uwe Reh (uh), HeBIS-IT
+ * @version 2026-10-17 uh initial
+ * @version 2026-10-18 uh signal the end in any case, close waits for the background thread
+ */
+class ReadAheadInputStream extends InputStream {
+   private static final Logger        LOG       = LogManager.getLogger(ReadAheadInputStream.class);
+   private static final int           CHUNKSIZE = 1 << 16;
+   private static final byte[]        EOF       = new byte[0];
+   private final BlockingQueue<byte[]> chunks    = new ArrayBlockingQueue<>(16);
+   private final InputStream          source;
+   private final Thread               reader;
+   private volatile Throwable         failure   = null;
+   private volatile boolean           closed    = false;
+   private byte[]                     current   = null;
+   private int                        pos       = 0;
+   private int                        limit     = 0;
+
+   /**
+    * Start reading the source in background
+    * 
+    * @param source The stream to read
+    * @param threadName Name of the background thread
+    */
+   ReadAheadInputStream(InputStream source, String threadName) {
+      this.source = source;
+      reader = new Thread(this::readAhead, threadName);
+      reader.setDaemon(true);
+      reader.start();
+   }
+
+   /**
+    * Loop of the background thread. The end of the data or the failure is always signaled to the consumer.
+    */
+   private void readAhead() {
+      try {
+         while (!closed) {
+            byte[] chunk = new byte[CHUNKSIZE];
+            int filled = 0;
+            while (filled < CHUNKSIZE) {
+               int count = source.read(chunk, filled, CHUNKSIZE - filled);
+               if (count < 0) break;
+               filled += count;
+            }
+            if (filled == 0) break;
+            if (filled < CHUNKSIZE) {
+               byte[] rest = new byte[filled];
+               System.arraycopy(chunk, 0, rest, 0, filled);
+               chunk = rest;
+            }
+            chunks.put(chunk);
+         }
+      }
+      catch (InterruptedException e) {
+         if (!closed) failure = new InterruptedIOException("Interrupted while reading ahead.");
+      }
+      catch (IOException e) {
+         if (closed) return; // the interrupt of close() may close the channel of the file
+         LOG.error("Failed reading the source: " + e.getMessage());
+         failure = e;
+      }
+      catch (RuntimeException | Error e) {
+         LOG.error("Failed reading the source.", e);
+         failure = e;
+      }
+      finally {
+         signalEnd();
+      }
+   }
+
+   /**
+    * Put the end marker into the queue. Waits for space, unless the consumer has closed the stream.
+    */
+   private void signalEnd() {
+      while (!closed) {
+         try {
+            chunks.put(EOF);
+            return;
+         }
+         catch (InterruptedException e) {
+            // check whether the stream was closed
+         }
+      }
+   }
+
+   /**
+    * Take the next chunk from the queue
+    * 
+    * @return FALSE at the end of the data
+    * @throws IOException If the background thread failed
+    */
+   private boolean nextChunk() throws IOException {
+      if (current == EOF) return false;
+      try {
+         current = chunks.take();
+      }
+      catch (InterruptedException e) {
+         Thread.currentThread().interrupt();
+         throw new InterruptedIOException("Interrupted while waiting for data.");
+      }
+      if (current == EOF) {
+         Throwable cause = failure;
+         if (cause instanceof IOException) throw (IOException) cause;
+         if (cause != null) throw new IOException("Failed reading the source.", cause);
+         return false;
+      }
+      pos = 0;
+      limit = current.length;
+      return true;
+   }
+
+   @Override
+   public int read() throws IOException {
+      if ((pos >= limit) && !nextChunk()) return -1;
+      return current[pos++] & 0xFF;
+   }
+
+   @Override
+   public int read(byte[] buffer, int offset, int length) throws IOException {
+      if (length == 0) return 0;
+      if ((pos >= limit) && !nextChunk()) return -1;
+      int count = Math.min(length, limit - pos);
+      System.arraycopy(current, pos, buffer, offset, count);
+      pos += count;
+      return count;
+   }
+
+   @Override
+   public int available() {
+      return limit - pos;
+   }
+
+   /**
+    * Stop the background thread and wait for it, before the source is closed.
+    */
+   @Override
+   public void close() throws IOException {
+      if (closed) return;
+      closed = true;
+      reader.interrupt();
+      try {
+         reader.join();
+      }
+      catch (InterruptedException e) {
+         Thread.currentThread().interrupt();
+      }
+      finally {
+         source.close();
+      }
+   }
+}
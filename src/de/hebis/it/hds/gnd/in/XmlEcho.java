@@ -0,0 +1,129 @@
+/*
+ * Copyright 2016, 2017 by HeBIS (www.hebis.de).
+ * 
+ * This file is part of HeBIS project Gnd4Index.
+ *
+ * This is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or any later version.
+ *
+ * This code is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with the code.  If not, see http://www.gnu.org/licenses/agpl>.
+ */
+package de.hebis.it.hds.gnd.in;
+
+import javax.xml.stream.XMLStreamReader;
+
+/**
+ * Collector to rebuild the XML of a record from the events of a stax parser.<br>
+ * Whitespace between the tags is omitted, the prefixes and the namespace declarations of the tags are kept. So the result looks like the records
+ * built from grouped lines, e.g. '&lt;record xmlns="http://www.loc.gov/MARC21/slim" type="Authority"&gt;' for a record of an OAI response.
+ * (The declarations are written before the attributes.)
+ * 
+ * @author Uwe Reh (uh), HeBIS-IT
+ * @version 2026-10-17 uh initial
+ * @version 2026-10-18 uh keep the namespace declarations
+ */
+class XmlEcho {
+   private final StringBuilder buffer = new StringBuilder(8192);
+
+   /**
+    * Clear the buffer for the next record.
+    */
+   void reset() {
+      buffer.setLength(0);
+   }
+
+   /**
+    * Write the start tag with its attributes
+    * 
+    * @param rawreader The stax reader positioned at the start tag
+    */
+   void startElement(XMLStreamReader rawreader) {
+      buffer.append('<');
+      name(rawreader.getPrefix(), rawreader.getLocalName());
+      for (int i = 0; i < rawreader.getNamespaceCount(); i++) {
+         buffer.append(' ');
+         name("xmlns", rawreader.getNamespacePrefix(i));
+         buffer.append("=\"");
+         escape(rawreader.getNamespaceURI(i), true);
+         buffer.append('"');
+      }
+      for (int i = 0; i < rawreader.getAttributeCount(); i++) {
+         buffer.append(' ');
+         name(rawreader.getAttributePrefix(i), rawreader.getAttributeLocalName(i));
+         buffer.append("=\"");
+         escape(rawreader.getAttributeValue(i), true);
+         buffer.append('"');
+      }
+      buffer.append('>');
+   }
+
+   /**
+    * Write the end tag
+    * 
+    * @param rawreader The stax reader positioned at the end tag
+    */
+   void endElement(XMLStreamReader rawreader) {
+      buffer.append("</");
+      name(rawreader.getPrefix(), rawreader.getLocalName());
+      buffer.append('>');
+   }
+
+   /**
+    * Write the (escaped) text
+    * 
+    * @param text The unescaped text
+    */
+   void text(String text) {
+      escape(text, false);
+   }
+
+   /**
+    * Write the name with the prefix, if there is one. (a declaration of the default namespace is just 'xmlns')
+    */
+   private void name(String prefix, String localName) {
+      if ((prefix != null) && !prefix.isEmpty()) {
+         buffer.append(prefix);
+         if ((localName == null) || localName.isEmpty()) return; // the default namespace
+         buffer.append(':');
+      }
+      buffer.append(localName);
+   }
+
+   private void escape(String text, boolean isAttribute) {
+      for (int i = 0; i < text.length(); i++) {
+         char c = text.charAt(i);
+         switch (c) {
+            case '&':
+               buffer.append("&amp;");
+               break;
+            case '<':
+               buffer.append("&lt;");
+               break;
+            case '>':
+               buffer.append("&gt;");
+               break;
+            case '"':
+               if (isAttribute) buffer.append("&quot;");
+               else buffer.append(c);
+               break;
+            default:
+               buffer.append(c);
+         }
+      }
+   }
+
+   /**
+    * @return The XML collected since the last {@link #reset()}
+    */
+   @Override
+   public String toString() {
+      return buffer.toString();
+   }
+}
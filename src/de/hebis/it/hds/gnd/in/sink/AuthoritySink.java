@@ -0,0 +1,97 @@
+/*
+ * Copyright 2016, 2017 by HeBIS (www.hebis.de).
+ * 
+ * This file is part of HeBIS project Gnd4Index.
+ *
+ * This is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or any later version.
+ *
+ * This code is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with the code.  If not, see http://www.gnu.org/licenses/agpl>.
+ */
+package de.hebis.it.hds.gnd.in.sink;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.util.function.Consumer;
+
+import org.apache.solr.common.SolrInputDocument;
+
+/**
+ * Destination of the parsed authority records.<br>
+ * The parser writes each finished record into a sink. Implementations have to be thread safe, because several parsers may share one sink.
+ * 
+ * @author Uwe Reh (uh), HeBIS-IT
+ * @version 2026-10-17 uh initial
+ * @version 2026-10-18 uh listener for failures in background
+ * @version 2026-10-18 uh deletion by the IDN
+ */
+public interface AuthoritySink extends Closeable {
+
+   /**
+    * Take a finished record.<br>
+    * Failures of single records are handled (logged) by the sink. If the sink can't continue at all, an unchecked exception is thrown.
+    * 
+    * @param doc The record
+    */
+   void add(SolrInputDocument doc);
+
+   /**
+    * Remove a record. (leader position 5 = 'd' or 's')
+    * 
+    * @param id The id of the record
+    */
+   void delete(String id);
+
+   /**
+    * Remove a record, which is known only by the IDN of the DNB (controlfield 001). (e.g. deletions announced by OAI)<br>
+    * The IDN differs from the id for the older records, e.g. the IDN "041766180" belongs to the id "(DE-588)4176618-0".
+    * 
+    * @param idn The content of the controlfield 001 of the record
+    */
+   void deleteByIdn(String idn);
+
+   /**
+    * Replace a record by an other one. (leader position 5 = 'x')<br>
+    * The default just deletes the old record. Sinks which can store the mapping should override this.
+    * 
+    * @param id The id of the redirected record
+    * @param targetId The id of the surviving record
+    */
+   default void redirect(String id, String targetId) {
+      delete(id);
+   }
+
+   /**
+    * Register a listener for records, which were accepted by {@link #add(SolrInputDocument)} but couldn't be written later. (e.g. a failed request
+    * in background)<br>
+    * The default ignores the listener. Sinks which write synchronously throw an exception instead.
+    * 
+    * @param listener Receives each failed record
+    */
+   default void setFailureListener(Consumer<SolrInputDocument> listener) {
+      // nothing fails in background
+   }
+
+   /**
+    * Write all pending records.
+    * 
+    * @throws IOException If the records can't be written
+    */
+   void flush() throws IOException;
+
+   /**
+    * Make the written records persistent. (default: just {@link #flush()})
+    * 
+    * @throws IOException If the records can't be made persistent
+    */
+   default void commit() throws IOException {
+      flush();
+   }
+}
@@ -0,0 +1,265 @@
+/*
+ * Copyright 2016, 2017 by HeBIS (www.hebis.de).
+ * 
+ * This file is part of HeBIS project Gnd4Index.
+ *
+ * This is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or any later version.
+ *
+ * This code is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with the code.  If not, see http://www.gnu.org/licenses/agpl>.
+ */
+package de.hebis.it.hds.gnd.in.sink;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.apache.solr.common.SolrInputDocument;
+
+/**
+ * Pass only new and changed records to the next sink.<br>
+ * For each record a 64 bit hash (FNV-1a) of the field 'fullrecord' is kept in a hash store, keyed by the hash of the id. Records with the same hash
+ * as in the store are skipped. The hash of a passed record counts only after the next sink has written it ({@link #flush()}), records which the next
+ * sink reports as failed are dropped from the store. So they are sent again by the next run.<br>
+ * The store is saved after each successful {@link #commit()}. It is merged: entries of the previous runs, which are missing in the current run,
+ * are kept (and counted as vanished). So an OAI harvest or a partial file only updates the store. Deleted records are removed.
+ * 
+ * @author Uwe Reh (uh), HeBIS-IT
+ * @version 2026-10-17 uh initial
+ * @version 2026-10-18 uh confirmed hashes only, merged and compact store
+ * @version 2026-10-18 uh deletion by the IDN
+ */
+public class ChangeDetectingSink implements AuthoritySink {
+   private static final Logger           LOG       = LogManager.getLogger(ChangeDetectingSink.class);
+   /** "GNDI": Pairs of hashes */
+   private static final int              MAGIC     = 0x474e4449;
+   /** "GNDH": The first format with the ids as text */
+   private static final int              MAGIC_V1  = 0x474e4448;
+   private static final long             FNV_BASIS = 0xcbf29ce484222325L;
+   private static final long             FNV_PRIME = 0x100000001b3L;
+   private final AuthoritySink           next;
+   private final Path                    store;
+   private final HashStore               hashes;
+   private final LongAdder               added     = new LongAdder();
+   private final LongAdder               changed   = new LongAdder();
+   private final LongAdder               unchanged = new LongAdder();
+   private final LongAdder               failed    = new LongAdder();
+
+   /**
+    * @param next The sink for the new and changed records
+    * @param store The file with the hashes of the previous runs. Will be created if missing.
+    * @throws IOException If the existing store can't be read
+    */
+   public ChangeDetectingSink(AuthoritySink next, Path store) throws IOException {
+      if (next == null) throw new RuntimeException("No sink for the changed records provided.");
+      this.next = next;
+      this.store = store;
+      hashes = load(store);
+      next.setFailureListener(this::failed);
+   }
+
+   @Override
+   public void add(SolrInputDocument doc) {
+      String id = (String) doc.getFieldValue("id");
+      Object fullrecord = doc.getFieldValue("fullrecord");
+      if ((id == null) || (fullrecord == null)) { // can't be compared
+         next.add(doc);
+         return;
+      }
+      long key = hash(id);
+      long hash = hash(fullrecord.toString());
+      switch (hashes.put(key, hash)) {
+         case HashStore.ADDED:
+            added.increment();
+            break;
+         case HashStore.CHANGED:
+            changed.increment();
+            break;
+         default:
+            unchanged.increment();
+            return; // skip
+      }
+      try {
+         next.add(doc);
+      }
+      catch (RuntimeException e) {
+         hashes.remove(key, hash);
+         throw e;
+      }
+   }
+
+   @Override
+   public void delete(String id) {
+      hashes.remove(hash(id));
+      next.delete(id);
+   }
+
+   /**
+    * The store is keyed by the id, so the entry of the record stays. A record, which comes back later, differs at least in the controlfield 005
+    * (time of the last change), so it is passed anyway.
+    */
+   @Override
+   public void deleteByIdn(String idn) {
+      next.deleteByIdn(idn);
+   }
+
+   @Override
+   public void redirect(String id, String targetId) {
+      hashes.remove(hash(id));
+      next.redirect(id, targetId);
+   }
+
+   /**
+    * Flush the next sink. The hashes of the records written so far are confirmed.
+    */
+   @Override
+   public void flush() throws IOException {
+      next.flush();
+      hashes.confirm();
+   }
+
+   /**
+    * Commit the next sink and save the hashes.
+    */
+   @Override
+   public void commit() throws IOException {
+      next.commit();
+      hashes.confirm();
+      save();
+   }
+
+   @Override
+   public void close() throws IOException {
+      next.close();
+      LOG.info(getReport());
+   }
+
+   /**
+    * @return The number of records unknown in the store
+    */
+   public long getNewCount() {
+      return added.sum();
+   }
+
+   /**
+    * @return The number of records with an other hash than in the store
+    */
+   public long getChangedCount() {
+      return changed.sum();
+   }
+
+   /**
+    * @return The number of skipped records
+    */
+   public long getUnchangedCount() {
+      return unchanged.sum();
+   }
+
+   /**
+    * @return The number of ids of the store, which are (until now) missing in this run
+    */
+   public long getVanishedCount() {
+      return hashes.unseen();
+   }
+
+   /**
+    * @return The number of records, which the next sink couldn't write
+    */
+   public long getFailedCount() {
+      return failed.sum();
+   }
+
+   /**
+    * @return The counts as one line
+    */
+   public String getReport() {
+      String ret = "new: " + getNewCount() + ", changed: " + getChangedCount() + ", unchanged: " + getUnchangedCount() + ", vanished: " + getVanishedCount();
+      return (getFailedCount() == 0) ? ret : ret + ", failed: " + getFailedCount();
+   }
+
+   @Override
+   public String toString() {
+      return next.toString() + " (only changes)";
+   }
+
+   /**
+    * The next sink couldn't write the record. Drop its hash, so it is sent again by the next run.
+    */
+   private void failed(SolrInputDocument doc) {
+      Object id = doc.getFieldValue("id");
+      Object fullrecord = doc.getFieldValue("fullrecord");
+      if ((id == null) || (fullrecord == null)) return;
+      failed.increment();
+      hashes.remove(hash(id.toString()), hash(fullrecord.toString()));
+   }
+
+   /**
+    * 64 bit FNV-1a over the chars of the text
+    * 
+    * @param text The normalized record
+    * @return The hash
+    */
+   static long hash(String text) {
+      long ret = FNV_BASIS;
+      for (int i = 0; i < text.length(); i++) {
+         char c = text.charAt(i);
+         ret = (ret ^ (c & 0xff)) * FNV_PRIME;
+         ret = (ret ^ (c >>> 8)) * FNV_PRIME;
+      }
+      return ret;
+   }
+
+   /**
+    * Read the hashes of the previous runs
+    */
+   private static HashStore load(Path store) throws IOException {
+      if (!Files.isRegularFile(store)) {
+         LOG.info("No hash store found at " + store.toString() + ". All records are new.");
+         return new HashStore(1 << 16);
+      }
+      HashStore ret;
+      try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(store), 1 << 16))) {
+         int magic = in.readInt();
+         if (magic == MAGIC) ret = HashStore.read(in);
+         else if (magic == MAGIC_V1) {
+            ret = new HashStore(in.readInt());
+            while (in.readBoolean()) { // one entry follows
+               String id = in.readUTF();
+               ret.load(hash(id), in.readLong());
+            }
+         }
+         else throw new IOException(store.toString() + " isn't a hash store.");
+      }
+      if (LOG.isDebugEnabled()) LOG.debug(ret.size() + " hashes read from " + store.toString());
+      return ret;
+   }
+
+   /**
+    * Write the confirmed hashes. (atomic, via a temporary file)
+    */
+   private void save() throws IOException {
+      Path tmp = store.resolveSibling(store.getFileName().toString() + ".tmp");
+      int written;
+      try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(tmp), 1 << 16))) {
+         out.writeInt(MAGIC);
+         written = hashes.write(out);
+      }
+      Files.move(tmp, store, StandardCopyOption.REPLACE_EXISTING);
+      if (LOG.isDebugEnabled()) LOG.debug(written + " hashes written to " + store.toString());
+   }
+}
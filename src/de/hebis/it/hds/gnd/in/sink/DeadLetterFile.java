@@ -0,0 +1,162 @@
+/*
+ * Copyright 2016, 2017 by HeBIS (www.hebis.de).
+ * 
+ * This file is part of HeBIS project Gnd4Index.
+ *
+ * This is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or any later version.
+ *
+ * This code is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with the code.  If not, see http://www.gnu.org/licenses/agpl>.
+ */
+package de.hebis.it.hds.gnd.in.sink;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.StringWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.text.SimpleDateFormat;
+import java.util.Date;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.apache.solr.common.SolrInputDocument;
+import org.apache.solr.common.util.XML;
+
+/**
+ * Collection of the records, which couldn't be stored.<br>
+ * The raw XML (field 'fullrecord') is written as marc21-XML collection, so the file can be loaded again by the Loader. The file is created with
+ * the first record, a run without failures leaves no file.<br>
+ * Deletions are written as minimal records with the status 'd' in the leader and the id in field 035 or the IDN in controlfield 001.
+ * 
+ * @author Uwe Reh (uh), HeBIS-IT
+ * @version 2026-10-17 uh initial
+ * @version 2026-10-18 uh deletions
+ */
+public class DeadLetterFile implements Closeable {
+   private static final Logger LOG   = LogManager.getLogger(DeadLetterFile.class);
+   private final Path          path;
+   private Writer              out   = null;
+   private long                count = 0;
+
+   /**
+    * @param path The file to write. An existing file will be overwritten.
+    */
+   public DeadLetterFile(Path path) {
+      this.path = path;
+   }
+
+   /**
+    * Build a file name with the current time. (&lt;prefix&gt;-yyyyMMdd-HHmmss.mrc.xml)
+    * 
+    * @param prefix Path and start of the file name
+    * @return The dead letter file
+    */
+   public static DeadLetterFile withTimestamp(String prefix) {
+      return new DeadLetterFile(Paths.get(prefix + "-" + new SimpleDateFormat("yyyyMMdd-HHmmss").format(new Date()) + ".mrc.xml"));
+   }
+
+   /**
+    * Write the raw XML of the record.
+    * 
+    * @param doc The record, which couldn't be stored
+    * @return FALSE if the record has no raw XML
+    */
+   public boolean add(SolrInputDocument doc) {
+      Object fullrecord = doc.getFieldValue("fullrecord");
+      if (fullrecord == null) {
+         LOG.error(doc.getFieldValue("id") + ": Lost, without the raw XML the record can't be written to " + path.toString());
+         return false;
+      }
+      write(fullrecord.toString());
+      return true;
+   }
+
+   /**
+    * Write a deleted record, which deletes the id again if the file is loaded.
+    * 
+    * @param id The id of the record, which couldn't be deleted
+    */
+   public void delete(String id) {
+      writeDeleted("<datafield tag=\"035\" ind1=\" \" ind2=\" \"><subfield code=\"a\">", id, "</subfield></datafield>");
+   }
+
+   /**
+    * Write a deleted record, which deletes the IDN again if the file is loaded.
+    * 
+    * @param idn The IDN of the record, which couldn't be deleted
+    */
+   public void deleteByIdn(String idn) {
+      writeDeleted("<controlfield tag=\"001\">", idn, "</controlfield>");
+   }
+
+   /**
+    * @return The number of written records, deletions included
+    */
+   public synchronized long getCount() {
+      return count;
+   }
+
+   /**
+    * @return The path of the file
+    */
+   public Path getPath() {
+      return path;
+   }
+
+   @Override
+   public synchronized void close() throws IOException {
+      if (out == null) return; // no failures
+      out.write("</collection>\n");
+      out.close();
+      out = null;
+      LOG.error(count + " records couldn't be stored. Load " + path.toString() + " to retry.");
+   }
+
+   @Override
+   public String toString() {
+      return path.toString();
+   }
+
+   private void writeDeleted(String start, String value, String end) {
+      StringWriter xml = new StringWriter(value.length() + 160);
+      xml.append("<record type=\"Authority\"><leader>00000dz  a2200000n  4500</leader>").append(start);
+      try {
+         XML.escapeCharData(value, xml);
+      }
+      catch (IOException e) {
+         throw new UncheckedIOException(e); // can't happen with a StringWriter
+      }
+      xml.append(end).append("</record>");
+      write(xml.toString());
+   }
+
+   private synchronized void write(String record) {
+      try {
+         if (out == null) open();
+         out.write(record.replace("><", ">\n<")); // one tag per line, for the ImportMode 'lines'
+         out.write('\n');
+         count++;
+      }
+      catch (IOException e) {
+         throw new UncheckedIOException("Can't write to " + path.toString(), e);
+      }
+   }
+
+   private void open() throws IOException {
+      out = Files.newBufferedWriter(path, StandardCharsets.UTF_8);
+      out.write("<?xml version=\"1.0\" encoding=\"UTF-8\"?>\n");
+      out.write("<collection xmlns=\"http://www.loc.gov/MARC21/slim\">\n");
+   }
+}
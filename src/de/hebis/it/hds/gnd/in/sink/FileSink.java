@@ -0,0 +1,138 @@
+/*
+ * Copyright 2016, 2017 by HeBIS (www.hebis.de).
+ * 
+ * This file is part of HeBIS project Gnd4Index.
+ *
+ * This is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or any later version.
+ *
+ * This code is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with the code.  If not, see http://www.gnu.org/licenses/agpl>.
+ */
+package de.hebis.it.hds.gnd.in.sink;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.StringWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.zip.GZIPOutputStream;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.apache.solr.client.solrj.util.ClientUtils;
+import org.apache.solr.common.SolrInputDocument;
+import org.apache.solr.common.util.XML;
+
+/**
+ * Write the records as solr update XML ('&lt;update&gt;&lt;add&gt;&lt;doc&gt;...') into a file. One document or deletion per line.<br>
+ * The file can be posted to solr later. If the name ends with ".gz" the file is compressed.
+ * 
+ * @author Uwe Reh (uh), HeBIS-IT
+ * @version 2026-10-17 uh initial
+ * @version 2026-10-17 uh deletions
+ * @version 2026-10-18 uh deletion by the IDN
+ */
+public class FileSink implements AuthoritySink {
+   private static final Logger LOG   = LogManager.getLogger(FileSink.class);
+   private final Path          path;
+   private final Writer        out;
+   private long                count   = 0;
+   private long                deleted = 0;
+
+   /**
+    * Create (or overwrite) the file
+    * 
+    * @param path The file to write
+    * @throws IOException If the file can't be created
+    */
+   public FileSink(Path path) throws IOException {
+      this.path = path;
+      OutputStream raw = Files.newOutputStream(path);
+      if (path.getFileName().toString().toLowerCase().endsWith(".gz")) raw = new GZIPOutputStream(raw, 1 << 16);
+      out = new BufferedWriter(new OutputStreamWriter(raw, StandardCharsets.UTF_8), 1 << 16);
+      out.write("<update>\n");
+   }
+
+   @Override
+   public void add(SolrInputDocument doc) {
+      String xml = "<add>" + ClientUtils.toXML(doc) + "</add>\n"; // serialize outside of the lock
+      synchronized (this) {
+         write(xml);
+         count++;
+      }
+   }
+
+   @Override
+   public void delete(String id) {
+      writeDelete("id", id);
+   }
+
+   /**
+    * Delete by query on the field 'idn'
+    */
+   @Override
+   public void deleteByIdn(String idn) {
+      writeDelete("query", "idn:" + ClientUtils.escapeQueryChars(idn));
+   }
+
+   @Override
+   public synchronized void flush() throws IOException {
+      out.flush();
+   }
+
+   @Override
+   public synchronized void close() throws IOException {
+      out.write("</update>\n");
+      out.close();
+      if (LOG.isDebugEnabled()) LOG.debug(count + " records and " + deleted + " deletions written to " + path.toString());
+   }
+
+   /**
+    * @param tag 'id' or 'query'
+    * @param value The id or the query
+    */
+   private void writeDelete(String tag, String value) {
+      StringWriter xml = new StringWriter(value.length() + 40);
+      xml.append("<delete><").append(tag).append('>');
+      try {
+         XML.escapeCharData(value, xml);
+      }
+      catch (IOException e) {
+         throw new UncheckedIOException(e); // can't happen with a StringWriter
+      }
+      xml.append("</").append(tag).append("></delete>\n");
+      synchronized (this) {
+         write(xml.toString());
+         deleted++;
+      }
+   }
+
+   /**
+    * Only called with the lock held
+    */
+   private void write(String line) {
+      try {
+         out.write(line);
+      }
+      catch (IOException e) {
+         throw new UncheckedIOException("Can't write to " + path.toString(), e);
+      }
+   }
+
+   @Override
+   public String toString() {
+      return path.toString();
+   }
+}
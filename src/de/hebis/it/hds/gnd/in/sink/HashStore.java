@@ -0,0 +1,249 @@
+/*
+ * Copyright 2016, 2017 by HeBIS (www.hebis.de).
+ * 
+ * This file is part of HeBIS project Gnd4Index.
+ *
+ * This is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or any later version.
+ *
+ * This code is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with the code.  If not, see http://www.gnu.org/licenses/agpl>.
+ */
+package de.hebis.it.hds.gnd.in.sink;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+
+/**
+ * Compact map from the 64 bit hash of a record id to the 64 bit hash of the record.<br>
+ * Open addressing with linear probing in primitive arrays, 17 bytes per slot instead of several hundred per entry for a map of Strings. Each
+ * entry carries two flags: 'pending' (sent, but not yet confirmed by the next sink) and 'seen' (in this run). All methods are synchronized, each
+ * call is short.
+ * 
+ * @author Uwe Reh (uh), HeBIS-IT
+ * @version 2026-10-18 uh initial
+ */
+class HashStore {
+   /** Result of {@link #put(long, long)} */
+   static final int          ADDED     = 0;
+   /** Result of {@link #put(long, long)} */
+   static final int          CHANGED   = 1;
+   /** Result of {@link #put(long, long)} */
+   static final int          UNCHANGED = 2;
+   private static final byte PENDING   = 1;
+   private static final byte SEEN      = 2;
+   /** The key 0 marks a free slot */
+   private long[]            keys;
+   private long[]            values;
+   private byte[]            flags;
+   private int               size      = 0;
+   private int               seen      = 0;
+
+   /**
+    * @param expected Expected number of entries
+    */
+   HashStore(int expected) {
+      int capacity = 16;
+      while (capacity * 3 / 4 < expected) capacity <<= 1;
+      allocate(capacity);
+   }
+
+   /**
+    * Store the new hash of a record. A new or changed entry is pending until {@link #confirm()}.
+    * 
+    * @param key The hash of the id
+    * @param value The hash of the record
+    * @return {@link #ADDED}, {@link #CHANGED} or {@link #UNCHANGED}
+    */
+   synchronized int put(long key, long value) {
+      key = nonZero(key);
+      int slot = find(key);
+      if (keys[slot] == 0) {
+         insert(slot, key, value, (byte) (PENDING | SEEN));
+         return ADDED;
+      }
+      markSeen(slot);
+      if (values[slot] == value) return UNCHANGED;
+      values[slot] = value;
+      flags[slot] |= PENDING;
+      return CHANGED;
+   }
+
+   /**
+    * Add an entry of a previous run. (confirmed, not seen)
+    */
+   synchronized void load(long key, long value) {
+      key = nonZero(key);
+      int slot = find(key);
+      if (keys[slot] == 0) insert(slot, key, value, (byte) 0);
+      else values[slot] = value;
+   }
+
+   /**
+    * Drop the entry, if it still has the given hash. (the record failed)
+    * 
+    * @return TRUE if the entry was removed
+    */
+   synchronized boolean remove(long key, long value) {
+      int slot = find(nonZero(key));
+      if ((keys[slot] == 0) || (values[slot] != value)) return false;
+      delete(slot);
+      return true;
+   }
+
+   /**
+    * Drop the entry. (the record was deleted)
+    * 
+    * @return TRUE if the entry was removed
+    */
+   synchronized boolean remove(long key) {
+      int slot = find(nonZero(key));
+      if (keys[slot] == 0) return false;
+      delete(slot);
+      return true;
+   }
+
+   /**
+    * The next sink has written all records so far. Clear the 'pending' flags.
+    */
+   synchronized void confirm() {
+      for (int i = 0; i < flags.length; i++) {
+         flags[i] &= ~PENDING;
+      }
+   }
+
+   /**
+    * @return The number of entries
+    */
+   synchronized int size() {
+      return size;
+   }
+
+   /**
+    * @return The number of entries, not seen in this run
+    */
+   synchronized int unseen() {
+      return size - seen;
+   }
+
+   /**
+    * Write the confirmed entries.
+    * 
+    * @return The number of written entries
+    */
+   synchronized int write(DataOutputStream out) throws IOException {
+      int count = 0;
+      for (int i = 0; i < keys.length; i++) {
+         if ((keys[i] != 0) && ((flags[i] & PENDING) == 0)) count++;
+      }
+      out.writeInt(count);
+      for (int i = 0; i < keys.length; i++) {
+         if ((keys[i] == 0) || ((flags[i] & PENDING) != 0)) continue;
+         out.writeLong(keys[i]);
+         out.writeLong(values[i]);
+      }
+      return count;
+   }
+
+   /**
+    * Read the entries written by {@link #write(DataOutputStream)}.
+    */
+   static HashStore read(DataInputStream in) throws IOException {
+      int count = in.readInt();
+      HashStore ret = new HashStore(count);
+      for (int i = 0; i < count; i++) {
+         ret.load(in.readLong(), in.readLong());
+      }
+      return ret;
+   }
+
+   private static long nonZero(long key) {
+      return (key == 0) ? 1 : key;
+   }
+
+   /**
+    * @return The slot of the key or the free slot to insert it
+    */
+   private int find(long key) {
+      int mask = keys.length - 1;
+      int slot = spread(key) & mask;
+      while ((keys[slot] != 0) && (keys[slot] != key)) {
+         slot = (slot + 1) & mask;
+      }
+      return slot;
+   }
+
+   private static int spread(long key) {
+      long h = key * 0x9E3779B97F4A7C15L;
+      return (int) (h >>> 32);
+   }
+
+   private void insert(int slot, long key, long value, byte flag) {
+      keys[slot] = key;
+      values[slot] = value;
+      flags[slot] = flag;
+      size++;
+      if ((flag & SEEN) != 0) seen++;
+      if (size > keys.length * 3 / 4) grow();
+   }
+
+   private void markSeen(int slot) {
+      if ((flags[slot] & SEEN) != 0) return;
+      flags[slot] |= SEEN;
+      seen++;
+   }
+
+   /**
+    * Remove the entry and shift the following entries of the cluster back (no tombstones)
+    */
+   private void delete(int slot) {
+      if ((flags[slot] & SEEN) != 0) seen--;
+      size--;
+      int mask = keys.length - 1;
+      int free = slot;
+      int next = slot;
+      while (true) {
+         next = (next + 1) & mask;
+         if (keys[next] == 0) break;
+         int home = spread(keys[next]) & mask;
+         // move the entry, if its home isn't in the cyclic range (free, next]
+         boolean movable = (free <= next) ? ((home <= free) || (home > next)) : ((home <= free) && (home > next));
+         if (movable) {
+            keys[free] = keys[next];
+            values[free] = values[next];
+            flags[free] = flags[next];
+            free = next;
+         }
+      }
+      keys[free] = 0;
+      values[free] = 0;
+      flags[free] = 0;
+   }
+
+   private void grow() {
+      long[] oldKeys = keys;
+      long[] oldValues = values;
+      byte[] oldFlags = flags;
+      allocate(oldKeys.length << 1);
+      for (int i = 0; i < oldKeys.length; i++) {
+         if (oldKeys[i] == 0) continue;
+         int slot = find(oldKeys[i]);
+         keys[slot] = oldKeys[i];
+         values[slot] = oldValues[i];
+         flags[slot] = oldFlags[i];
+      }
+   }
+
+   private void allocate(int capacity) {
+      keys = new long[capacity];
+      values = new long[capacity];
+      flags = new byte[capacity];
+   }
+}
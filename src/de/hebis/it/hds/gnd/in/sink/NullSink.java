@@ -0,0 +1,77 @@
+/*
+ * Copyright 2016, 2017 by HeBIS (www.hebis.de).
+ * 
+ * This file is part of HeBIS project Gnd4Index.
+ *
+ * This is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or any later version.
+ *
+ * This code is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with the code.  If not, see http://www.gnu.org/licenses/agpl>.
+ */
+package de.hebis.it.hds.gnd.in.sink;
+
+import java.util.concurrent.atomic.LongAdder;
+
+import org.apache.solr.common.SolrInputDocument;
+
+/**
+ * Sink, which just counts the records. To measure the throughput of the parser without any backend.
+ * 
+ * @author Uwe Reh (uh), HeBIS-IT
+ * @version 2026-10-17 uh initial
+ */
+public class NullSink implements AuthoritySink {
+   private final LongAdder count   = new LongAdder();
+   private final LongAdder deleted = new LongAdder();
+
+   @Override
+   public void add(SolrInputDocument doc) {
+      count.increment();
+   }
+
+   @Override
+   public void delete(String id) {
+      deleted.increment();
+   }
+
+   @Override
+   public void deleteByIdn(String idn) {
+      deleted.increment();
+   }
+
+   @Override
+   public void flush() {
+      // nothing to do
+   }
+
+   @Override
+   public void close() {
+      // nothing to do
+   }
+
+   /**
+    * @return The number of received records
+    */
+   public long getCount() {
+      return count.sum();
+   }
+
+   /**
+    * @return The number of received deletions and redirections
+    */
+   public long getDeletedCount() {
+      return deleted.sum();
+   }
+
+   @Override
+   public String toString() {
+      return "NullSink (" + getCount() + " records, " + getDeletedCount() + " deletions)";
+   }
+}
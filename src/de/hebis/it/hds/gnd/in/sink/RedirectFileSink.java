@@ -0,0 +1,95 @@
+/*
+ * Copyright 2016, 2017 by HeBIS (www.hebis.de).
+ * 
+ * This file is part of HeBIS project Gnd4Index.
+ *
+ * This is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or any later version.
+ *
+ * This code is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with the code.  If not, see http://www.gnu.org/licenses/agpl>.
+ */
+package de.hebis.it.hds.gnd.in.sink;
+
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.apache.solr.common.SolrInputDocument;
+
+/**
+ * Write the redirections (leader position 5 = 'x') into a file.<br>
+ * One line per redirected record: "&lt;old id&gt;&lt;TAB&gt;&lt;id of the surviving record&gt;". New, changed and deleted records are ignored, so
+ * this sink is usually combined with an other one by a {@link TeeSink}.
+ * 
+ * @author Uwe Reh (uh), HeBIS-IT
+ * @version 2026-10-17 uh initial
+ */
+public class RedirectFileSink implements AuthoritySink {
+   private static final Logger LOG   = LogManager.getLogger(RedirectFileSink.class);
+   private final Path          path;
+   private final PrintWriter   out;
+   private long                count = 0;
+
+   /**
+    * Create (or overwrite) the file
+    * 
+    * @param path The file to write
+    * @throws IOException If the file can't be created
+    */
+   public RedirectFileSink(Path path) throws IOException {
+      this.path = path;
+      out = new PrintWriter(Files.newBufferedWriter(path, StandardCharsets.UTF_8));
+   }
+
+   @Override
+   public void add(SolrInputDocument doc) {
+      // nothing to do
+   }
+
+   @Override
+   public void delete(String id) {
+      // nothing to do
+   }
+
+   @Override
+   public void deleteByIdn(String idn) {
+      // nothing to do
+   }
+
+   @Override
+   public void redirect(String id, String targetId) {
+      String line = id + '\t' + targetId;
+      synchronized (this) {
+         out.println(line);
+         count++;
+      }
+   }
+
+   @Override
+   public synchronized void flush() throws IOException {
+      out.flush();
+      if (out.checkError()) throw new IOException("Can't write to " + path.toString());
+   }
+
+   @Override
+   public synchronized void close() throws IOException {
+      out.close();
+      if (LOG.isDebugEnabled()) LOG.debug(count + " redirections written to " + path.toString());
+   }
+
+   @Override
+   public String toString() {
+      return path.toString();
+   }
+}
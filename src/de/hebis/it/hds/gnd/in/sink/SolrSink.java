@@ -0,0 +1,453 @@
+/*
+ * Copyright 2016, 2017 by HeBIS (www.hebis.de).
+ *
+ * This file is part of HeBIS project Gnd4Index.
+ *
+ * This is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or any later version.
+ *
+ * This code is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with the code.  If not, see http://www.gnu.org/licenses/agpl>.
+ */
+package de.hebis.it.hds.gnd.in.sink;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.apache.solr.client.solrj.SolrClient;
+import org.apache.solr.client.solrj.SolrServerException;
+import org.apache.solr.client.solrj.request.UpdateRequest;
+import org.apache.solr.client.solrj.util.ClientUtils;
+import org.apache.solr.common.SolrException;
+import org.apache.solr.common.SolrInputDocument;
+
+import de.hebis.it.hds.gnd.ImportMetrics;
+
+/**
+ * Collects the documents and sends them in batches to solr.<br>
+ * A batch is sent if it is full or if the flush interval is over. The number of parallel requests is limited, if all are in flight the caller of
+ * {@link #add(SolrInputDocument)} will wait.<br>
+ * Deletions are batched too, but a batch holds either documents or deletions. Solr processes the added documents of a request before the
+ * deletions, so the current batch is sent when the kind changes. This keeps the order of e.g. "add X, delete X" within the batches.<br>
+ * The batches are sent in the order they were filled. With more than one request in flight, batches of documents may overtake each other, a batch
+ * of deletions waits for the requests before it and vice versa. So parallel requests are only safe, if each record appears once. (e.g. a complete
+ * file, but not an OAI harvest)<br>
+ * Requests failing by a problem of solr or the connection are retried with a doubled delay each time, without blocking the other senders. The
+ * caller never sleeps for a retry, also with a batch size of 1. Documents and deletions which still fail are written to the
+ * {@link DeadLetterFile}.
+ *
+ * @author Uwe Reh (uh), HeBIS-IT
+ * @version 2026-10-17 uh initial
+ * @version 2026-10-17 uh renamed from SolrBatchWriter, as one of the {@link AuthoritySink}s
+ * @version 2026-10-17 uh batched deletions
+ * @version 2026-10-17 uh retries with backoff, dead letter file
+ * @version 2026-10-17 uh metrics of the requests
+ * @version 2026-10-18 uh listener for failed documents
+ * @version 2026-10-18 uh documents and deletions in separate batches, failed deletions as dead letters
+ * @version 2026-10-18 uh deletion by the IDN
+ * @version 2026-10-18 uh batches in order, deletions don't overtake or get overtaken
+ * @version 2026-10-18 uh single documents are sent and retried in background too
+ */
+public class SolrSink implements AuthoritySink {
+   private static final Logger            LOG         = LogManager.getLogger(SolrSink.class);
+   private final SolrClient               solrClient;
+   private final int                      batchSize;
+   private final int                      maxInFlight;
+   private final int                      commitWithin;
+   private final Semaphore                inFlight;
+   private final ExecutorService          senders;
+   private final ScheduledExecutorService flusher;
+   private final AtomicLong               sent        = new AtomicLong(0);
+   private final AtomicLong               failed      = new AtomicLong(0);
+   private final AtomicLong               deleted     = new AtomicLong(0);
+   private final AtomicLong               retried     = new AtomicLong(0);
+   private final ScheduledExecutorService retrier;
+   private int                            maxRetries  = 0;
+   private long                           retryDelay  = 1000;
+   private DeadLetterFile                 deadLetters = null;
+   private volatile Consumer<SolrInputDocument> failureListener = null;
+   private Batch                          batch;
+   private boolean                        deletionsInFlight = false;
+
+   /**
+    * Writer without batching. Each document is sent immediately, by a background sender like a full batch.
+    *
+    * @param solrClient A solrj client to the designated index.
+    */
+   public SolrSink(SolrClient solrClient) {
+      this(solrClient, 1, 0, 1, -1);
+   }
+
+   /**
+    * Configure the batching
+    *
+    * @param solrClient A solrj client to the designated index.
+    * @param batchSize Number of documents per request
+    * @param flushInterval Max. time in milliseconds a document may wait in an incomplete batch. (0 = no timed flush)
+    * @param maxInFlight Max. number of parallel requests. (1 keeps the order of all records)
+    * @param commitWithin Let solr commit within this time in milliseconds. (negative = don't ask for a commit)
+    */
+   public SolrSink(SolrClient solrClient, int batchSize, long flushInterval, int maxInFlight, int commitWithin) {
+      if (solrClient == null) throw new RuntimeException("No solr client provided.");
+      this.solrClient = solrClient;
+      this.batchSize = Math.max(1, batchSize);
+      this.maxInFlight = Math.max(1, maxInFlight);
+      this.commitWithin = commitWithin;
+      batch = new Batch(this.batchSize);
+      inFlight = new Semaphore(this.maxInFlight);
+      senders = Executors.newFixedThreadPool(this.maxInFlight, r -> daemon(r, "SolrSender"));
+      retrier = Executors.newSingleThreadScheduledExecutor(r -> daemon(r, "SolrRetrier"));
+      if ((flushInterval > 0) && (this.batchSize > 1)) {
+         flusher = Executors.newSingleThreadScheduledExecutor(r -> daemon(r, "SolrFlusher"));
+         flusher.scheduleWithFixedDelay(this::sendPending, flushInterval, flushInterval, TimeUnit.MILLISECONDS);
+      }
+      else {
+         flusher = null;
+      }
+      ImportMetrics.watchSinkQueue(this::getQueueDepth);
+      if (LOG.isDebugEnabled()) LOG.debug("Batches of " + this.batchSize + " docs, " + this.maxInFlight + " in flight, flush interval " + flushInterval + " ms, commitWithin " + commitWithin + " ms.");
+   }
+
+   /**
+    * Retry failed requests, if solr or the connection has a problem. The delay is doubled with each retry.
+    *
+    * @param maxRetries Max. number of retries per request (0 = no retry)
+    * @param retryDelay Delay in milliseconds before the first retry
+    */
+   public void setRetries(int maxRetries, long retryDelay) {
+      this.maxRetries = Math.max(0, maxRetries);
+      this.retryDelay = Math.max(1, retryDelay);
+   }
+
+   /**
+    * Keep the records, which still fail after all retries
+    *
+    * @param deadLetters The file for the records. Will be closed with this sink.
+    */
+   public void setDeadLetters(DeadLetterFile deadLetters) {
+      this.deadLetters = deadLetters;
+   }
+
+   /**
+    * The listener receives the documents which still fail after all retries
+    */
+   @Override
+   public void setFailureListener(Consumer<SolrInputDocument> listener) {
+      this.failureListener = listener;
+   }
+
+   /**
+    * Add the document to the current batch. A full batch or a batch of deletions is sent.
+    *
+    * @param doc The document to index
+    */
+   @Override
+   public void add(SolrInputDocument doc) {
+      synchronized (this) {
+         if (batch.hasDeletions()) submit(swap()); // the deletions first
+         batch.docs.add(doc);
+         if (batch.size() >= batchSize) submit(swap());
+      }
+   }
+
+   /**
+    * Add the deletion to the current batch. A full batch or a batch of documents is sent.
+    *
+    * @param id The id of the document to delete
+    */
+   @Override
+   public void delete(String id) {
+      delete(id, Batch::getDeletes);
+   }
+
+   /**
+    * Add the deletion by query on the field 'idn' to the current batch. A full batch or a batch of documents is sent.
+    *
+    * @param idn The IDN of the document to delete
+    */
+   @Override
+   public void deleteByIdn(String idn) {
+      delete(idn, Batch::getIdns);
+   }
+
+   /**
+    * Add the deletion to the current batch. A full batch or a batch of documents is sent.
+    *
+    * @param key The id or the IDN
+    * @param kind The list for the key in the batch
+    */
+   private void delete(String key, Function<Batch, List<String>> kind) {
+      synchronized (this) {
+         if (!batch.docs.isEmpty()) submit(swap()); // the documents first
+         kind.apply(batch).add(key);
+         if (batch.size() >= batchSize) submit(swap());
+      }
+   }
+
+   /**
+    * Send the pending documents and wait until all requests are finished.
+    */
+   @Override
+   public void flush() {
+      sendPending();
+      inFlight.acquireUninterruptibly(maxInFlight);
+      inFlight.release(maxInFlight);
+   }
+
+   /**
+    * Flush and commit.
+    *
+    * @throws IOException If the communication fails or solr refuses the commit
+    */
+   @Override
+   public void commit() throws IOException {
+      flush();
+      try {
+         solrClient.commit();
+      }
+      catch (SolrServerException e) {
+         throw new IOException("Failed sending commit to " + solrClient.toString(), e);
+      }
+   }
+
+   /**
+    * Flush and close the underlying client
+    */
+   @Override
+   public void close() throws IOException {
+      if (flusher != null) flusher.shutdownNow();
+      flush();
+      senders.shutdown();
+      retrier.shutdown();
+      ImportMetrics.watchSinkQueue(null);
+      if (LOG.isDebugEnabled()) LOG.debug(sent.get() + " documents sent, " + deleted.get() + " deleted, " + retried.get() + " retries, " + failed.get() + " failed.");
+      try {
+         if (deadLetters != null) deadLetters.close();
+      }
+      finally {
+         solrClient.close();
+      }
+   }
+
+   /**
+    * @return Number of documents successfully sent
+    */
+   public long getSentCount() {
+      return sent.get();
+   }
+
+   /**
+    * @return Number of deletions successfully sent
+    */
+   public long getDeletedCount() {
+      return deleted.get();
+   }
+
+   /**
+    * @return Number of retried requests
+    */
+   public long getRetryCount() {
+      return retried.get();
+   }
+
+   /**
+    * @return Number of documents and deletions which couldn't be sent
+    */
+   public long getFailedCount() {
+      return failed.get();
+   }
+
+   /**
+    * @return The requests in flight and the callers waiting for a free slot
+    */
+   public int getQueueDepth() {
+      return maxInFlight - inFlight.availablePermits() + inFlight.getQueueLength();
+   }
+
+   @Override
+   public String toString() {
+      return solrClient.toString();
+   }
+
+   /**
+    * Send the incomplete batch
+    */
+   private synchronized void sendPending() {
+      if (!batch.isEmpty()) submit(swap());
+   }
+
+   /**
+    * Replace the current batch with a new one. Only called with the lock held.
+    */
+   private Batch swap() {
+      Batch ret = batch;
+      batch = new Batch(batchSize);
+      return ret;
+   }
+
+   /**
+    * Wait for a free slot and send the batch in background. Only called with the lock held, so the batches are submitted in the order they were
+    * filled.<br>
+    * Batches of documents may overtake each other, but a change between documents and deletions waits until the requests in flight are done.
+    */
+   private void submit(Batch docs) {
+      if ((maxInFlight > 1) && (docs.hasDeletions() != deletionsInFlight)) {
+         inFlight.acquireUninterruptibly(maxInFlight);
+         inFlight.release(maxInFlight);
+      }
+      deletionsInFlight = docs.hasDeletions();
+      inFlight.acquireUninterruptibly();
+      try {
+         senders.execute(() -> sendInBackground(docs, 0));
+      }
+      catch (RuntimeException e) {
+         inFlight.release();
+         throw e;
+      }
+   }
+
+   /**
+    * Send the batch. A retry is scheduled without blocking the sender, the slot stays occupied until the batch is done.
+    */
+   private void sendInBackground(Batch docs, int attempt) {
+      try {
+         Exception error = trySend(docs);
+         if (error == null) {
+            inFlight.release();
+            return;
+         }
+         if (isTransient(error) && (attempt < maxRetries)) {
+            long delay = retryDelay << attempt;
+            retried.incrementAndGet();
+            LOG.warn("Failed sending " + docs.describe() + " to " + solrClient.toString() + ". Retry #" + (attempt + 1) + " in " + delay + " ms. (" + error.getMessage() + ")");
+            retrier.schedule(() -> senders.execute(() -> sendInBackground(docs, attempt + 1)), delay, TimeUnit.MILLISECONDS);
+            return;
+         }
+         giveUp(docs, error);
+      }
+      catch (RuntimeException e) {
+         LOG.error("Unexpected error while sending " + docs.describe(), e);
+      }
+      inFlight.release();
+   }
+
+   /**
+    * The request itself
+    * 
+    * @return NULL or the reason of the failure
+    */
+   private Exception trySend(Batch docs) {
+      UpdateRequest request = new UpdateRequest();
+      if (!docs.docs.isEmpty()) request.add(docs.docs);
+      if (!docs.deletes.isEmpty()) request.deleteById(docs.deletes);
+      for (String idn : docs.idns) {
+         request.deleteByQuery("idn:" + ClientUtils.escapeQueryChars(idn));
+      }
+      if (commitWithin >= 0) request.setCommitWithin(commitWithin);
+      long start = System.nanoTime();
+      try {
+         request.process(solrClient);
+         ImportMetrics.solrRequest(System.nanoTime() - start, true);
+         sent.addAndGet(docs.docs.size());
+         deleted.addAndGet(docs.deletes.size() + docs.idns.size());
+         return null;
+      }
+      catch (Exception e) {
+         ImportMetrics.solrRequest(System.nanoTime() - start, false);
+         return e;
+      }
+   }
+
+   /**
+    * Only errors of the server or the connection are worth a retry. Solr refuses bad requests (4xx) again and again.
+    */
+   private static boolean isTransient(Exception error) {
+      if (error instanceof SolrException) return ((SolrException) error).code() >= 500;
+      return (error instanceof SolrServerException) || (error instanceof IOException);
+   }
+
+   /**
+    * Write the documents and deletions to the dead letter file
+    */
+   private void giveUp(Batch docs, Exception error) {
+      failed.addAndGet(docs.size());
+      LOG.error("Failed sending " + docs.describe() + " to " + solrClient.toString(), error);
+      Consumer<SolrInputDocument> listener = failureListener;
+      if (listener != null) docs.docs.forEach(listener);
+      if (deadLetters == null) return;
+      for (SolrInputDocument doc : docs.docs) {
+         deadLetters.add(doc);
+      }
+      for (String id : docs.deletes) {
+         deadLetters.delete(id);
+      }
+      for (String idn : docs.idns) {
+         deadLetters.deleteByIdn(idn);
+      }
+   }
+
+   /**
+    * The content of one request, either documents or deletions
+    */
+   private static class Batch {
+      private final List<SolrInputDocument> docs;
+      private final List<String>            deletes = new ArrayList<>();
+      private final List<String>            idns    = new ArrayList<>();
+
+      private Batch(int size) {
+         docs = new ArrayList<>(size);
+      }
+
+      private int size() {
+         return docs.size() + deletes.size() + idns.size();
+      }
+
+      private boolean isEmpty() {
+         return docs.isEmpty() && !hasDeletions();
+      }
+
+      private List<String> getDeletes() {
+         return deletes;
+      }
+
+      private List<String> getIdns() {
+         return idns;
+      }
+
+      private boolean hasDeletions() {
+         return !deletes.isEmpty() || !idns.isEmpty();
+      }
+
+      private String describe() {
+         return docs.size() + " documents and " + (deletes.size() + idns.size()) + " deletions, starting with: " + first();
+      }
+
+      private Object first() {
+         if (!docs.isEmpty()) return docs.get(0).getFieldValue("id");
+         return deletes.isEmpty() ? "IDN " + idns.get(0) : deletes.get(0);
+      }
+   }
+
+   private static Thread daemon(Runnable r, String name) {
+      Thread ret = new Thread(r, name);
+      ret.setDaemon(true);
+      return ret;
+   }
+}
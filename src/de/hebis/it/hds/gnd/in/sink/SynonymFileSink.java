@@ -0,0 +1,99 @@
+/*
+ * Copyright 2016, 2017 by HeBIS (www.hebis.de).
+ * 
+ * This file is part of HeBIS project Gnd4Index.
+ *
+ * This is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or any later version.
+ *
+ * This code is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with the code.  If not, see http://www.gnu.org/licenses/agpl>.
+ */
+package de.hebis.it.hds.gnd.in.sink;
+
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.apache.solr.common.SolrInputDocument;
+
+import de.hebis.it.hds.gnd.out.SynonymFileFormat;
+
+/**
+ * Write the synonym file (eg. 'GndSynonyms.prop') directly while importing.<br>
+ * The file is the same as the export by {@link de.hebis.it.hds.gnd.out.AutorityRecordFileWriter}, but without the need of a filled repository. Only
+ * the order of the lines differs.
+ * 
+ * @author Uwe Reh (uh), HeBIS-IT
+ * @version 2026-10-17 uh initial
+ */
+public class SynonymFileSink implements AuthoritySink {
+   private static final Logger LOG   = LogManager.getLogger(SynonymFileSink.class);
+   private final Path          path;
+   private final String        seperator;
+   private final PrintWriter   out;
+   private long                count = 0;
+
+   /**
+    * Create (or overwrite) the synonym file
+    * 
+    * @param path The file to write
+    * @param seperator The seperator between the names (see 'EntrySeperator' in the config file)
+    * @throws IOException If the file can't be created
+    */
+   public SynonymFileSink(Path path, String seperator) throws IOException {
+      this.path = path;
+      this.seperator = seperator;
+      out = new PrintWriter(Files.newBufferedWriter(path, StandardCharsets.UTF_8));
+      SynonymFileFormat.printFileHeader(out, seperator);
+   }
+
+   @Override
+   public void add(SolrInputDocument doc) {
+      String id = (String) doc.getFieldValue("id");
+      Object preferred = doc.getFieldValue("preferred");
+      if ((id == null) || (preferred == null)) return; // not usable
+      String line = SynonymFileFormat.formatLine(id, (String) preferred, doc.getFieldValues("synonyms"), seperator);
+      synchronized (this) {
+         out.println(line);
+         count++;
+      }
+   }
+
+   @Override
+   public void delete(String id) {
+      // nothing to do, deleted records are simply not in the file
+   }
+
+   @Override
+   public void deleteByIdn(String idn) {
+      // nothing to do, deleted records are simply not in the file
+   }
+
+   @Override
+   public synchronized void flush() throws IOException {
+      out.flush();
+      if (out.checkError()) throw new IOException("Can't write to " + path.toString());
+   }
+
+   @Override
+   public synchronized void close() throws IOException {
+      out.close();
+      if (LOG.isDebugEnabled()) LOG.debug(count + " synonym lines written to " + path.toString());
+   }
+
+   @Override
+   public String toString() {
+      return path.toString();
+   }
+}
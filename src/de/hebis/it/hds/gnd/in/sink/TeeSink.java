@@ -0,0 +1,110 @@
+/*
+ * Copyright 2016, 2017 by HeBIS (www.hebis.de).
+ * 
+ * This file is part of HeBIS project Gnd4Index.
+ *
+ * This is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or any later version.
+ *
+ * This code is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with the code.  If not, see http://www.gnu.org/licenses/agpl>.
+ */
+package de.hebis.it.hds.gnd.in.sink;
+
+import java.io.IOException;
+import java.util.function.Consumer;
+
+import org.apache.solr.common.SolrInputDocument;
+
+/**
+ * Write each record into two sinks. To fan out one parse to several destinations, the tees can be nested.
+ * 
+ * @author Uwe Reh (uh), HeBIS-IT
+ * @version 2026-10-17 uh initial
+ * @version 2026-10-18 uh pass the failure listener
+ */
+public class TeeSink implements AuthoritySink {
+   private final AuthoritySink first;
+   private final AuthoritySink second;
+
+   /**
+    * @param first The first destination
+    * @param second The second destination
+    */
+   public TeeSink(AuthoritySink first, AuthoritySink second) {
+      if ((first == null) || (second == null)) throw new RuntimeException("Two sinks are needed.");
+      this.first = first;
+      this.second = second;
+   }
+
+   @Override
+   public void add(SolrInputDocument doc) {
+      first.add(doc);
+      second.add(doc);
+   }
+
+   @Override
+   public void delete(String id) {
+      first.delete(id);
+      second.delete(id);
+   }
+
+   @Override
+   public void deleteByIdn(String idn) {
+      first.deleteByIdn(idn);
+      second.deleteByIdn(idn);
+   }
+
+   @Override
+   public void redirect(String id, String targetId) {
+      first.redirect(id, targetId);
+      second.redirect(id, targetId);
+   }
+
+   @Override
+   public void setFailureListener(Consumer<SolrInputDocument> listener) {
+      first.setFailureListener(listener);
+      second.setFailureListener(listener);
+   }
+
+   @Override
+   public void flush() throws IOException {
+      try {
+         first.flush();
+      }
+      finally {
+         second.flush();
+      }
+   }
+
+   @Override
+   public void commit() throws IOException {
+      try {
+         first.commit();
+      }
+      finally {
+         second.commit();
+      }
+   }
+
+   @Override
+   public void close() throws IOException {
+      try {
+         first.close();
+      }
+      finally {
+         second.close();
+      }
+   }
+
+   @Override
+   public String toString() {
+      return first.toString() + " + " + second.toString();
+   }
+}
@@ -22,6 +22,8 @@ import java.util.List;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
+import de.hebis.it.hds.gnd.Diagnostics;
+
 /**
  * Methods for 'cooperation' subfields
  * <dl>
@@ -32,6 +34,7 @@ import org.apache.logging.log4j.Logger;
  *
  * @author Uwe Reh (uh), HeBIS-IT
  * @version 28.04.2017 uh initial
+ * @version 2026-10-17 uh aggregated warnings
  */
 public class CooperationFields {
    private final static Logger LOG = LogManager.getLogger(CooperationFields.class);
@@ -57,7 +60,7 @@ public class CooperationFields {
    public static void tracingCooperationName(DataField dataField) {
       if (LOG.isTraceEnabled()) LOG.trace(dataField.getRecordId() + ": in method");
       if (dataField.getFieldValues("preferred") == null) {
-         LOG.info(dataField.getRecordId() + ": Use first synonym as heading");
+         Diagnostics.report("First synonym used as heading", dataField.getTag(), dataField.getRecordId());
          dataField.storeUnique("preferred", buildFormatedName(dataField));
       } else {
          dataField.storeMultiValued("synonyms", buildFormatedName(dataField));
@@ -72,28 +75,28 @@ public class CooperationFields {
     */
    public static void relatedCooperationName(DataField dataField) {
       if (LOG.isTraceEnabled()) LOG.trace(dataField.getRecordId() + ": in method");
-      dataField.storeValues("0", "relatedIds", true, "https?://d-nb.info.*"); // dismiss redundant URI
+      FieldMapping.apply("relatedIds", dataField); // dismiss redundant URI
       dataField.storeMultiValued("related", buildFormatedName(dataField));
    }
 
    /**
     * Alternative names in other systems &lt;datafield tag="710"&gt;.<br>
-    * see: {@link GenericFields#linkingEntry(DataField, String)}
+    * see: {@link GenericFields#linkingEntry(DataField)}
     * 
     * @param dataField The content of the data field
     */
    public static void linkingEntryCooperationName(DataField dataField) {
       if (LOG.isTraceEnabled()) LOG.trace(dataField.getRecordId() + ": in method");
-      GenericFields.linkingEntry(dataField, null);
+      GenericFields.linkingEntry(dataField);
       dataField.storeMultiValued("synonyms", buildFormatedName(dataField));
-      dataField.storeValues("0", "sameAs", true, "http.+"); // no URLs
+      FieldMapping.apply("sameAsIds", dataField); // no URLs
    }
 
    private static String buildFormatedName(DataField dataField) {
       // name
       String name = dataField.getFirstValue("a");
       if (name == null) {
-         LOG.info(dataField.getRecordId() + ": No $a. in field " + dataField.getFirstValue("tag"));
+         Diagnostics.report("No $a in field", dataField.getTag(), dataField.getRecordId());
          name = "";
       }
       StringBuilder fullName = new StringBuilder(name);
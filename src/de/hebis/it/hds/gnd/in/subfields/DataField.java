@@ -20,28 +20,58 @@ package de.hebis.it.hds.gnd.in.subfields;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
 import javax.xml.stream.XMLStreamException;
 import javax.xml.stream.XMLStreamReader;
 
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
+
+import de.hebis.it.hds.gnd.Diagnostics;
 import org.apache.solr.common.SolrInputDocument;
 import org.apache.solr.common.SolrInputField;
 
 /**
- * Representation of marcXML datafield with some methods to help processing subfields.
+ * Representation of marcXML datafield with some methods to help processing subfields.<br>
+ * The subfields are kept in an array indexed by the (ASCII) subfield code. To avoid garbage, an instance can be reused for the next datafield via
+ * {@link #reset(SolrInputDocument, String, int, char, char)}.
  *
  * @author Uwe Reh (uh), HeBIS-IT
  * @version 30.03.2017 uh initial
  * @version 2017-07-07 uh Moved recodrId into the map
+ * @version 2026-10-17 uh Compact and reusable, no longer a map
+ * @version 2026-10-17 uh aggregated warnings
+ * @version 2026-10-17 uh shared instances for values with low cardinality
+ * @version 2026-10-17 uh check for doublets in linear time
  */
-public class DataField extends HashMap<String, List<String>> {
-   private static final long   serialVersionUID = 1L;
-   private final static Logger LOG              = LogManager.getLogger(DataField.class);
-   private SolrInputDocument   solrDoc;
+public class DataField {
+   private final static Logger  LOG       = LogManager.getLogger(DataField.class);
+   /** Subfield codes are single ASCII characters */
+   private static final int     MAX_CODES = 128;
+   /** Fields with less values are checked for doublets by a linear search */
+   private static final int     SCAN_LIMIT = 8;
+   /** Marker for a missing indicator */
+   public static final char     NO_IND    = '\0';
+   /** Shared instances of the values with low cardinality */
+   private static final ValueInterner INTERNER = new ValueInterner(4096, 32);
+   @SuppressWarnings({ "unchecked", "rawtypes" })
+   private final List<String>[] subFields = new List[MAX_CODES];
+   /** The codes in use, to clear only them at {@link #reset(SolrInputDocument, String, int, char, char)} */
+   private final char[]         usedCodes = new char[MAX_CODES];
+   private int                  usedCount = 0;
+   private SolrInputDocument    solrDoc;
+   private String               recordId  = null;
+   private int                  tag       = -1;
+   private char                 ind1      = NO_IND;
+   private char                 ind2      = NO_IND;
+   /** Values of the larger fields of the current document, for a fast check for doublets */
+   private final Map<String, ValueSet> valueSets = new HashMap<>();
 
    /**
     * Preconfigure a new DataField
@@ -64,6 +94,31 @@ public class DataField extends HashMap<String, List<String>> {
       setRecordId(recordId);
    }
 
+   /**
+    * Prepare this instance for the next datafield. All subfields will be dropped.
+    * 
+    * @param doc The SolrDocument to write in.
+    * @param newRecordId The Id of the record
+    * @param newTag The numeric tag of the datafield
+    * @param newInd1 The first indicator or {@link #NO_IND}
+    * @param newInd2 The second indicator or {@link #NO_IND}
+    * @return This DataField
+    */
+   public DataField reset(SolrInputDocument doc, String newRecordId, int newTag, char newInd1, char newInd2) {
+      for (int i = 0; i < usedCount; i++) {
+         subFields[usedCodes[i]].clear();
+      }
+      usedCount = 0;
+      if (doc != solrDoc) valueSets.clear(); // next record
+      solrDoc = (doc == null) ? new SolrInputDocument() : doc;
+      recordId = null;
+      setRecordId(newRecordId);
+      tag = newTag;
+      ind1 = newInd1;
+      ind2 = newInd2;
+      return this;
+   }
+
    /**
     * Store the value(s) of an (repeated)subfield into the solr document
     * 
@@ -73,23 +128,86 @@ public class DataField extends HashMap<String, List<String>> {
     * @param regExFilter Optional regex to skip unwanted entries
     */
    public void storeValues(String subFieldCode, String fieldName, boolean repeatable, String regExFilter) {
+      storeValues(subFieldCode, fieldName, repeatable, FieldMapping.filter(regExFilter));
+   }
+
+   /**
+    * Store the value(s) of an (repeated)subfield into the solr document
+    * 
+    * @param subFieldCode Code of the subfield to select
+    * @param fieldName Name of the field to store in (schema:...)
+    * @param repeatable Is the subfield be repeatable
+    * @param filter Optional precompiled filter to skip unwanted entries
+    */
+   public void storeValues(String subFieldCode, String fieldName, boolean repeatable, FieldMapping.ValueFilter filter) {
       List<String> subFieldList = get(subFieldCode);
       if (subFieldList == null) return;
       if (!repeatable && (subFieldList.size() > 1)) {
-         LOG.warn("Conversion warning at " + getFirstValue("recordId") + ". The Subfield " + get("tag").get(0) + "$" + subFieldCode + " schouldn't be repeatable.");
+         Diagnostics.report("Unexpected repeated subfield", tag, recordId + " $" + subFieldCode);
          solrDoc.addField(fieldName, subFieldList.get(0)); // use just the first value
          return;
       }
       for (String value : subFieldList) {
-         if ((regExFilter != null) && value.matches(regExFilter)) {
-            if (LOG.isTraceEnabled()) LOG.trace(getFirstValue("recordId") + ": skip \"" + value + "\".");
+         if ((filter != null) && filter.matches(value)) {
+            if (LOG.isTraceEnabled()) LOG.trace(recordId + ": skip \"" + value + "\".");
             continue;
          }
-         if (LOG.isTraceEnabled()) LOG.trace(getFirstValue("recordId") + ": store \"" + value + "\" to solr field " + fieldName);
+         if (LOG.isTraceEnabled()) LOG.trace(recordId + ": store \"" + value + "\" to solr field " + fieldName);
          solrDoc.addField(fieldName, value);
       }
    }
 
+   /**
+    * Get the values of a subfield.<br>
+    * Beside the subfield codes the pseudo keys 'tag', 'ind1', 'ind2' and 'recordId' are known.
+    * 
+    * @param subFieldCode Code of the subfield to select
+    * @return The values or NULL, if the subfield isn't provided.
+    */
+   public List<String> get(String subFieldCode) {
+      int index = toIndex(subFieldCode);
+      if (index < 0) {
+         String pseudo = getPseudoValue(subFieldCode);
+         return (pseudo == null) ? null : newList(pseudo);
+      }
+      List<String> ret = subFields[index];
+      return ((ret == null) || ret.isEmpty()) ? null : ret;
+   }
+
+   /**
+    * Replace the values of a subfield.<br>
+    * Beside the subfield codes the pseudo keys 'tag', 'ind1', 'ind2' and 'recordId' are known.
+    * 
+    * @param subFieldCode Code of the subfield
+    * @param values The new values
+    */
+   public void put(String subFieldCode, List<String> values) {
+      String first = ((values == null) || values.isEmpty()) ? null : values.get(0);
+      if (subFieldCode == null) return;
+      switch (subFieldCode) {
+         case "tag":
+            tag = toNumericTag(first);
+            return;
+         case "ind1":
+            ind1 = toIndicator(first);
+            return;
+         case "ind2":
+            ind2 = toIndicator(first);
+            return;
+         case "recordId":
+            recordId = first;
+            return;
+      }
+      int index = toIndex(subFieldCode);
+      if (index < 0) {
+         if (LOG.isDebugEnabled()) LOG.debug(recordId + ": Skip subfield with unusual code \"" + subFieldCode + "\"");
+         return;
+      }
+      List<String> slot = slot(index);
+      slot.clear();
+      if (values != null) slot.addAll(values);
+   }
+
    /**
     * Helper to extract the first occurrence of the subfield
     * 
@@ -97,7 +215,9 @@ public class DataField extends HashMap<String, List<String>> {
     * @return The first value of the subfield or NULL, if the subfield isn't provided or empty.
     */
    public String getFirstValue(String subFieldCode) {
-      List<String> subFieldList = get(subFieldCode);
+      int index = toIndex(subFieldCode);
+      if (index < 0) return getPseudoValue(subFieldCode);
+      List<String> subFieldList = subFields[index];
       if ((subFieldList == null) || subFieldList.isEmpty()) return null;
       return subFieldList.get(0);
    }
@@ -110,7 +230,7 @@ public class DataField extends HashMap<String, List<String>> {
     */
    public List<String> getValues(String subFieldCode) {
       List<String> subFieldList = get(subFieldCode);
-      if (subFieldList == null) subFieldList = new ArrayList<>();
+      if (subFieldList == null) return Collections.emptyList();
       return subFieldList;
    }
 
@@ -121,12 +241,6 @@ public class DataField extends HashMap<String, List<String>> {
     */
    public void addSubField(XMLStreamReader rawreader) {
       String key = rawreader.getAttributeValue(null, "code");
-      if (LOG.isTraceEnabled()) LOG.trace("Read subfield : " + key);
-      List<String> values = get(key);
-      if (values == null) {
-         values = new ArrayList<>();
-         put(key, values);
-      }
       String value;
       try {
          value = rawreader.getElementText();
@@ -134,8 +248,32 @@ public class DataField extends HashMap<String, List<String>> {
          LOG.error("Data failure: A marc subfield may not have subtags.");
          throw new RuntimeException(e);
       }
+      addSubField(key, value);
+   }
+
+   /**
+    * Pack the subfield value into an List (internal representation)
+    * 
+    * @param key The code of the subfield
+    * @param value The content of the subfield
+    */
+   public void addSubField(String key, String value) {
       if (LOG.isTraceEnabled()) LOG.trace("Subfield : " + key + " is \"" + value + "\"");
-      values.add(value);
+      int index = toIndex(key);
+      if (index < 0) {
+         if (LOG.isDebugEnabled()) LOG.debug(recordId + ": Skip subfield with unusual code \"" + key + "\"");
+         return;
+      }
+      if (isLowCardinality(index)) value = INTERNER.intern(value);
+      slot(index).add(value);
+   }
+
+   /**
+    * Subfields with a small, repeating set of values: source codes ($2), relation codes ($4) and all subfields of the quality level (042) and the
+    * type of the record (075)
+    */
+   private boolean isLowCardinality(int index) {
+      return (index == '2') || (index == '4') || (tag == 42) || (tag == 75);
    }
 
    /**
@@ -146,9 +284,10 @@ public class DataField extends HashMap<String, List<String>> {
     * @return The stripped value or NULL if the requested pseudo subfield isn'present.
     */
    public String getSub9SubField(char extentionCode) {
-      String startPattern = extentionCode + ":";
-      for (String subf9 : getValues("9")) {
-         if (subf9.startsWith(startPattern)) return subf9.substring(2);
+      List<String> subf9s = subFields['9'];
+      if (subf9s == null) return null;
+      for (String subf9 : subf9s) {
+         if ((subf9.length() > 1) && (subf9.charAt(0) == extentionCode) && (subf9.charAt(1) == ':')) return subf9.substring(2);
       }
       return null;
    }
@@ -162,7 +301,6 @@ public class DataField extends HashMap<String, List<String>> {
    public List<String> newList(String... data) {
       return Arrays.asList(data);
    }
-
    /**
     * Hide the underlying document and avoid duplicate entries.
     * 
@@ -178,10 +316,47 @@ public class DataField extends HashMap<String, List<String>> {
          solrDoc.addField(fieldName, value);
          return;
       }
-      for (Object entry : field.getValues()) {
-         if (value.equals(entry)) return; // skip doublets
+      if (field.getValueCount() < SCAN_LIMIT) {
+         for (Object entry : field.getValues()) {
+            if (value.equals(entry)) return; // skip doublets
+         }
+         field.addValue(value, 1);
+         return;
       }
+      ValueSet known = valueSet(fieldName, field);
+      if (!known.values.add(value)) return; // skip doublets
       field.addValue(value, 1);
+      known.synced++;
+   }
+
+   /**
+    * Get the set of the values already stored in a field of the current document.<br>
+    * Values added by other means (e.g. {@link #storeValues(String, String, boolean, FieldMapping.ValueFilter)}) are taken over on demand.
+    * 
+    * @param fieldName Name of the search field
+    * @param field The search field
+    * @return The set, in sync with the field
+    */
+   private ValueSet valueSet(String fieldName, SolrInputField field) {
+      ValueSet ret = valueSets.get(fieldName);
+      if (ret == null) {
+         ret = new ValueSet();
+         valueSets.put(fieldName, ret);
+      }
+      int count = field.getValueCount();
+      if ((ret.field != field) || (ret.synced > count)) { // the field was replaced
+         ret.values.clear();
+         ret.field = field;
+         ret.synced = 0;
+      }
+      if (ret.synced < count) {
+         int i = 0;
+         for (Object entry : field.getValues()) {
+            if (i++ >= ret.synced) ret.values.add(entry);
+         }
+         ret.synced = count;
+      }
+      return ret;
    }
 
    /**
@@ -222,7 +397,23 @@ public class DataField extends HashMap<String, List<String>> {
     * @return The Id of the current record (stored in this DataField)
     */
    public String getRecordId() {
-      return getFirstValue("recordId");
+      return recordId;
+   }
+
+   /**
+    * @return The numeric tag of this datafield or -1 if unknown.
+    */
+   public int getTag() {
+      return tag;
+   }
+
+   /**
+    * @return The tag of this datafield as three digits or NULL if unknown.
+    */
+   public String getTagId() {
+      if (tag < 0) return null;
+      char[] digits = { (char) ('0' + tag / 100), (char) ('0' + (tag / 10) % 10), (char) ('0' + tag % 10) };
+      return new String(digits);
    }
 
    /**
@@ -232,9 +423,9 @@ public class DataField extends HashMap<String, List<String>> {
     */
    public void setRecordId(String recordId) {
       if (recordId == null) return;
-      LOG.debug("Replace Id: " + getRecordId() + " with " + recordId);
+      if (LOG.isDebugEnabled()) LOG.debug("Replace Id: " + this.recordId + " with " + recordId);
       storeUnique("id", recordId, true);
-      put("recordId", newList(recordId));
+      this.recordId = recordId;
    }
 
    /**
@@ -248,13 +439,121 @@ public class DataField extends HashMap<String, List<String>> {
       if (value == null) return;
       if (solrDoc.containsKey(fieldName)) {
          if (!override) {
-            LOG.error(getFirstValue("recordId") + "# Attempt to store multiple values into unique field: " + fieldName);
+            LOG.error(recordId + "# Attempt to store multiple values into unique field: " + fieldName);
             return;
          }
          if (value.equals(getFirstValue(fieldName))) return; 
-         if (LOG.isDebugEnabled()) LOG.debug(getFirstValue("recordId") + "# Replace value of unique field: " + fieldName);
+         if (LOG.isDebugEnabled()) LOG.debug(recordId + "# Replace value of unique field: " + fieldName);
          solrDoc.remove(fieldName);
       }
       solrDoc.addField(fieldName, value);
    }
+
+   /**
+    * Representation of the datafield for logging
+    */
+   @Override
+   public String toString() {
+      StringBuilder ret = new StringBuilder("{tag=").append(getTagId());
+      ret.append(", ind1=").append(ind1 == NO_IND ? "" : String.valueOf(ind1));
+      ret.append(", ind2=").append(ind2 == NO_IND ? "" : String.valueOf(ind2));
+      for (int i = 0; i < usedCount; i++) {
+         ret.append(", ").append(usedCodes[i]).append('=').append(subFields[usedCodes[i]]);
+      }
+      return ret.append('}').toString();
+   }
+
+   /**
+    * Get the list for a subfield, create it if needed.
+    * 
+    * @param index The subfield code
+    * @return The (reusable) list of values
+    */
+   private List<String> slot(int index) {
+      List<String> ret = subFields[index];
+      if (ret == null) {
+         ret = new ArrayList<>(4);
+         subFields[index] = ret;
+      }
+      if (ret.isEmpty() && !isUsed(index)) usedCodes[usedCount++] = (char) index;
+      return ret;
+   }
+
+   /**
+    * Check if the subfield code is registered for the next {@link #reset(SolrInputDocument, String, int, char, char)}
+    */
+   private boolean isUsed(int index) {
+      for (int i = 0; i < usedCount; i++) {
+         if (usedCodes[i] == index) return true;
+      }
+      return false;
+   }
+
+   /**
+    * Map the pseudo keys
+    */
+   private String getPseudoValue(String key) {
+      if (key == null) return null;
+      switch (key) {
+         case "tag":
+            return getTagId();
+         case "ind1":
+            return (ind1 == NO_IND) ? null : String.valueOf(ind1);
+         case "ind2":
+            return (ind2 == NO_IND) ? null : String.valueOf(ind2);
+         case "recordId":
+            return recordId;
+         default:
+            return null;
+      }
+   }
+
+   /**
+    * Subfield code to array index
+    * 
+    * @return The index or -1 if the key isn't a single ASCII character.
+    */
+   private static int toIndex(String subFieldCode) {
+      if ((subFieldCode == null) || (subFieldCode.length() != 1)) return -1;
+      char code = subFieldCode.charAt(0);
+      return (code < MAX_CODES) ? code : -1;
+   }
+
+   /**
+    * Convert the attribute value of an indicator
+    * 
+    * @param value The attribute value
+    * @return The first character or {@link #NO_IND}
+    */
+   public static char toIndicator(String value) {
+      return ((value == null) || value.isEmpty()) ? NO_IND : value.charAt(0);
+   }
+
+   /**
+    * Convert the tag of a datafield into a number, without allocating objects.
+    * 
+    * @param tagId The tag of the data field (three digits)
+    * @return The numeric value [0..999] or -1 if the tag isn't numeric
+    */
+   public static int toNumericTag(String tagId) {
+      if ((tagId == null) || (tagId.length() != 3)) return -1;
+      int ret = 0;
+      for (int i = 0; i < 3; i++) {
+         char c = tagId.charAt(i);
+         if ((c < '0') || (c > '9')) return -1;
+         ret = ret * 10 + (c - '0');
+      }
+      return ret;
+   }
+
+   /**
+    * The values of a search field as set
+    */
+   private static class ValueSet {
+      private final Set<Object> values = new HashSet<>();
+      /** The field the set belongs to */
+      private SolrInputField    field  = null;
+      /** Number of field values already in the set */
+      private int               synced = 0;
+   }
 }
@@ -0,0 +1,38 @@
+/*
+ * Copyright 2016, 2017 by HeBIS (www.hebis.de).
+ * 
+ * This file is part of HeBIS project Gnd4Index.
+ *
+ * This is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or any later version.
+ *
+ * This code is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with the code.  If not, see http://www.gnu.org/licenses/agpl>.
+ */
+package de.hebis.it.hds.gnd.in.subfields;
+
+import de.hebis.it.hds.gnd.EvalDataFieldException;
+
+/**
+ * Signature of the methods to evaluate a data field. eg. {@link PersonFields#tracingPersonalName(DataField)}
+ *
+ * @author Uwe Reh (uh), HeBIS-IT
+ * @version 2026-10-17 uh initial
+ */
+@FunctionalInterface
+public interface DataFieldHandler {
+
+   /**
+    * Evaluate the data field and store the results into the underlying solr document.
+    * 
+    * @param dataField The content of the data field
+    * @throws EvalDataFieldException If the data can't be evaluated
+    */
+   void eval(DataField dataField) throws EvalDataFieldException;
+}
@@ -0,0 +1,282 @@
+/*
+ * Copyright 2016, 2017 by HeBIS (www.hebis.de).
+ *
+ * This file is part of HeBIS project Gnd4Index.
+ *
+ * This is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or any later version.
+ *
+ * This code is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with the code.  If not, see http://www.gnu.org/licenses/agpl>.
+ */
+package de.hebis.it.hds.gnd.in.subfields;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+/**
+ * Declarative rules to copy subfields into solr fields.<br>
+ * The rules are read once from a mapping file and compiled into {@link Rule}s. The file contains lines like:
+ *
+ * <pre>
+ * &lt;rule set&gt;.&lt;subfield code&gt; = &lt;solr field&gt; [; skip=&lt;regex&gt;] [; strip=&lt;regex&gt;] [; single] [; first]
+ * </pre>
+ *
+ * The handlers in this package apply the rule sets by name. Rule sets named by a three digit tag are used directly for data fields without an own
+ * handler. The rule sets used by the handlers ({@link #REQUIRED_RULE_SETS}) have to be defined in each mapping file. see: FieldMapping.properties
+ *
+ * @author Uwe Reh (uh), HeBIS-IT
+ * @version 2026-10-17 uh initial
+ * @version 2026-10-18 uh the mapping can't be switched once it is in use
+ * @version 2026-10-18 uh check for the rule sets used by the handlers
+ */
+public class FieldMapping {
+   private final static Logger                    LOG                = LogManager.getLogger(FieldMapping.class);
+   /** The mapping delivered with the code */
+   public static final String                     DEFAULT_FILE       = "FieldMapping.properties";
+   /** The rule sets applied by the handlers in this package */
+   public static final List<String>               REQUIRED_RULE_SETS = Collections.unmodifiableList(Arrays.asList("heading", "tracing", "related",
+         "linkingEntry", "linkingEntryPersonalName", "seeAlsoIds", "relatedIds", "sameAsIds", "qualityLevel", "authorityType", "complexSeeReference"));
+   private static final Map<String, ValueFilter>  filterCache        = new ConcurrentHashMap<>();
+   private static volatile FieldMapping           instance           = null;
+   private final Map<String, Rule[]>              ruleSets           = new LinkedHashMap<>();
+   private final String                           source;
+
+   /**
+    * Read and compile the mapping file.
+    *
+    * @param mappingFile Path to the mapping file or NULL for the build in mapping.
+    * @throws RuntimeException If the file can't be read, contains errors or misses rule sets used by the handlers
+    */
+   FieldMapping(String mappingFile) {
+      Map<String, List<Rule>> collector = new LinkedHashMap<>();
+      source = (mappingFile == null) ? DEFAULT_FILE : mappingFile;
+      try (BufferedReader in = new BufferedReader(new InputStreamReader(openMappingFile(mappingFile), StandardCharsets.UTF_8))) {
+         String line;
+         int lineNo = 0;
+         while ((line = in.readLine()) != null) {
+            lineNo++;
+            line = line.trim();
+            if (line.isEmpty() || line.startsWith("#")) continue;
+            parseLine(line, lineNo, collector);
+         }
+      }
+      catch (IOException e) {
+         throw new RuntimeException("Error while loading the field mapping: \"" + source + "\".", e);
+      }
+      List<String> missing = new ArrayList<>();
+      for (String required : REQUIRED_RULE_SETS) {
+         if (!collector.containsKey(required)) missing.add(required);
+      }
+      if (!missing.isEmpty()) throw new RuntimeException("The field mapping \"" + source + "\" misses the rule sets " + missing + ".");
+      for (Map.Entry<String, List<Rule>> entry : collector.entrySet()) {
+         ruleSets.put(entry.getKey(), entry.getValue().toArray(new Rule[entry.getValue().size()]));
+      }
+      if (LOG.isDebugEnabled()) LOG.debug("Field mapping \"" + source + "\" loaded with " + ruleSets.size() + " rule sets.");
+   }
+
+   /**
+    * Define the mapping file to use. Has to be called before the first parser is created, the handlers of the parsers are bound to the
+    * mapping.<br>
+    * Repeated calls with the same file are ignored.
+    *
+    * @param mappingFile Path to the mapping file or NULL for the build in mapping.
+    * @throws IllegalStateException If an other mapping is already in use
+    */
+   public static synchronized void configure(String mappingFile) {
+      String requested = ((mappingFile == null) || mappingFile.trim().isEmpty()) ? null : mappingFile.trim();
+      String requestedSource = (requested == null) ? DEFAULT_FILE : requested;
+      if (instance != null) {
+         if (instance.source.equals(requestedSource)) return;
+         throw new IllegalStateException("The field mapping \"" + instance.source + "\" is already in use, it can't be replaced by \"" + requestedSource + "\".");
+      }
+      instance = new FieldMapping(requested);
+   }
+
+   /**
+    * @return The current mapping. The build in mapping is loaded on demand.
+    */
+   public static FieldMapping getInstance() {
+      FieldMapping ret = instance;
+      if (ret == null) {
+         configure(null);
+         ret = instance;
+      }
+      return ret;
+   }
+
+   /**
+    * Apply all rules of a rule set to the data field
+    *
+    * @param ruleSetName Name of the rule set as defined in the mapping file
+    * @param dataField The content of the data field
+    */
+   public static void apply(String ruleSetName, DataField dataField) {
+      Rule[] rules = getInstance().ruleSets.get(ruleSetName);
+      if (rules == null) throw new IllegalStateException("The rule set \"" + ruleSetName + "\" isn't defined in the field mapping.");
+      for (Rule rule : rules) {
+         rule.apply(dataField);
+      }
+   }
+
+   /**
+    * @return The names of all defined rule sets
+    */
+   public Set<String> getRuleSetNames() {
+      return Collections.unmodifiableSet(ruleSets.keySet());
+   }
+
+   /**
+    * Get the compiled filter for a regular expression. Each expression is compiled only once.
+    *
+    * @param regEx The regular expression
+    * @return The compiled filter or NULL if no expression is given
+    */
+   public static ValueFilter filter(String regEx) {
+      if (regEx == null) return null;
+      return filterCache.computeIfAbsent(regEx, ValueFilter::new);
+   }
+
+   /**
+    * Interpret a single line of the mapping file
+    */
+   private void parseLine(String line, int lineNo, Map<String, List<Rule>> collector) {
+      int eq = line.indexOf('=');
+      int dot = (eq < 0) ? -1 : line.lastIndexOf('.', eq);
+      if ((eq < 0) || (dot < 1)) throw new RuntimeException(source + " line " + lineNo + ": Expect '<rule set>.<subfield code> = <solr field>'.");
+      String ruleSetName = line.substring(0, dot).trim();
+      String code = line.substring(dot + 1, eq).trim();
+      if ((code.length() != 1) || (code.charAt(0) > 127)) throw new RuntimeException(source + " line " + lineNo + ": Unusual subfield code \"" + code + "\".");
+      String[] parts = line.substring(eq + 1).split(";");
+      Rule rule = new Rule(code, parts[0].trim());
+      if (rule.solrField.isEmpty()) throw new RuntimeException(source + " line " + lineNo + ": The solr field is missing.");
+      for (int i = 1; i < parts.length; i++) {
+         String option = parts[i].trim();
+         if (option.startsWith("skip=")) rule.skip = filter(option.substring(5).trim());
+         else if (option.startsWith("strip=")) rule.strip = filter(option.substring(6).trim());
+         else if (option.equals("single")) rule.single = true;
+         else if (option.equals("first")) rule.first = true;
+         else throw new RuntimeException(source + " line " + lineNo + ": Unknown option \"" + option + "\".");
+      }
+      collector.computeIfAbsent(ruleSetName, k -> new ArrayList<>()).add(rule);
+   }
+
+   /**
+    * Look for the mapping file in the file system first, then in the class path
+    */
+   private static InputStream openMappingFile(String mappingFile) throws IOException {
+      if (mappingFile != null) {
+         Path path = Paths.get(mappingFile);
+         if (Files.isRegularFile(path)) return Files.newInputStream(path);
+      }
+      String resource = (mappingFile == null) ? DEFAULT_FILE : mappingFile;
+      InputStream ret = FieldMapping.class.getResourceAsStream(resource);
+      if (ret == null) throw new IOException("Can't find the field mapping \"" + resource + "\".");
+      return ret;
+   }
+
+   /**
+    * A single compiled mapping from one subfield to one solr field
+    */
+   static class Rule {
+      private final String subFieldCode;
+      private final String solrField;
+      private ValueFilter  skip   = null;
+      private ValueFilter  strip  = null;
+      private boolean      single = false;
+      private boolean      first  = false;
+
+      private Rule(String subFieldCode, String solrField) {
+         this.subFieldCode = subFieldCode;
+         this.solrField = solrField;
+      }
+
+      private void apply(DataField dataField) {
+         if (!first) {
+            dataField.storeValues(subFieldCode, solrField, !single, skip);
+            return;
+         }
+         String value = dataField.getFirstValue(subFieldCode);
+         if (value == null) return;
+         if (strip != null) value = strip.removeFrom(value);
+         if ((skip != null) && skip.matches(value)) return;
+         dataField.storeMultiValued(solrField, value);
+      }
+   }
+
+   /**
+    * Precompiled regular expression.<br>
+    * Expressions like "http.+" are evaluated as simple prefix check. For all others the matcher is reused per thread.
+    */
+   public static class ValueFilter {
+      private final String               regEx;
+      private final Pattern              pattern;
+      private final ThreadLocal<Matcher> matcher;
+      private final String               prefix;
+      private final int                  minLength;
+
+      private ValueFilter(String regEx) {
+         this.regEx = regEx;
+         pattern = Pattern.compile(regEx);
+         matcher = ThreadLocal.withInitial(() -> pattern.matcher(""));
+         String literal = regEx.substring(0, Math.max(0, regEx.length() - 2));
+         if ((regEx.endsWith(".*") || regEx.endsWith(".+")) && literal.matches("[\\w:/%-]*")) {
+            prefix = literal;
+            minLength = regEx.endsWith(".+") ? literal.length() + 1 : literal.length();
+         }
+         else {
+            prefix = null;
+            minLength = 0;
+         }
+      }
+
+      /**
+       * @param value The value to test
+       * @return TRUE if the whole value matches the expression
+       */
+      public boolean matches(String value) {
+         if (prefix != null) return (value.length() >= minLength) && value.startsWith(prefix);
+         return matcher.get().reset(value).matches();
+      }
+
+      /**
+       * @param value The value to clean up
+       * @return The value without the parts matching the expression
+       */
+      public String removeFrom(String value) {
+         Matcher m = matcher.get().reset(value);
+         if (!m.find()) return value;
+         return m.replaceAll("");
+      }
+
+      @Override
+      public String toString() {
+         return regEx;
+      }
+   }
+}
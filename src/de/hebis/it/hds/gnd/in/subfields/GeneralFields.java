@@ -30,9 +30,12 @@ import org.apache.logging.log4j.Logger;
  *
  * @author Uwe Reh (uh), HeBIS-IT
  * @version 30.03.2017 uh initial
+ * @version 2026-10-17 uh Redirections (682)
  */
 public class GeneralFields {
-   private final static Logger LOG = LogManager.getLogger(GeneralFields.class);
+   private final static Logger LOG             = LogManager.getLogger(GeneralFields.class);
+   /** Internal field for the id of the surviving record. Not part of the schema. */
+   public static final String  REDIRECT_TARGET = "redirectTarget";
 
    /**
     * Id(s) &lt;datafield tag="035"&gt;.<br>
@@ -83,7 +86,7 @@ public class GeneralFields {
     * @param dataField The content of the data field
     */
    public static void qualityLevel(DataField dataField) {
-      dataField.storeValues("a", "qualityLevel", false, null);
+      FieldMapping.apply("qualityLevel", dataField);
    }
 
    /**
@@ -106,7 +109,7 @@ public class GeneralFields {
    public static void type(DataField dataField) {
       String norm = dataField.getFirstValue("2");
       if ((norm == null) || norm.equals("gndgen")) {
-       dataField.storeValues("b", "authorityType", false, null);
+       FieldMapping.apply("authorityType", dataField);
       }
    }
 
@@ -132,12 +135,20 @@ public class GeneralFields {
    }
 
    /**
+    * Informations for control records &lt;datafield tag="682"&gt;.<br>
+    * For redirected records (leader position 5 = 'x') the first id in '$0' which starts with "(DE-588)" names the surviving record.<br>
+    * The id is stored in the internal field {@link #REDIRECT_TARGET}, which is removed by the parser before the record is passed on.
     * 
-    * @param dataField
+    * @param dataField The content of the data field
     */
    public static void controllInfos(DataField dataField) {
-      // TODO Auto-generated method stub
-
+      for (String target : dataField.getValues("0")) {
+         if (target.startsWith("(DE-588)")) {
+            if (LOG.isTraceEnabled()) LOG.trace(dataField.getRecordId() + ": Redirected to " + target);
+            dataField.replaceUnique(REDIRECT_TARGET, target);
+            return;
+         }
+      }
    }
 
 }
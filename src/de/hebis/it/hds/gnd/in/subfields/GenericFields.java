@@ -25,6 +25,7 @@ import org.apache.logging.log4j.Logger;
  *
  * @author Uwe Reh (uh), HeBIS-IT
  * @version 26.04.2017 uh initial
+ * @version 2026-10-17 uh mapping rules moved to FieldMapping.properties
  */
 public class GenericFields {
    private final static Logger LOG = LogManager.getLogger(GenericFields.class);
@@ -37,7 +38,7 @@ public class GenericFields {
     */
 
    public static void heading(DataField dataField) {
-      dataField.storeValues("a", "preferred", false, null);
+      FieldMapping.apply("heading", dataField);
    }
 
    /**
@@ -49,8 +50,7 @@ public class GenericFields {
     */
    public static void complexSeeReference(DataField dataField) {
       if (LOG.isTraceEnabled()) LOG.trace(dataField.getRecordId() + ": in method");
-      dataField.storeValues("0", "seeAlso", true, "https?://d-nb.info.*"); // dismiss redundant URI
-      dataField.storeValues("a", "synonyms", true, null);
+      FieldMapping.apply("complexSeeReference", dataField);
    }
 
    /**
@@ -61,7 +61,7 @@ public class GenericFields {
     */
    public static void tracing(DataField dataField) {
       if (LOG.isTraceEnabled()) LOG.trace(dataField.getRecordId() + ": in method");
-      dataField.storeValues("a", "synonyms", true, null);
+      FieldMapping.apply("tracing", dataField);
    }
 
    /**
@@ -73,8 +73,7 @@ public class GenericFields {
     */
    public static void related(DataField dataField) {
       if (LOG.isTraceEnabled()) LOG.trace(dataField.getRecordId() + ": in method");
-      dataField.storeValues("0", "relatedIds", true, "https?://d-nb.info.*"); // dismiss redundant URI
-      dataField.storeValues("a", "related", true, null);
+      FieldMapping.apply("related", dataField);
    }
 
    /**
@@ -82,15 +81,20 @@ public class GenericFields {
     * Subfield '$a' is taken as alias. (schema:synonyms)<br>
     * 
     * @param dataField The content of the data field
-    * @param filterPattern Optional regex to remove noise
     */
-   public static void linkingEntry(DataField dataField, String filterPattern) {
-      if (LOG.isTraceEnabled()) LOG.trace(dataField.getRecordId() + ": in method");
-      String altName = dataField.getFirstValue("a");
-      if (altName == null) return; // w/o a  name we need no id
-      if (filterPattern != null) altName = altName.replaceAll(filterPattern, "");
-      dataField.storeMultiValued("synonyms", altName);
-      dataField.storeValues("0", "sameAs", true, "http.+"); // no URLs
+   public static void linkingEntry(DataField dataField) {
+      linkingEntry(dataField, "linkingEntry");
+   }
 
+   /**
+    * Alternative names in other systems, with special rules<br>
+    * 
+    * @param dataField The content of the data field
+    * @param ruleSetName The rules to apply. see: {@link FieldMapping}
+    */
+   public static void linkingEntry(DataField dataField, String ruleSetName) {
+      if (LOG.isTraceEnabled()) LOG.trace(dataField.getRecordId() + ": in method");
+      if (dataField.getFirstValue("a") == null) return; // w/o a  name we need no id
+      FieldMapping.apply(ruleSetName, dataField);
    }
 }
@@ -17,11 +17,13 @@
  */
 package de.hebis.it.hds.gnd.in.subfields;
 
+import java.util.List;
 import java.util.NoSuchElementException;
 
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
+import de.hebis.it.hds.gnd.Diagnostics;
 import de.hebis.it.hds.gnd.EvalDataFieldException;
 
 /**
@@ -34,28 +36,38 @@ import de.hebis.it.hds.gnd.EvalDataFieldException;
  *
  * @author Uwe Reh (uh), HeBIS-IT
  * @version 31.03.2017 uh initial
+ * @version 2026-10-17 uh aggregated warnings
+ * @version 2026-10-17 uh coordinates without regular expressions, optional bounding box
+ * @version 2026-10-18 uh only the first bounding box, in stored fields
  */
 public class GeoFields {
-   private final static Logger LOG = LogManager.getLogger(GeneralFields.class);
+   private final static Logger   LOG           = LogManager.getLogger(GeneralFields.class);
+   /** Significant digits of a parsed coordinate. The mantissa stays exact as double. */
+   private static final int      MAX_DIGITS    = 15;
+   private static final double[] POWERS_OF_TEN = { 1e0, 1e1, 1e2, 1e3, 1e4, 1e5, 1e6, 1e7, 1e8, 1e9, 1e10, 1e11, 1e12, 1e13, 1e14, 1e15 };
+   private static volatile boolean boundingBox = false;
 
    /**
     * Coordinates. &lt;datafield tag="034"&gt;.<br>
     * A center will computed from the subfields $d, $e, $f, $g and $9A. and stored as WGS84 (schema:coordinates)<br>
+    * Optional the bounding box is stored as decimal degrees (schema:bbox_west, bbox_east, bbox_north and bbox_south). see
+    * {@link #configure(boolean)}<br>
+    * Only the box of the first 034 is stored, so the four edges belong together. The centers of all 034 are stored.<br>
     * Subfield '$0' is taken as additional id. (schema:sameAs)<br>
     * 
     * @param dataField The content of the data field
     * @throws EvalDataFieldException
     */
    public static void coordinates(DataField dataField) throws EvalDataFieldException {
-      String minLon;
-      String maxLon;
-      String minLat;
-      String maxLat;
+      String west;
+      String east;
+      String north;
+      String south;
       try {
-         minLon = getSubFieldAsString(dataField, "d");
-         maxLon = getSubFieldAsString(dataField, "e");
-         minLat = getSubFieldAsString(dataField, "f");
-         maxLat = getSubFieldAsString(dataField, "g");
+         west = getSubFieldAsString(dataField, "d");
+         east = getSubFieldAsString(dataField, "e");
+         north = getSubFieldAsString(dataField, "f");
+         south = getSubFieldAsString(dataField, "g");
       }
       catch (NoSuchElementException e) {
          String message = "Incomplete data: \"" + dataField.toString() + "\"";
@@ -63,27 +75,43 @@ public class GeoFields {
       }
       char codingSchema = getCoding(dataField);
       if (codingSchema == '?') { // unknown
-         LOG.info(dataField.getRecordId() + ": No coding shema , skip evaluation");
+         Diagnostics.report("No coding schema for coordinates", dataField.getTag(), dataField.getRecordId());
          return;
       }
-      Double longitute = toNormalizedDecimal(minLon, codingSchema);
-      Double latitute = toNormalizedDecimal(minLat, codingSchema);
-      // Map areas to their center. Not needed for points
-      if (!minLon.equals(maxLon) || !minLat.equals(maxLat)) {
-         longitute = (longitute + toNormalizedDecimal(maxLon, codingSchema)) / 2;
-         latitute = (latitute + toNormalizedDecimal(maxLat, codingSchema)) / 2;
-      }
-      // check for valid values
-      if ((Math.abs(latitute) > 90) || (Math.abs(longitute) > 180)) {
+      double westValue = toNormalizedDecimal(west, codingSchema);
+      double northValue = toNormalizedDecimal(north, codingSchema);
+      // Points have the same strings for both corners, no need to parse them twice
+      double eastValue = west.equals(east) ? westValue : toNormalizedDecimal(east, codingSchema);
+      double southValue = north.equals(south) ? northValue : toNormalizedDecimal(south, codingSchema);
+      // check for valid values (NaN fails too)
+      if (!(Math.abs(westValue) <= 180) || !(Math.abs(eastValue) <= 180) || !(Math.abs(northValue) <= 90) || !(Math.abs(southValue) <= 90)) {
          String message = "Wrong data: \"" + dataField.toString() + "\"";
          throw new EvalDataFieldException(message);
       }
-      dataField.storeMultiValued("coordinates", latitute.toString() + ", " + longitute.toString());
+      // Map areas to their center.
+      double longitute = (westValue == eastValue) ? westValue : (westValue + eastValue) / 2;
+      double latitute = (northValue == southValue) ? northValue : (northValue + southValue) / 2;
+      dataField.storeMultiValued("coordinates", Double.toString(latitute) + ", " + Double.toString(longitute));
+      if (boundingBox && (dataField.getFieldValues("bbox_west") == null)) { // only the first box
+         dataField.storeUnique("bbox_west", Double.toString(westValue));
+         dataField.storeUnique("bbox_east", Double.toString(eastValue));
+         dataField.storeUnique("bbox_north", Double.toString(northValue));
+         dataField.storeUnique("bbox_south", Double.toString(southValue));
+      }
       // optional URI
       String sameAs = dataField.getFirstValue("0");
       if (sameAs != null) dataField.storeMultiValued("sameAs", sameAs);
    }
 
+   /**
+    * Define whether the bounding box of the coordinates is stored additional to the center.
+    * 
+    * @param storeBoundingBox TRUE to store the four edges of the first box in the fields 'bbox_*'
+    */
+   public static void configure(boolean storeBoundingBox) {
+      boundingBox = storeBoundingBox;
+   }
+
    /**
     * @param dataField
     * @return
@@ -91,9 +119,7 @@ public class GeoFields {
    private static String getSubFieldAsString(DataField dataField, String subFieldCode) throws NoSuchElementException {
       String minLon = dataField.getFirstValue(subFieldCode);
       if ((minLon == null) || minLon.isEmpty()) {
-         String message = dataField.getRecordId() + ": Subfield " + subFieldCode + " is missing, skip evaluation";
-         LOG.info(message);
-         throw new NoSuchElementException(message);
+         throw new NoSuchElementException("Subfield " + subFieldCode + " is missing");
       }
       return minLon;
    }
@@ -134,54 +160,117 @@ public class GeoFields {
 
    /**
     * Alternative names in other systems &lt;datafield tag="751"&gt;.<br>
-    * see: {@link GenericFields#linkingEntry(DataField, String)}
+    * see: {@link GenericFields#linkingEntry(DataField)}
     * 
     * @param dataField The content of the data field
     */
    public static void linkingEntryGeoName(DataField dataField) {
       if (LOG.isTraceEnabled()) LOG.trace(dataField.getRecordId() + ": in method");
-      GenericFields.linkingEntry(dataField, null);
+      GenericFields.linkingEntry(dataField);
    }
 
    /**
-    * Convert GND formated coordinates to their numeric, decimal representation
+    * Convert GND formated coordinates to their numeric, decimal representation.<br>
+    * The value is parsed in a single pass. Blanks, apostrophes and other separators are skipped. 'E', 'N' and 'O' keep the value positive, 'S', 'W'
+    * and '-' make it negative.
+    * 
     * @param in Raw coordinate
-    * @param codingSchema If 'a' the input is in degrees
-    * @return 
+    * @param codingSchema If 'a' the input is in degrees, the last four digits are the minutes and seconds
+    * @return The decimal value or {@link Double#NaN} if the input can't be interpreted
     */
-   private static Double toNormalizedDecimal(String in, char codingSchema) {
-      String data = in.replaceAll("[^\\w.]", "");
+   static double toNormalizedDecimal(String in, char codingSchema) {
+      boolean negative = false;
+      long mantissa = 0;
+      int digits = 0;
+      int scale = -1; // digits after the decimal point, -1 = no decimal point
+      for (int i = 0; i < in.length(); i++) {
+         char c = in.charAt(i);
+         if ((c >= '0') && (c <= '9')) {
+            if (digits < MAX_DIGITS) {
+               mantissa = mantissa * 10 + (c - '0');
+               digits++;
+               if (scale >= 0) scale++;
+            }
+            else if (scale < 0) return Double.NaN; // to long to be a coordinate
+            continue; // ignore the surplus decimal places
+         }
+         switch (c) {
+            case '.':
+               if ((scale >= 0) || (codingSchema == 'a')) return Double.NaN;
+               scale = 0;
+               break;
+            case 'E':
+            case 'e':
+            case 'N':
+            case 'n':
+            case 'O':
+            case 'o':
+            case '+':
+               break;
+            case 'S':
+            case 's':
+            case 'W':
+            case 'w':
+            case '-':
+               negative = true;
+               break;
+            default:
+               if ((c < 128) && (Character.isLetter(c) || (c == '_'))) return Double.NaN; // unknown orientation
+         }
+      }
+      double ret;
       if (codingSchema == 'a') { // convert degree minutes and seconds to decimal
-         int dataLength = data.length();
-         if (dataLength < 5) return null; // to short to convert
-         String degree = data.substring(0, dataLength - 4);
-         int minutes = Integer.valueOf(data.substring(dataLength - 4, dataLength - 2));
-         int seconds = Integer.valueOf(data.substring(dataLength - 2, dataLength));
-         int decimal = (minutes * 60 + seconds) * 10000 / 36;
-         data = degree + '.' + decimal;
+         if (digits < 5) return Double.NaN; // to short to convert
+         long seconds = mantissa % 100;
+         long minutes = (mantissa / 100) % 100;
+         if ((minutes > 59) || (seconds > 59)) return Double.NaN;
+         // micro degrees, truncated
+         ret = ((mantissa / 10000) * 1000000 + (minutes * 60 + seconds) * 10000 / 36) / 1e6;
       }
-      // change from alphanumeric to numeric orientation
-      data = data.replaceFirst("[eEnNoO]0?", "");
-      data = data.replaceFirst("[sSwW]0?", "-");
-      return Double.parseDouble(data);
+      else {
+         if (digits == 0) return Double.NaN;
+         // both operands are exact, so the quotient is the same as Double.parseDouble() would return
+         ret = (scale > 0) ? mantissa / POWERS_OF_TEN[scale] : mantissa;
+      }
+      return negative ? -ret : ret;
    }
 
+   /**
+    * Get the coding of the coordinates from $9A or try to detect it from $d.
+    * 
+    * @param dataField The content of the data field
+    * @return 'a' for degrees, 'd' for decimal degrees and '?' if unknown
+    */
    static char getCoding(DataField dataField) {
-      String coding = dataField.getSub9SubField('A');
-      if ((coding != null) && !coding.isEmpty()) return coding.charAt(0);
+      List<String> subf9s = dataField.get("9");
+      if (subf9s != null) {
+         for (String subf9 : subf9s) {
+            if ((subf9.length() > 1) && (subf9.charAt(0) == 'A') && (subf9.charAt(1) == ':')) {
+               if (subf9.length() > 2) return subf9.charAt(2);
+               break;
+            }
+         }
+      }
       // Try to detect the coding
       String minLon = dataField.getFirstValue("d");
       if (LOG.isDebugEnabled()) LOG.debug(dataField.getRecordId() + ": Subfield $9A is missing, try to detect.");
-      if (minLon.contains(" ")) { // formatting spaces may an indicate a coding in degrees
-         if (minLon.indexOf('.') < 0) return 'a'; // no decimal dot; seems to be coded as degrees
-      }
-      int pos = minLon.indexOf('.');
-      if (pos > 2) { // decimal point as indicator for decimal
-         if ((pos + 1 < minLon.length() && (0 > minLon.indexOf('.', pos + 1)))) {
-            return 'd'; // only one decimal point, seems to be OK
+      if (minLon == null) return '?';
+      int blanks = 0;
+      int dots = 0;
+      int firstDot = -1;
+      for (int i = 0; i < minLon.length(); i++) {
+         char c = minLon.charAt(i);
+         if (c == ' ') blanks++;
+         else if (c == '.') {
+            if (dots++ == 0) firstDot = i;
          }
       }
+      if (dots == 0) {
+         if (blanks > 0) return 'a'; // formatting spaces without a decimal dot; seems to be coded as degrees
+      }
+      else if ((dots == 1) && (firstDot > 2) && (firstDot + 1 < minLon.length())) {
+         return 'd'; // only one decimal point, seems to be OK
+      }
       return '?';
-
    }
 }
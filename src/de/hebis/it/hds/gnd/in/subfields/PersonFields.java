@@ -22,6 +22,8 @@ import java.util.List;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
+import de.hebis.it.hds.gnd.Diagnostics;
+
 /**
  * Methods for persons
  * <dl>
@@ -32,6 +34,7 @@ import org.apache.logging.log4j.Logger;
  *
  * @author Uwe Reh (uh), HeBIS-IT
  * @version 04.04.2017 uh initial
+ * @version 2026-10-17 uh aggregated warnings
  */
 public class PersonFields {
    private final static Logger LOG = LogManager.getLogger(PersonFields.class);
@@ -76,13 +79,13 @@ public class PersonFields {
 
    /**
     * Alternative names in other systems &lt;datafield tag="700"&gt;.<br>
-    * see: {@link GenericFields#linkingEntry(DataField, String)} Optional trailing informations starting with "%DE" are be removed. "ABC%DE3..." will result in "ABC"
+    * see: {@link GenericFields#linkingEntry(DataField)} Optional trailing informations starting with "%DE" are be removed. "ABC%DE3..." will result in "ABC"
     * 
     * @param dataField The content of the data field
     */
    public static void linkingEntryPersonalName(DataField dataField) {
       if (LOG.isTraceEnabled()) LOG.trace(dataField.getRecordId() + ": in method");
-      GenericFields.linkingEntry(dataField, "%DE.*");
+      GenericFields.linkingEntry(dataField, "linkingEntryPersonalName");
    }
 
    private static void storePreferred(DataField dataField) {
@@ -99,7 +102,7 @@ public class PersonFields {
       // name
       String name = dataField.getFirstValue("a");
       if (name == null) {
-         LOG.info(dataField.getRecordId() + ": No $a. in field " + dataField.getFirstValue("tag"));
+         Diagnostics.report("No $a in field", dataField.getTag(), dataField.getRecordId());
          return null;
       }
       StringBuilder fullName = new StringBuilder(name);
@@ -70,12 +70,12 @@ public class TitleFields {
 
    /**
     * Alternative titles in other systems &lt;datafield tag="730"&gt;.<br>
-    * see: {@link GenericFields#linkingEntry(DataField, String)}
+    * see: {@link GenericFields#linkingEntry(DataField)}
     * 
     * @param dataField The content of the data field
     */
    public static void linkingEntryTitle(DataField dataField) {
       if (LOG.isTraceEnabled()) LOG.trace(dataField.getRecordId() + ": in method");
-      GenericFields.linkingEntry(dataField, null);
+      GenericFields.linkingEntry(dataField);
    }
 }
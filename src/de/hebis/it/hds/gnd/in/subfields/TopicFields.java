@@ -22,6 +22,8 @@ import java.util.List;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
+import de.hebis.it.hds.gnd.Diagnostics;
+
 /**
  * Methods for 'topic' subfields
  * <dl>
@@ -32,6 +34,7 @@ import org.apache.logging.log4j.Logger;
  *
  * @author Uwe Reh (uh), HeBIS-IT
  * @version 30.03.2017 uh initial
+ * @version 2026-10-17 uh aggregated warnings
  */
 public class TopicFields {
    private final static Logger LOG = LogManager.getLogger(TopicFields.class);
@@ -56,7 +59,7 @@ public class TopicFields {
     */
    public static void complexSeeReferenceTerm(DataField dataField) {
       if (LOG.isTraceEnabled()) LOG.trace(dataField.getRecordId() + ": in method");
-      dataField.storeValues("0", "seeAlso", true, "https?://d-nb.info.*"); // dismiss redundant URI
+      FieldMapping.apply("seeAlsoIds", dataField); // dismiss redundant URI
       dataField.storeMultiValued("synonyms", buildFormatedName(dataField));
 
    }
@@ -80,27 +83,27 @@ public class TopicFields {
     */
    public static void relatedTopicalTerm(DataField dataField) {
       if (LOG.isTraceEnabled()) LOG.trace(dataField.getRecordId() + ": in method");
-      dataField.storeValues("0", "relatedIds", true, "https?://d-nb.info.*"); // dismiss redundant URI
+      FieldMapping.apply("relatedIds", dataField); // dismiss redundant URI
       dataField.storeMultiValued("related", buildFormatedName(dataField));
       }
 
    /**
     * Alternative names in other systems &lt;datafield tag="750"&gt;.<br>
-    * see: {@link GenericFields#linkingEntry(DataField, String)}
+    * see: {@link GenericFields#linkingEntry(DataField)}
     * 
     * @param dataField The content of the data field
     */
    public static void linkingEntryTopicalTerm(DataField dataField) {
       if (LOG.isTraceEnabled()) LOG.trace(dataField.getRecordId() + ": in method");
       dataField.storeMultiValued("synonyms", buildFormatedName(dataField));
-      dataField.storeValues("0", "sameAs", true, "http.+"); // no URLs
+      FieldMapping.apply("sameAsIds", dataField); // no URLs
       }
    
    private static String buildFormatedName(DataField dataField) {
       // name
       String name = dataField.getFirstValue("a");
       if (name == null) {
-         LOG.info(dataField.getRecordId() + ": No $a. in field " + dataField.getFirstValue("tag"));
+         Diagnostics.report("No $a in field", dataField.getTag(), dataField.getRecordId());
          return null;
       }
       StringBuilder fullName = new StringBuilder(name);
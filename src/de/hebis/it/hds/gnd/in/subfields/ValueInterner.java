@@ -0,0 +1,68 @@
+/*
+ * Copyright 2016, 2017 by HeBIS (www.hebis.de).
+ * 
+ * This file is part of HeBIS project Gnd4Index.
+ *
+ * This is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or any later version.
+ *
+ * This code is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with the code.  If not, see http://www.gnu.org/licenses/agpl>.
+ */
+package de.hebis.it.hds.gnd.in.subfields;
+
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Bounded, thread safe table of canonical strings.<br>
+ * Values like relation codes ($4), source codes ($2), quality levels and authority types repeat in millions of records. Sharing one instance per
+ * value keeps the documents waiting for solr small. The table accepts short values only and stops growing when it is full, so unexpected high
+ * cardinality can't exhaust the heap. Concurrent inserts may overshoot the limit by a few entries.
+ *
+ * @author Uwe Reh (uh), HeBIS-IT
+ * @version 2026-10-17 uh initial
+ */
+public class ValueInterner {
+   private final ConcurrentHashMap<String, String> table;
+   private final int                               maxEntries;
+   private final int                               maxLength;
+
+   /**
+    * @param maxEntries Maximum number of values in the table
+    * @param maxLength Longer values are never taken into the table
+    */
+   public ValueInterner(int maxEntries, int maxLength) {
+      if ((maxEntries < 1) || (maxLength < 1)) throw new IllegalArgumentException("The limits of the table must be positive.");
+      this.maxEntries = maxEntries;
+      this.maxLength = maxLength;
+      table = new ConcurrentHashMap<>(Math.min(maxEntries, 1024));
+   }
+
+   /**
+    * Get the canonical instance of a value.
+    *
+    * @param value The value
+    * @return An equal instance out of the table or the value itself, if the table is full or the value is to long.
+    */
+   public String intern(String value) {
+      if ((value == null) || (value.length() > maxLength)) return value;
+      String ret = table.get(value);
+      if (ret != null) return ret;
+      if (table.size() >= maxEntries) return value; // full, keep the value as it is
+      ret = table.putIfAbsent(value, value);
+      return (ret == null) ? value : ret;
+   }
+
+   /**
+    * @return The number of values in the table
+    */
+   public int size() {
+      return table.size();
+   }
+}
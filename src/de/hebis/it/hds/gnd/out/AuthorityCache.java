@@ -0,0 +1,304 @@
+/*
+ * Copyright 2016, 2017 by HeBIS (www.hebis.de).
+ * 
+ * This file is part of HeBIS project Gnd4Index.
+ *
+ * This is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or any later version.
+ *
+ * This code is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with the code.  If not, see http://www.gnu.org/licenses/agpl>.
+ */
+package de.hebis.it.hds.gnd.out;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+
+/**
+ * Bounded cache for authority records, safe for many indexing threads.<br>
+ * The entries are spread over segments, each a small LRU list with its own lock. A lookup holds the lock only for the map access, never while the
+ * record is loaded. Concurrent misses for the same id wait for one single load, misses for different ids load in parallel. Optional the entries
+ * expire after a time to live.<br>
+ * Unknown ids (NULL) are not cached.
+ * 
+ * @author Uwe Reh (uh), HeBIS-IT
+ * @version 2026-10-17 uh initial
+ */
+public class AuthorityCache {
+   private static final int    MAX_SEGMENTS = 16;
+   private final Segment[]     segments;
+   private final long          ttlNanos;
+   private final LongSupplier  clock;
+   private final LongAdder     hits         = new LongAdder();
+   private final LongAdder     misses       = new LongAdder();
+   private final LongAdder     evictions    = new LongAdder();
+   private final LongAdder     expirations  = new LongAdder();
+   /** The loads in progress, to be shared by concurrent misses */
+   private final ConcurrentHashMap<String, CompletableFuture<AuthorityBean>> loading = new ConcurrentHashMap<>();
+
+   /**
+    * Loads a record in case of a miss.
+    */
+   @FunctionalInterface
+   public interface Loader {
+      /**
+       * @param recordId The id of the record
+       * @return The record or NULL if the id is unknown
+       * @throws AuthorityRecordException Indicates a problem while retrieving data from repository
+       */
+      AuthorityBean load(String recordId) throws AuthorityRecordException;
+   }
+
+   /**
+    * @param maxSize Maximum number of cached records
+    * @param ttl Time to live of an entry, 0 means: no expiration
+    * @param unit Unit of the time to live
+    */
+   public AuthorityCache(int maxSize, long ttl, TimeUnit unit) {
+      this(maxSize, ttl, unit, System::nanoTime);
+   }
+
+   /**
+    * @param maxSize Maximum number of cached records
+    * @param ttl Time to live of an entry, 0 means: no expiration
+    * @param unit Unit of the time to live
+    * @param clock Source of the time in nanoseconds
+    */
+   AuthorityCache(int maxSize, long ttl, TimeUnit unit, LongSupplier clock) {
+      if (maxSize < 1) throw new IllegalArgumentException("The size of the cache must be positive.");
+      if (ttl < 0) throw new IllegalArgumentException("The time to live can't be negative.");
+      int segmentCount = Math.max(1, Math.min(MAX_SEGMENTS, maxSize / 64));
+      segments = new Segment[segmentCount];
+      for (int i = 0; i < segmentCount; i++) {
+         // distribute the rest, the sum is exact maxSize
+         segments[i] = new Segment(maxSize / segmentCount + ((i < maxSize % segmentCount) ? 1 : 0));
+      }
+      this.ttlNanos = unit.toNanos(ttl);
+      this.clock = clock;
+   }
+
+   /**
+    * Get the record from the cache or load it.
+    * 
+    * @param recordId The id of the record
+    * @param loader Loads the record in case of a miss
+    * @return The record or NULL if the id is unknown
+    * @throws AuthorityRecordException Indicates a problem while retrieving data from repository
+    */
+   public AuthorityBean get(String recordId, Loader loader) throws AuthorityRecordException {
+      AuthorityBean ret = getIfPresent(recordId);
+      if (ret != null) {
+         hits.increment();
+         return ret;
+      }
+      misses.increment();
+      return load(recordId, loader);
+   }
+
+   /**
+    * Load the record, bypassing the cache for reading. The cache is updated with the result.
+    * 
+    * @param recordId The id of the record
+    * @param loader Loads the record
+    * @return The record or NULL if the id is unknown
+    * @throws AuthorityRecordException Indicates a problem while retrieving data from repository
+    */
+   public AuthorityBean reload(String recordId, Loader loader) throws AuthorityRecordException {
+      misses.increment();
+      return load(recordId, loader);
+   }
+
+   /**
+    * @param recordId The id of the record
+    * @return The cached record or NULL if it isn't cached or expired
+    */
+   public AuthorityBean getIfPresent(String recordId) {
+      return segmentFor(recordId).get(recordId);
+   }
+
+   /**
+    * Load the record. Concurrent calls for the same id share the result of the first call.
+    */
+   private AuthorityBean load(String recordId, Loader loader) throws AuthorityRecordException {
+      CompletableFuture<AuthorityBean> pending = new CompletableFuture<>();
+      CompletableFuture<AuthorityBean> running = loading.putIfAbsent(recordId, pending);
+      if (running != null) return await(running);
+      try {
+         AuthorityBean ret = loader.load(recordId);
+         Segment segment = segmentFor(recordId);
+         if (ret == null) segment.remove(recordId);
+         else segment.put(recordId, ret);
+         pending.complete(ret);
+         return ret;
+      }
+      catch (Throwable e) { // the waiting threads have to be released in any case
+         pending.completeExceptionally(e);
+         throw e;
+      }
+      finally {
+         loading.remove(recordId, pending);
+      }
+   }
+
+   /**
+    * Wait for the load of an other thread
+    */
+   private static AuthorityBean await(CompletableFuture<AuthorityBean> running) throws AuthorityRecordException {
+      boolean interrupted = false;
+      try {
+         while (true) {
+            try {
+               return running.get();
+            }
+            catch (InterruptedException e) {
+               interrupted = true; // the other thread will finish the request anyway
+            }
+            catch (ExecutionException e) {
+               Throwable cause = e.getCause();
+               if (cause instanceof AuthorityRecordException) throw (AuthorityRecordException) cause;
+               if (cause instanceof RuntimeException) throw (RuntimeException) cause;
+               if (cause instanceof Error) throw (Error) cause;
+               throw new AuthorityRecordException("Loading the record failed.", (Exception) cause);
+            }
+         }
+      }
+      finally {
+         if (interrupted) Thread.currentThread().interrupt();
+      }
+   }
+
+   /**
+    * Drop all entries
+    */
+   public void invalidateAll() {
+      for (Segment segment : segments) {
+         segment.clear();
+      }
+   }
+
+   /**
+    * @return The number of cached records (including the expired, not yet removed)
+    */
+   public int size() {
+      int ret = 0;
+      for (Segment segment : segments) {
+         ret += segment.size();
+      }
+      return ret;
+   }
+
+   /**
+    * @return Number of lookups answered from the cache
+    */
+   public long getHits() {
+      return hits.sum();
+   }
+
+   /**
+    * @return Number of lookups which needed a load (including reloads)
+    */
+   public long getMisses() {
+      return misses.sum();
+   }
+
+   /**
+    * @return Number of entries dropped to keep the size limit
+    */
+   public long getEvictions() {
+      return evictions.sum();
+   }
+
+   /**
+    * @return Number of entries dropped because the time to live elapsed
+    */
+   public long getExpirations() {
+      return expirations.sum();
+   }
+
+   @Override
+   public String toString() {
+      long hitCount = hits.sum();
+      long total = hitCount + misses.sum();
+      return "AuthorityCache{size=" + size() + ", hits=" + hitCount + ", misses=" + misses.sum() + ", hitRate=" + ((total == 0) ? 0 : hitCount * 100 / total)
+            + "%, evictions=" + evictions.sum() + ", expirations=" + expirations.sum() + "}";
+   }
+
+   private Segment segmentFor(String recordId) {
+      int hash = recordId.hashCode();
+      hash ^= (hash >>> 16);
+      return segments[(hash & 0x7fffffff) % segments.length];
+   }
+
+   /**
+    * A cached record
+    */
+   private static class Entry {
+      private final AuthorityBean bean;
+      private final long          expires;
+
+      private Entry(AuthorityBean bean, long expires) {
+         this.bean = bean;
+         this.expires = expires;
+      }
+   }
+
+   /**
+    * Part of the cache with an own lock. The LinkedHashMap in access order is the LRU list.
+    */
+   private class Segment {
+      private final int                          capacity;
+      private final LinkedHashMap<String, Entry> map;
+
+      private Segment(int capacity) {
+         this.capacity = capacity;
+         map = new LinkedHashMap<>(16, 0.75f, true);
+      }
+
+      private synchronized AuthorityBean get(String recordId) {
+         Entry entry = map.get(recordId);
+         if (entry == null) return null;
+         if ((ttlNanos > 0) && (clock.getAsLong() - entry.expires > 0)) {
+            map.remove(recordId);
+            expirations.increment();
+            return null;
+         }
+         return entry.bean;
+      }
+
+      private synchronized void put(String recordId, AuthorityBean bean) {
+         map.put(recordId, new Entry(bean, (ttlNanos > 0) ? clock.getAsLong() + ttlNanos : 0));
+         if (map.size() <= capacity) return;
+         Iterator<Map.Entry<String, Entry>> eldest = map.entrySet().iterator();
+         while (map.size() > capacity) {
+            eldest.next();
+            eldest.remove();
+            evictions.increment();
+         }
+      }
+
+      private synchronized void remove(String recordId) {
+         map.remove(recordId);
+      }
+
+      private synchronized void clear() {
+         map.clear();
+      }
+
+      private synchronized int size() {
+         return map.size();
+      }
+   }
+}
@@ -36,6 +36,7 @@ import org.apache.solr.client.solrj.response.QueryResponse;
  * 
  * @author Uwe Reh (uh), HeBIS-IT
  * @version 2017-06-18 uh initial version
+ * @version 2026-10-17 uh format moved to SynonymFileFormat
  */
 public class AutorityRecordFileWriter extends AutorityRecordSolrFinder {
    private static final Logger LOG              = LogManager.getLogger(AutorityRecordFileWriter.class);
@@ -117,11 +118,7 @@ public class AutorityRecordFileWriter extends AutorityRecordSolrFinder {
     * Write a header with short explanation to the file
     */
    private void printFileHeader() {
-      out.println("# Synonym file for authority records, exported from the project: \"GndAuthorityRecords\".");
-      out.println("# see: https://github.com/HeBIS-VZ/GndAuthorityRecords");
-      out.println("# Format:");
-      out.println("# Id of the authority record = <preferred notation>" + seperator + "<1st synonym>" + seperator + "..." + seperator + "<last synonym>");
-      out.println("# ");
+      SynonymFileFormat.printFileHeader(out, seperator);
    }
 
    /**
@@ -130,16 +127,7 @@ public class AutorityRecordFileWriter extends AutorityRecordSolrFinder {
     * @param entry The data to write
     */
    private void printOut(AuthorityBean entry) {
-      StringBuilder line = new StringBuilder(entry.id);
-      line.append(" = ");
-      line.append(entry.preferred);
-      if (entry.synonyms != null) {
-         for (String synonym : entry.synonyms) {
-            line.append(seperator);
-            line.append(synonym.replace("", "").replace("", ""));
-         }
-      }
-      out.println(line.toString());
+      out.println(SynonymFileFormat.formatLine(entry.id, entry.preferred, entry.synonyms, seperator));
       count++;
    }
 
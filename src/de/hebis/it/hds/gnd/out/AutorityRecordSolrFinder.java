@@ -18,8 +18,7 @@
 package de.hebis.it.hds.gnd.out;
 
 import java.io.IOException;
-import java.util.HashMap;
-import java.util.Map;
+import java.util.concurrent.TimeUnit;
 
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
@@ -37,11 +36,14 @@ import org.apache.solr.common.util.NamedList;
  * 
  * @author Uwe Reh (uh), HeBIS-IT
  * @version 2017-06-02 uh initial version
+ * @version 2026-10-17 uh bounded cache, no lock while waiting for solr
+ * @version 2026-10-18 uh the cache is private, subclasses use {@link #getGndCache()}
  */
 public class AutorityRecordSolrFinder extends AutorityRecordFinder {
    private static final Logger          LOG                  = LogManager.getLogger(AutorityRecordSolrFinder.class);
    protected SolrClient                 server               = null;
-   protected Map<String, AuthorityBean> gndCache             = new HashMap<>();
+   private final AuthorityCache         gndCache             = new AuthorityCache(Integer.valueOf(config.getProperty("CacheSize", "100000")),
+         Long.valueOf(config.getProperty("CacheTtlSeconds", "0")), TimeUnit.SECONDS);
    private DocumentObjectBinder         documentObjectBinder = new DocumentObjectBinder();
 
    /**
@@ -74,7 +76,7 @@ public class AutorityRecordSolrFinder extends AutorityRecordFinder {
 
    /**
     * Get GND data for the given id<br>
-    * This function uses the internal cache {@link #getAuthorityBean(String, boolean) to avoid network traffic
+    * This function uses the internal cache {@link #getAuthorityBean(String, boolean)} to avoid network traffic
     * 
     * @param recordId The complete Id mostly prefixed with a ISIL. Eg. '(DE-588)' for the GND
     * @return a authority bean representing the authority record or null if the id is unknown.
@@ -90,30 +92,30 @@ public class AutorityRecordSolrFinder extends AutorityRecordFinder {
     * This function may use the internal cache to avoid network traffic
     * 
     * @param recordId The complete Id mostly prefixed with a ISIL. Eg. '(DE-588)' for the GND
-    * @param ignoreCache If TRUE the internal cache (HashMap) won't be used. This ensures to receive the newest version but will slow down the indexing process.
+    * @param ignoreCache If TRUE the record is read from solr, even if it is cached. This ensures to receive the newest version but will slow down the
+    *           indexing process. The cache is updated with the result.
     * @return a authority bean representing the authority record or null if the id is unknown.
     * @throws AuthorityRecordException Indicates a problem while retrieving data from repository
     */
    public AuthorityBean getAuthorityBean(String recordId, boolean ignoreCache) throws AuthorityRecordException {
       if (server == null) return null;
       if (recordId == null) throw new NullPointerException("The id is mandatory");
-      AuthorityBean ret;
-      synchronized (gndCache) {
-         ret = gndCache.get(recordId);
-         if (ret != null) {
-            return ret;
-         }
-         ret = doRealTimeGet(recordId);
-         gndCache.put(recordId, ret);
-      }
-      return ret;
+      if (ignoreCache) return gndCache.reload(recordId, this::doRealTimeGet);
+      return gndCache.get(recordId, this::doRealTimeGet);
    }
 
    /**
     * Clears the internal cache
     */
    public void flushGndCache() {
-      gndCache = new HashMap<>();
+      gndCache.invalidateAll();
+   }
+
+   /**
+    * @return The internal cache, e.g. to get the statistics
+    */
+   public AuthorityCache getGndCache() {
+      return gndCache;
    }
 
    /**
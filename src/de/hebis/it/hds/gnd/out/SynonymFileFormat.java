@@ -0,0 +1,71 @@
+/*
+ * Copyright 2016, 2017 by HeBIS (www.hebis.de).
+ * 
+ * This file is part of HeBIS project Gnd4Index.
+ *
+ * This is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or any later version.
+ *
+ * This code is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with the code.  If not, see http://www.gnu.org/licenses/agpl>.
+ */
+package de.hebis.it.hds.gnd.out;
+
+import java.io.PrintWriter;
+
+/**
+ * Format of the synonym file. Shared by the export from the repository ({@link AutorityRecordFileWriter}) and the direct output while importing.
+ * <br>
+ * The lines of the file are defined as "&lt;ID&gt; = &lt;preferred&gt;(&lt;seperator&gt;&lt;synonym&gt;)*"
+ * 
+ * @author Uwe Reh (uh), HeBIS-IT
+ * @version 2026-10-17 uh extracted from AutorityRecordFileWriter
+ */
+public final class SynonymFileFormat {
+
+   private SynonymFileFormat() {
+      // only static helpers
+   }
+
+   /**
+    * Write a header with short explanation to the file
+    * 
+    * @param out The destination
+    * @param seperator The seperator between the names
+    */
+   public static void printFileHeader(PrintWriter out, String seperator) {
+      out.println("# Synonym file for authority records, exported from the project: \"GndAuthorityRecords\".");
+      out.println("# see: https://github.com/HeBIS-VZ/GndAuthorityRecords");
+      out.println("# Format:");
+      out.println("# Id of the authority record = <preferred notation>" + seperator + "<1st synonym>" + seperator + "..." + seperator + "<last synonym>");
+      out.println("# ");
+   }
+
+   /**
+    * Build the line for one authority record
+    * 
+    * @param id The id of the authority record
+    * @param preferred The preferred notation
+    * @param synonyms The synonyms or NULL
+    * @param seperator The seperator between the names
+    * @return The line to write (without line break)
+    */
+   public static String formatLine(String id, String preferred, Iterable<?> synonyms, String seperator) {
+      StringBuilder line = new StringBuilder(id);
+      line.append(" = ");
+      line.append(preferred);
+      if (synonyms != null) {
+         for (Object synonym : synonyms) {
+            line.append(seperator);
+            line.append(((String) synonym).replace("\u0098", "").replace("\u009C", ""));
+         }
+      }
+      return line.toString();
+   }
+}
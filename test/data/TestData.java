@@ -27,6 +27,10 @@ public class TestData {
       return url2uri(TestData.class.getResource("oaiUpdate.xml"));
    }
 
+   public static URI getURI4DeletedUpdateData() {
+      return url2uri(TestData.class.getResource("oaiDeleted.xml"));
+   }
+
    public static URI getURI4Redirect() {
       return url2uri(TestData.class.getResource("umlenk.mrc.xml"));
    }
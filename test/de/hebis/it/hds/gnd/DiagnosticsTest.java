@@ -0,0 +1,83 @@
+/*
+ * Copyright 2016, 2017 by HeBIS (www.hebis.de).
+ * 
+ * This file is part of HeBIS project Gnd4Index.
+ *
+ * This is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or any later version.
+ *
+ * This code is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with the code.  If not, see http://www.gnu.org/licenses/agpl>.
+ */
+package de.hebis.it.hds.gnd;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Test for {@link Diagnostics}
+ *
+ * @author Uwe Reh (uh), HeBIS-IT
+ * @version 2026-10-17 uh initial
+ */
+public class DiagnosticsTest {
+
+   /**
+    * Start without counts
+    */
+   @Before
+   public void reset() {
+      Diagnostics.reset();
+   }
+
+   /**
+    * The warnings are counted per type and tag, with a limited number of examples.
+    */
+   @Test
+   public void countPerTypeAndTag() {
+      for (int i = 0; i < 10; i++) {
+         Diagnostics.report("No rule", 24, "PPN: " + i);
+      }
+      Diagnostics.report("No rule", "670", "PPN: 99");
+      Diagnostics.report("Unusable record", -1, null);
+      assertEquals(10, Diagnostics.getCount("No rule", 24));
+      assertEquals(1, Diagnostics.getCount("No rule", 670));
+      assertEquals(1, Diagnostics.getCount("Unusable record", -1));
+      assertEquals(0, Diagnostics.getCount("Unknown", 24));
+      String summary = Diagnostics.getSummary();
+      assertTrue("Only the first ids are examples: " + summary, summary.contains("No rule [024]: 10 e.g. [PPN: 0, PPN: 1, PPN: 2, PPN: 3, PPN: 4]"));
+      assertTrue(summary.contains("No rule [670]: 1 e.g. [PPN: 99]"));
+      assertTrue(summary.contains("Unusable record: 1 e.g. []"));
+   }
+
+   /**
+    * Concurrent reports shouldn't get lost
+    * 
+    * @throws InterruptedException
+    */
+   @Test
+   public void concurrent() throws InterruptedException {
+      Thread[] threads = new Thread[4];
+      for (int t = 0; t < threads.length; t++) {
+         threads[t] = new Thread(() -> {
+            for (int i = 0; i < 10000; i++) {
+               Diagnostics.report("Concurrent", i % 3, "id");
+            }
+         });
+         threads[t].start();
+      }
+      for (Thread thread : threads) {
+         thread.join();
+      }
+      assertEquals(40000, Diagnostics.getCount("Concurrent", 0) + Diagnostics.getCount("Concurrent", 1) + Diagnostics.getCount("Concurrent", 2));
+   }
+}
@@ -0,0 +1,153 @@
+/*
+ * Copyright 2016, 2017 by HeBIS (www.hebis.de).
+ * 
+ * This file is part of HeBIS project Gnd4Index.
+ *
+ * This is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or any later version.
+ *
+ * This code is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with the code.  If not, see http://www.gnu.org/licenses/agpl>.
+ */
+package de.hebis.it.hds.gnd;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.lang.management.ManagementFactory;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.List;
+
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import data.TestData;
+import de.hebis.it.hds.gnd.in.MarcXmlParser;
+import de.hebis.it.hds.gnd.in.sink.NullSink;
+
+/**
+ * Test for {@link ImportMetrics}
+ *
+ * @author Uwe Reh (uh), HeBIS-IT
+ * @version 2026-10-17 uh initial
+ */
+public class ImportMetricsTest {
+   private final ImportMetrics metrics = ImportMetrics.getInstance();
+
+   /**
+    * Start without values
+    */
+   @Before
+   public void reset() {
+      metrics.reset();
+   }
+
+   /**
+    * The percentiles are the upper bounds of the buckets, but never more than the maximum.
+    */
+   @Test
+   public void histogram() {
+      ImportMetrics.Histogram histogram = new ImportMetrics.Histogram();
+      assertEquals(0, histogram.getPercentile(0.99));
+      for (int i = 0; i < 99; i++) {
+         histogram.add(1000);
+      }
+      histogram.add(1000000);
+      assertEquals(100, histogram.getCount());
+      assertEquals("1000 is in the bucket 512..1023", 1023, histogram.getPercentile(0.5));
+      assertEquals(1023, histogram.getPercentile(0.99));
+      assertEquals("The maximum", 1000000, histogram.getPercentile(1));
+      assertEquals(10990, histogram.getMean(), 0.001);
+      histogram.reset();
+      assertEquals(0, histogram.getCount());
+   }
+
+   /**
+    * The parser reports the bytes, the records and the time per tag.
+    * 
+    * @throws IOException
+    */
+   @Test
+   public void parsing() throws IOException {
+      long size = Files.size(Paths.get(TestData.getURI4Person()));
+      try (InputStream in = ImportMetrics.meter(Files.newInputStream(Paths.get(TestData.getURI4Person())))) {
+         int count = new MarcXmlParser(new NullSink()).parseStream(in);
+         assertEquals(count, metrics.getRecordsParsed());
+      }
+      assertEquals("All bytes should be counted", size, metrics.getBytesRead());
+      assertTrue("The names of the persons are evaluated", metrics.getTagHandlerCalls(100) > 0);
+      assertTrue(metrics.getParseTimeP99Micros() >= metrics.getParseTimeP50Micros());
+      String[] tags = metrics.getTagHandlerTimes();
+      assertTrue(tags.length > 1);
+      assertTrue("Expect tags and calls: " + tags[0], tags[0].matches("\\d{3}: \\d+ calls, .*"));
+   }
+
+   /**
+    * The values are readable via JMX
+    * 
+    * @throws JMException
+    */
+   @Test
+   public void mbean() throws JMException {
+      ImportMetrics.register();
+      ImportMetrics.register(); // no error if already registered
+      ImportMetrics.solrRequest(2000000, true);
+      ImportMetrics.solrRequest(4000000, false);
+      ImportMetrics.watchSinkQueue(() -> 3);
+      MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+      ObjectName name = new ObjectName(ImportMetrics.OBJECT_NAME);
+      assertEquals(2L, server.getAttribute(name, "SolrRequests"));
+      assertEquals(1L, server.getAttribute(name, "SolrErrors"));
+      assertEquals(3, server.getAttribute(name, "SinkQueueDepth"));
+      assertEquals(3.0, (Double) server.getAttribute(name, "SolrLatencyMeanMillis"), 0.001);
+      ImportMetrics.watchSinkQueue(null);
+      assertEquals(0, server.getAttribute(name, "SinkQueueDepth"));
+   }
+
+   /**
+    * The CSV file gets a header and one line per interval, plus a final line.
+    * 
+    * @throws IOException
+    * @throws InterruptedException
+    */
+   @Test
+   public void csvDump() throws IOException, InterruptedException {
+      Path file = Files.createTempFile("ImportMetricsTest", ".csv");
+      try {
+         ImportMetrics.startCsvDump(file, 50);
+         ImportMetrics.recordGrouped();
+         Thread.sleep(200);
+         ImportMetrics.stopCsvDump();
+         List<String> lines = Files.readAllLines(file, StandardCharsets.UTF_8);
+         assertTrue("Header and at least two lines expected: " + lines, lines.size() >= 3);
+         assertTrue(lines.get(0).startsWith("time;bytesRead;"));
+         int columns = lines.get(0).split(";").length;
+         for (String line : lines) {
+            assertEquals(line, columns, line.split(";").length);
+         }
+         assertEquals("1", lines.get(lines.size() - 1).split(";")[3]);
+         ImportMetrics.startCsvDump(file, 1000);
+         ImportMetrics.stopCsvDump();
+         List<String> appended = Files.readAllLines(file, StandardCharsets.UTF_8);
+         assertEquals("The header is written only once", lines.size() + 1, appended.size());
+      }
+      finally {
+         Files.deleteIfExists(file);
+      }
+   }
+}
@@ -21,6 +21,7 @@ import org.junit.runner.RunWith;
 import org.junit.runners.Suite;
 import org.junit.runners.Suite.SuiteClasses;
 
+import de.hebis.it.hds.gnd.in.sink.AllSinkTests;
 import de.hebis.it.hds.gnd.in.subfields.AllSubFieldTests;
 
 /**
@@ -30,7 +31,7 @@ import de.hebis.it.hds.gnd.in.subfields.AllSubFieldTests;
  * @version 31.03.2017 uh initial
  */
 @RunWith(Suite.class)
-@SuiteClasses({ LoaderTest.class, AllSubFieldTests.class })
+@SuiteClasses({ LoaderTest.class, InputFilesTest.class, MarcXmlParserTest.class, OaiHarvesterTest.class, MarcXmlFileSplitterTest.class, ImportCheckpointTest.class, ImportSchedulerTest.class, BlockingWorkerPoolTest.class, ReadAheadInputStreamTest.class, AllSinkTests.class, AllSubFieldTests.class })
 public class AllImportTests {
 
 }
@@ -0,0 +1,116 @@
+/*
+ * Copyright 2016, 2017 by HeBIS (www.hebis.de).
+ * 
+ * This file is part of HeBIS project Gnd4Index.
+ *
+ * This is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or any later version.
+ *
+ * This code is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with the code.  If not, see http://www.gnu.org/licenses/agpl>.
+ */
+package de.hebis.it.hds.gnd.in;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Test;
+
+/**
+ * Test for {@link BlockingWorkerPool}
+ *
+ * @author Uwe Reh (uh), HeBIS-IT
+ * @version 2026-10-18 uh initial
+ * @version 2026-10-18 uh groups of tasks in a shared pool
+ */
+public class BlockingWorkerPoolTest {
+
+   /**
+    * The producer should wait exactly until a worker is free, not a fixed time.
+    */
+   @Test
+   public void backPressure() {
+      BlockingWorkerPool pool = new BlockingWorkerPool("TestPool", 1, 2);
+      AtomicInteger done = new AtomicInteger();
+      long start = System.nanoTime();
+      for (int i = 0; i < 200; i++) {
+         pool.execute(() -> {
+            try {
+               Thread.sleep(1);
+            }
+            catch (InterruptedException e) {
+               Thread.currentThread().interrupt();
+            }
+            done.incrementAndGet();
+         });
+      }
+      pool.shutdownAndWait();
+      assertEquals("All tasks should be done.", 200, done.get());
+      long millis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+      assertTrue("The queue was full most of the time, but no delay is expected: " + millis + " ms", millis < 1500);
+   }
+
+   /**
+    * Failing tasks should be counted and don't stop the pool.
+    *
+    * @throws InterruptedException not expected
+    */
+   @Test
+   public void failures() throws InterruptedException {
+      BlockingWorkerPool pool = new BlockingWorkerPool("TestPool", 2, 1);
+      CountDownLatch done = new CountDownLatch(1);
+      pool.execute(() -> {
+         throw new IllegalStateException("broken record");
+      });
+      pool.execute(done::countDown);
+      assertTrue("The worker should survive the failure.", done.await(5, TimeUnit.SECONDS));
+      pool.shutdownAndWait();
+      assertEquals("One failure is expected.", 1, pool.getFailures());
+   }
+
+   /**
+    * A group waits only for its own tasks, the other group may still be running.
+    *
+    * @throws InterruptedException not expected
+    */
+   @Test(timeout = 10000)
+   public void groups() throws InterruptedException {
+      BlockingWorkerPool pool = new BlockingWorkerPool("TestPool", 4, 2);
+      CountDownLatch release = new CountDownLatch(1);
+      BlockingWorkerPool.Group slow = pool.newGroup();
+      slow.execute(() -> {
+         try {
+            release.await();
+         }
+         catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+         }
+      });
+      BlockingWorkerPool.Group fast = pool.newGroup();
+      AtomicInteger done = new AtomicInteger();
+      for (int i = 0; i < 20; i++) {
+         fast.execute(done::incrementAndGet);
+      }
+      fast.execute(() -> {
+         throw new IllegalStateException("broken record");
+      });
+      fast.await();
+      assertEquals("All tasks of the group should be done.", 20, done.get());
+      assertEquals("The failure belongs to the group.", 1, fast.getFailures());
+      assertEquals(0, slow.getFailures());
+      release.countDown();
+      slow.await();
+      pool.shutdownAndWait();
+      assertEquals("The pool counts all failures.", 1, pool.getFailures());
+   }
+}
@@ -0,0 +1,80 @@
+/*
+ * Copyright 2016, 2017 by HeBIS (www.hebis.de).
+ * 
+ * This file is part of HeBIS project Gnd4Index.
+ *
+ * This is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or any later version.
+ *
+ * This code is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with the code.  If not, see http://www.gnu.org/licenses/agpl>.
+ */
+package de.hebis.it.hds.gnd.in;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+
+import org.junit.Test;
+
+import data.TestData;
+import de.hebis.it.hds.gnd.in.sink.NullSink;
+
+/**
+ * Test for {@link ImportCheckpoint}
+ *
+ * @author Uwe Reh (uh), HeBIS-IT
+ * @version 2026-10-17 uh initial
+ */
+public class ImportCheckpointTest {
+
+   /**
+    * The checkpoint moves only over contiguous finished ranges
+    * 
+    * @throws IOException
+    */
+   @Test
+   public void watermark() throws IOException {
+      Path dir = Files.createTempDirectory("ImportCheckpointTest");
+      Path input = dir.resolve("Tf.mrc.xml");
+      Files.copy(Paths.get(TestData.getURI4Conference()), input, StandardCopyOption.REPLACE_EXISTING);
+      try (MarcXmlFileSplitter splitter = new MarcXmlFileSplitter(input)) {
+         List<MarcXmlFileSplitter.Range> ranges = splitter.split(0, splitter.size() / 4);
+         assertTrue("Several ranges are expected", ranges.size() > 2);
+         ImportCheckpoint checkpoint = new ImportCheckpoint(input, null);
+         assertEquals("No checkpoint yet", 0, checkpoint.readOffset());
+         checkpoint.start(ranges);
+         checkpoint.done(ranges.get(1), new NullSink());
+         assertEquals("The first range is still in work", 0, checkpoint.readOffset());
+         checkpoint.done(ranges.get(0), new NullSink());
+         assertEquals("Both ranges are done", ranges.get(1).end, checkpoint.readOffset());
+         assertFalse(checkpoint.isComplete());
+         // a new run starts at the checkpoint
+         ImportCheckpoint resumed = new ImportCheckpoint(input, null);
+         assertEquals(ranges.get(2).start, resumed.readOffset());
+         // a changed input invalidates the checkpoint
+         Files.write(input, new byte[] { '\n' }, StandardOpenOption.APPEND);
+         assertEquals("The input is changed", 0, resumed.readOffset());
+         checkpoint.delete();
+         assertFalse(Files.exists(checkpoint.getStateFile()));
+      }
+      finally {
+         Files.deleteIfExists(input);
+         Files.deleteIfExists(dir);
+      }
+   }
+}
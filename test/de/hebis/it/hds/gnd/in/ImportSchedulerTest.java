@@ -0,0 +1,82 @@
+/*
+ * Copyright 2016, 2017 by HeBIS (www.hebis.de).
+ * 
+ * This file is part of HeBIS project Gnd4Index.
+ *
+ * This is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or any later version.
+ *
+ * This code is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with the code.  If not, see http://www.gnu.org/licenses/agpl>.
+ */
+package de.hebis.it.hds.gnd.in;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Test;
+
+import data.TestData;
+
+/**
+ * Test for {@link ImportScheduler}
+ *
+ * @author Uwe Reh (uh), HeBIS-IT
+ * @version 2026-10-17 uh initial
+ */
+public class ImportSchedulerTest {
+   private static final Path redirects = Paths.get(TestData.getURI4Redirect());
+   private static final Path big       = Paths.get(TestData.getURI4IndividulizedPerson());
+   private static final Path other     = Paths.get(TestData.getURI4Term());
+
+   /**
+    * The biggest file should start first, the smaller ones while it is still running.
+    */
+   @Test
+   public void biggestFirst() {
+      CountDownLatch othersDone = new CountDownLatch(2);
+      ImportScheduler scheduler = new ImportScheduler(2);
+      List<String> results = scheduler.run(Arrays.asList(redirects, big, other), file -> {
+         if (file.equals(big)) {
+            try { // runs until the other files are done
+               assertTrue("The other files should run concurrently", othersDone.await(10, TimeUnit.SECONDS));
+            }
+            catch (InterruptedException e) {
+               throw new RuntimeException(e);
+            }
+         }
+         else othersDone.countDown();
+         return file.getFileName().toString();
+      });
+      assertEquals("The biggest file is started first", "Tp.mrc.xml", results.get(0));
+      assertEquals(3, results.size());
+      assertTrue(scheduler.getFailed().isEmpty());
+   }
+
+   /**
+    * A failure should not stop the other files.
+    */
+   @Test
+   public void failure() {
+      ImportScheduler scheduler = new ImportScheduler(2);
+      List<Path> results = scheduler.run(Arrays.asList(redirects, big, other), file -> {
+         if (file.equals(other)) throw new RuntimeException("Test");
+         return file;
+      });
+      assertEquals(2, results.size());
+      assertEquals(Arrays.asList(other), scheduler.getFailed());
+   }
+}
@@ -0,0 +1,131 @@
+/*
+ * Copyright 2016, 2017 by HeBIS (www.hebis.de).
+ * 
+ * This file is part of HeBIS project Gnd4Index.
+ *
+ * This is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or any later version.
+ *
+ * This code is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with the code.  If not, see http://www.gnu.org/licenses/agpl>.
+ */
+package de.hebis.it.hds.gnd.in;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.zip.GZIPOutputStream;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+import org.apache.commons.compress.compressors.bzip2.BZip2CompressorOutputStream;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import data.TestData;
+
+/**
+ * Test for {@link InputFiles}
+ *
+ * @author Uwe Reh (uh), HeBIS-IT
+ * @version 2026-10-17 uh initial
+ */
+public class InputFilesTest {
+   private static byte[] plain = null;
+
+   /**
+    * Read the uncompressed test data
+    * 
+    * @throws IOException
+    */
+   @BeforeClass
+   public static void init() throws IOException {
+      plain = Files.readAllBytes(Paths.get(TestData.getURI4IndividulizedPerson()));
+   }
+
+   /**
+    * Plain files are read as they are
+    * 
+    * @throws IOException
+    */
+   @Test
+   public void plainFile() throws IOException {
+      Path path = Paths.get(TestData.getURI4IndividulizedPerson());
+      assertFalse("Plain XML isn't compressed", InputFiles.isCompressed(path));
+      assertArrayEquals("The content should be unchanged", plain, readAll(path));
+   }
+
+   /**
+    * gzip compressed files
+    * 
+    * @throws IOException
+    */
+   @Test
+   public void gzipFile() throws IOException {
+      Path path = Files.createTempFile("Tp", ".mrc.xml.gz");
+      try (OutputStream out = new GZIPOutputStream(Files.newOutputStream(path))) {
+         out.write(plain);
+      }
+      assertTrue("*.gz is compressed", InputFiles.isCompressed(path));
+      assertArrayEquals("The content should be decompressed", plain, readAll(path));
+      Files.delete(path);
+   }
+
+   /**
+    * bzip2 compressed files
+    * 
+    * @throws IOException
+    */
+   @Test
+   public void bzip2File() throws IOException {
+      Path path = Files.createTempFile("Tp", ".mrc.xml.bz2");
+      try (OutputStream out = new BZip2CompressorOutputStream(Files.newOutputStream(path))) {
+         out.write(plain);
+      }
+      assertArrayEquals("The content should be decompressed", plain, readAll(path));
+      Files.delete(path);
+   }
+
+   /**
+    * zip archives
+    * 
+    * @throws IOException
+    */
+   @Test
+   public void zipFile() throws IOException {
+      Path path = Files.createTempFile("Tp", ".zip");
+      try (ZipOutputStream out = new ZipOutputStream(Files.newOutputStream(path))) {
+         out.putNextEntry(new ZipEntry("Tp.mrc.xml"));
+         out.write(plain);
+         out.closeEntry();
+      }
+      assertArrayEquals("The first entry should be decompressed", plain, readAll(path));
+      Files.delete(path);
+   }
+
+   private static byte[] readAll(Path path) throws IOException {
+      ByteArrayOutputStream ret = new ByteArrayOutputStream();
+      try (InputStream in = InputFiles.open(path)) {
+         byte[] buffer = new byte[1000];
+         int count;
+         while ((count = in.read(buffer)) >= 0) {
+            ret.write(buffer, 0, count);
+         }
+      }
+      return ret.toByteArray();
+   }
+}
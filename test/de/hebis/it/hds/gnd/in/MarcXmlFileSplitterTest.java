@@ -0,0 +1,158 @@
+/*
+ * Copyright 2016, 2017 by HeBIS (www.hebis.de).
+ * 
+ * This file is part of HeBIS project Gnd4Index.
+ *
+ * This is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or any later version.
+ *
+ * This code is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with the code.  If not, see http://www.gnu.org/licenses/agpl>.
+ */
+package de.hebis.it.hds.gnd.in;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.List;
+
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+
+import org.junit.Test;
+
+import data.TestData;
+
+/**
+ * Test for {@link MarcXmlFileSplitter}
+ *
+ * @author Uwe Reh (uh), HeBIS-IT
+ * @version 2026-10-17 uh initial
+ * @version 2026-10-18 uh record tags without attributes or with a namespace prefix
+ */
+public class MarcXmlFileSplitterTest {
+   private static final XMLInputFactory srf = XMLInputFactory.newInstance();
+
+   /**
+    * Each range has to be a well formed collection and no record may get lost.
+    * 
+    * @throws IOException
+    * @throws XMLStreamException
+    */
+   @Test
+   public void splitIntoWellFormedRanges() throws IOException, XMLStreamException {
+      Path path = Paths.get(TestData.getURI4Conference());
+      try (MarcXmlFileSplitter splitter = new MarcXmlFileSplitter(path)) {
+         int expected = countRecords(splitter, splitter.split(1));
+         assertEquals("Tf.mrc.xml contains 20 records", 20, expected);
+         List<MarcXmlFileSplitter.Range> ranges = splitter.split(4);
+         assertEquals("4 ranges are expected", 4, ranges.size());
+         for (int i = 1; i < ranges.size(); i++) {
+            assertEquals("The ranges have to be contiguous", ranges.get(i - 1).end, ranges.get(i).start);
+         }
+         assertEquals("All records should be found in the ranges", expected, countRecords(splitter, ranges));
+      }
+   }
+
+   /**
+    * A small file can't be split in more ranges than records
+    * 
+    * @throws IOException
+    * @throws XMLStreamException
+    */
+   @Test
+   public void moreRangesThanRecords() throws IOException, XMLStreamException {
+      Path path = Paths.get(TestData.getURI4IndividulizedPerson());
+      try (MarcXmlFileSplitter splitter = new MarcXmlFileSplitter(path)) {
+         List<MarcXmlFileSplitter.Range> ranges = splitter.split(100);
+         assertTrue("Not more ranges than records", ranges.size() <= 8);
+         assertEquals("All records should be found in the ranges", 8, countRecords(splitter, ranges));
+      }
+   }
+
+   /**
+    * Resume behind the first ranges. The records before the offset have to be skipped.
+    * 
+    * @throws IOException
+    * @throws XMLStreamException
+    */
+   @Test
+   public void splitBehindOffset() throws IOException, XMLStreamException {
+      Path path = Paths.get(TestData.getURI4Conference());
+      try (MarcXmlFileSplitter splitter = new MarcXmlFileSplitter(path)) {
+         List<MarcXmlFileSplitter.Range> all = splitter.split(0, splitter.size() / 5);
+         assertTrue("Several ranges are expected", all.size() > 2);
+         assertEquals("All records should be found in the ranges", 20, countRecords(splitter, all));
+         long offset = all.get(2).start;
+         int skipped = countRecords(splitter, all.subList(0, 2));
+         List<MarcXmlFileSplitter.Range> rest = splitter.split(offset, splitter.size() / 5);
+         assertEquals("The first range should start at the offset", offset, rest.get(0).start);
+         assertEquals("The records before the offset should be skipped", 20 - skipped, countRecords(splitter, rest));
+         assertTrue("Nothing left at the end of the file", splitter.split(splitter.size(), 1000).isEmpty());
+      }
+   }
+
+   /**
+    * Record tags without attributes or with a namespace prefix are found too.
+    * 
+    * @throws IOException
+    * @throws XMLStreamException
+    */
+   @Test
+   public void unusualRecordTags() throws IOException, XMLStreamException {
+      assertEquals(3, splitSample("<collection>", "<record>", "</record>", "</collection>"));
+      assertEquals(3, splitSample("<marc:collection xmlns:marc=\"http://www.loc.gov/MARC21/slim\">", "<marc:record type=\"Authority\">", "</marc:record>",
+            "</marc:collection>"));
+   }
+
+   /**
+    * Split a sample of 6 records into 3 ranges
+    * 
+    * @return The number of ranges
+    */
+   private static int splitSample(String collectionStart, String recordStart, String recordEnd, String collectionEnd) throws IOException, XMLStreamException {
+      StringBuilder sample = new StringBuilder("<?xml version=\"1.0\" encoding=\"UTF-8\"?>\n").append(collectionStart).append('\n');
+      for (int i = 0; i < 6; i++) {
+         sample.append(recordStart).append("<recordNote>").append(i).append("</recordNote>").append(recordEnd).append('\n');
+      }
+      sample.append(collectionEnd).append('\n');
+      Path path = Files.createTempFile("MarcXmlFileSplitterTest", ".xml");
+      Files.write(path, sample.toString().getBytes(StandardCharsets.UTF_8));
+      try (MarcXmlFileSplitter splitter = new MarcXmlFileSplitter(path)) {
+         List<MarcXmlFileSplitter.Range> ranges = splitter.split(3);
+         assertEquals("All records should be found in the ranges", 6, countRecords(splitter, ranges));
+         return ranges.size();
+      }
+      finally {
+         Files.delete(path);
+      }
+   }
+
+   private static int countRecords(MarcXmlFileSplitter splitter, List<MarcXmlFileSplitter.Range> ranges) throws IOException, XMLStreamException {
+      int count = 0;
+      for (MarcXmlFileSplitter.Range range : ranges) {
+         try (InputStream in = splitter.open(range)) {
+            XMLStreamReader reader = srf.createXMLStreamReader(in, "UTF-8");
+            while (reader.hasNext()) {
+               if ((reader.next() == XMLStreamConstants.START_ELEMENT) && "record".equals(reader.getLocalName())) count++;
+            }
+            reader.close();
+         }
+      }
+      return count;
+   }
+}
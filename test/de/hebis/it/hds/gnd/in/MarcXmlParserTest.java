@@ -0,0 +1,267 @@
+/*
+ * Copyright 2016, 2017 by HeBIS (www.hebis.de).
+ * 
+ * This file is part of HeBIS project Gnd4Index.
+ *
+ * This is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or any later version.
+ *
+ * This code is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with the code.  If not, see http://www.gnu.org/licenses/agpl>.
+ */
+package de.hebis.it.hds.gnd.in;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
+
+import org.apache.solr.client.solrj.util.ClientUtils;
+import org.apache.solr.common.SolrInputDocument;
+import org.junit.Test;
+
+import data.TestData;
+import de.hebis.it.hds.gnd.Diagnostics;
+import de.hebis.it.hds.gnd.in.sink.AuthoritySink;
+
+/**
+ * Test for {@link MarcXmlParser}
+ *
+ * @author Uwe Reh (uh), HeBIS-IT
+ * @version 2026-10-17 uh initial
+ * @version 2026-10-18 uh streaming and line oriented mode build the same documents
+ * @version 2026-10-18 uh routing of the data fields by the tag
+ * @version 2026-10-18 uh parallel parsing builds the same documents
+ */
+public class MarcXmlParserTest {
+
+   /**
+    * The redirected records (leader position 5 = 'x') should be passed as redirections, not as new records.
+    * 
+    * @throws IOException
+    */
+   @Test
+   public void redirections() throws IOException {
+      CollectingSink sink = new CollectingSink();
+      try (InputStream in = Files.newInputStream(Paths.get(TestData.getURI4Redirect()))) {
+         assertEquals("All records should be read", 34, new MarcXmlParser(sink).parseStream(in));
+      }
+      assertEquals("No new records expected", 0, sink.added.size());
+      assertEquals("No deletions expected, all records have a target", 0, sink.deleted.size());
+      assertEquals("All records are redirections", 34, sink.redirected.size());
+      assertEquals("(DE-588)143804367", sink.redirected.get("(DE-588)100951457"));
+      for (String target : sink.redirected.values()) {
+         assertTrue("Only gnd ids are expected as target: " + target, target.startsWith("(DE-588)"));
+      }
+   }
+
+   /**
+    * Deleted records and redirections without a target are deleted, normal records are added.
+    */
+   @Test
+   public void deletions() {
+      CollectingSink sink = new CollectingSink();
+      MarcXmlParser parser = new MarcXmlParser(sink);
+      parser.apply(asLines(record("d", "1", null)));
+      parser.apply(asLines(record("x", "2", null)));
+      parser.apply(asLines(record("x", "3", "(DE-588)4")));
+      parser.apply(asLines(record("n", "5", null)));
+      assertEquals("[(DE-588)1, (DE-588)2]", sink.deleted.toString());
+      assertEquals("{(DE-588)3=(DE-588)4}", sink.redirected.toString());
+      assertEquals("Only the normal record should be added", 1, sink.added.size());
+      assertEquals("(DE-588)5", sink.added.get(0).getFieldValue("id"));
+   }
+
+   /**
+    * The streaming mode and the line oriented mode should build the same documents, field 'fullrecord' included. The records of the OAI response
+    * declare the marc namespace in the record tag.
+    * 
+    * @throws IOException
+    */
+   @Test
+   public void streamEqualsLines() throws IOException {
+      for (URI fixture : Arrays.asList(TestData.getURI4Person(), TestData.getURI4Geographic(), TestData.getURI4UpdateData())) {
+         CollectingSink fromLines = new CollectingSink();
+         MarcXmlParser parser = new MarcXmlParser(fromLines);
+         for (List<String> lines : records(Paths.get(fixture))) {
+            parser.apply(lines);
+         }
+         CollectingSink fromStream = new CollectingSink();
+         try (InputStream in = Files.newInputStream(Paths.get(fixture))) {
+            new MarcXmlParser(fromStream).parseStream(in);
+         }
+         assertTrue("Records expected in " + fixture, !fromLines.added.isEmpty());
+         assertEquals(fromLines.added.size(), fromStream.added.size());
+         for (int i = 0; i < fromLines.added.size(); i++) {
+            assertEquals(ClientUtils.toXML(fromLines.added.get(i)), ClientUtils.toXML(fromStream.added.get(i)));
+         }
+      }
+   }
+
+   /**
+    * Several workers sharing one parser (see Loader 'ParserThreads') should build the same documents as a single thread.
+    * 
+    * @throws IOException
+    */
+   @Test
+   public void parallelEqualsSequential() throws IOException {
+      List<List<String>> records = new ArrayList<>();
+      try (DirectoryStream<Path> files = Files.newDirectoryStream(Paths.get(TestData.getURI4Person()).getParent(), "*.mrc.xml")) {
+         for (Path file : files) {
+            records.addAll(records(file));
+         }
+      }
+      CollectingSink sequential = new CollectingSink();
+      MarcXmlParser parser = new MarcXmlParser(sequential);
+      for (List<String> lines : records) {
+         parser.apply(lines);
+      }
+      CollectingSink parallel = new CollectingSink();
+      MarcXmlParser sharedParser = new MarcXmlParser(parallel);
+      BlockingWorkerPool workers = new BlockingWorkerPool("TestParser", 16, 4);
+      for (List<String> lines : records) {
+         workers.execute(() -> sharedParser.apply(lines));
+      }
+      workers.shutdownAndWait();
+      assertEquals("No worker should fail", 0, workers.getFailures());
+      assertEquals("All records should be processed", records.size(), sequential.added.size() + sequential.deleted.size() + sequential.redirected.size());
+      assertEquals(asSortedXml(sequential.added), asSortedXml(parallel.added));
+      assertEquals(new TreeSet<>(sequential.deleted), new TreeSet<>(parallel.deleted));
+      assertEquals(sequential.redirected, parallel.redirected);
+   }
+
+   private static List<String> asSortedXml(List<SolrInputDocument> docs) {
+      List<String> ret = new ArrayList<>(docs.size());
+      for (SolrInputDocument doc : docs) {
+         ret.add(ClientUtils.toXML(doc));
+      }
+      Collections.sort(ret);
+      return ret;
+   }
+
+   /**
+    * Group the lines of a file to records, like the Loader does.
+    */
+   private static List<List<String>> records(Path file) throws IOException {
+      List<List<String>> ret = new ArrayList<>();
+      List<String> lines = null;
+      for (String line : Files.readAllLines(file, StandardCharsets.UTF_8)) {
+         if (line.matches(".*<record[^>].*")) lines = new ArrayList<>();
+         if (lines == null) continue;
+         lines.add(line);
+         if (line.contains("</record")) {
+            ret.add(lines);
+            lines = null;
+         }
+      }
+      return ret;
+   }
+
+   /**
+    * The data fields are routed by their tag: known but unused fields add nothing, unknown fields are counted once, the others reach their
+    * handler.
+    */
+   @Test
+   public void routing() {
+      CollectingSink sink = new CollectingSink();
+      MarcXmlParser parser = new MarcXmlParser(sink);
+      parser.apply(asLines(record("n", "6", null)));
+      SolrInputDocument plain = sink.added.get(0);
+      long unknown = Diagnostics.getCount("No rule for the data field", 999);
+      String fields = dataField("670", "Ignored source") + dataField("024", "Ignored id") + dataField("999", "Unknown") + dataField("450", "Synonym 6");
+      parser.apply(asLines(record("n", "6", null).replace("</record>", fields + "</record>")));
+      SolrInputDocument routed = sink.added.get(1);
+      assertEquals("The unknown field should be counted once", unknown + 1, Diagnostics.getCount("No rule for the data field", 999));
+      for (String fieldName : routed.getFieldNames()) {
+         if (fieldName.equals("fullrecord") || fieldName.equals("synonyms")) continue;
+         assertEquals("Only the handled field should add values: " + fieldName, plain.getFieldValues(fieldName), routed.getFieldValues(fieldName));
+      }
+      assertEquals("The handler of 450 should be called", Arrays.asList("Synonym 6"), new ArrayList<>(routed.getFieldValues("synonyms")));
+      // 682 isn't ignored any more, it has an own handler
+      parser.apply(asLines(record("x", "7", "(DE-588)8")));
+      assertEquals("(DE-588)8", sink.redirected.get("(DE-588)7"));
+   }
+
+   private static String dataField(String tag, String value) {
+      return "<datafield tag=\"" + tag + "\" ind1=\" \" ind2=\" \"><subfield code=\"a\">" + value + "</subfield></datafield>\n";
+   }
+
+   private static String record(String status, String id, String target) {
+      StringBuilder ret = new StringBuilder();
+      ret.append("<record type=\"Authority\">\n");
+      ret.append("<leader>00000" + status + "z  a2200000n  4500</leader>\n");
+      ret.append("<controlfield tag=\"001\">" + id + "</controlfield>\n");
+      ret.append("<datafield tag=\"035\" ind1=\" \" ind2=\" \"><subfield code=\"a\">(DE-588)" + id + "</subfield></datafield>\n");
+      ret.append("<datafield tag=\"150\" ind1=\" \" ind2=\" \"><subfield code=\"a\">Name " + id + "</subfield></datafield>\n");
+      if (target != null) ret.append("<datafield tag=\"682\" ind1=\" \" ind2=\" \"><subfield code=\"0\">" + target + "</subfield></datafield>\n");
+      ret.append("</record>");
+      return ret.toString();
+   }
+
+   private static List<String> asLines(String record) {
+      List<String> ret = new ArrayList<>();
+      for (String line : record.split("\n")) {
+         ret.add(line);
+      }
+      return ret;
+   }
+
+   /**
+    * Remember all calls
+    */
+   private static class CollectingSink implements AuthoritySink {
+      private final List<SolrInputDocument> added      = new ArrayList<>();
+      private final List<String>            deleted    = new ArrayList<>();
+      private final Map<String, String>     redirected = new LinkedHashMap<>();
+
+      @Override
+      public synchronized void add(SolrInputDocument doc) {
+         added.add(doc);
+      }
+
+      @Override
+      public synchronized void delete(String id) {
+         deleted.add(id);
+      }
+
+      @Override
+      public synchronized void deleteByIdn(String idn) {
+         deleted.add("IDN " + idn);
+      }
+
+      @Override
+      public synchronized void redirect(String id, String targetId) {
+         redirected.put(id, targetId);
+      }
+
+      @Override
+      public void flush() {
+         // nothing to do
+      }
+
+      @Override
+      public void close() {
+         // nothing to do
+      }
+   }
+}
@@ -0,0 +1,157 @@
+/*
+ * Copyright 2016, 2017 by HeBIS (www.hebis.de).
+ * 
+ * This file is part of HeBIS project Gnd4Index.
+ *
+ * This is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or any later version.
+ *
+ * This code is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with the code.  If not, see http://www.gnu.org/licenses/agpl>.
+ */
+package de.hebis.it.hds.gnd.in;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.apache.solr.common.SolrInputDocument;
+import org.junit.Test;
+
+import data.TestData;
+import de.hebis.it.hds.gnd.in.sink.NullSink;
+
+/**
+ * Test for {@link OaiHarvester} with the local {@link OaiStandIn}
+ *
+ * @author Uwe Reh (uh), HeBIS-IT
+ * @version 2026-10-17 uh initial
+ * @version 2026-10-18 uh legacy ids, state after the commit
+ */
+public class OaiHarvesterTest {
+
+   /**
+    * Follow the resumption token, apply the deletions and start the next harvest at the newest datestamp.
+    * 
+    * @throws IOException
+    */
+   @Test
+   public void harvestTwoPages() throws IOException {
+      Path stateFile = Files.createTempFile("OaiHarvesterTest", ".state");
+      Files.delete(stateFile); // no previous harvest
+      try (OaiStandIn repository = new OaiStandIn(Arrays.asList(Paths.get(TestData.getURI4UpdateData()), Paths.get(TestData.getURI4DeletedUpdateData())))) {
+         NullSink sink = new NullSink();
+         OaiHarvester harvester = new OaiHarvester(sink, repository.getBaseUrl(), "MARC21-xml", "authorities", stateFile);
+         assertEquals("Four records and one deletion are expected", 5, harvester.harvest("2017-03-16T11:13:46Z"));
+         assertEquals(4, sink.getCount());
+         assertEquals(1, sink.getDeletedCount());
+         assertEquals("Two pages should be requested", 2, repository.getQueries().size());
+         assertEquals("verb=ListRecords&metadataPrefix=MARC21-xml&set=authorities&from=2017-03-16T11%3A13%3A46Z", repository.getQueries().get(0));
+         assertEquals("verb=ListRecords&resumptionToken=1", repository.getQueries().get(1));
+         assertEquals("2017-03-16T11:14:25Z", harvester.getNewestDatestamp());
+         // the next run starts at the saved datestamp
+         new OaiHarvester(new NullSink(), repository.getBaseUrl(), "MARC21-xml", "authorities", stateFile).harvest(null);
+         assertTrue("The saved datestamp should be used", repository.getQueries().get(2).endsWith("&from=2017-03-16T11%3A14%3A25Z"));
+      }
+      finally {
+         Files.deleteIfExists(stateFile);
+      }
+   }
+
+   /**
+    * The local part of the OAI identifier is the IDN, which differs from the id of the older records. The deletion has to meet the IDN of the
+    * added record.
+    * 
+    * @throws IOException
+    */
+   @Test
+   public void deleteLegacyRecord() throws IOException {
+      RecordingSink sink = new RecordingSink();
+      OaiHarvester harvester = new OaiHarvester(sink, "http://localhost/oai", "MARC21-xml", "authorities", null);
+      harvester.processPage(page("<record><header><identifier>oai:dnb.de/authorities/041766180</identifier><datestamp>2017-03-16T11:14:19Z</datestamp></header>"
+            + "<metadata><record xmlns=\"http://www.loc.gov/MARC21/slim\" type=\"Authority\"><leader>00000nz  a2200000o  4500</leader>"
+            + "<controlfield tag=\"001\">041766180</controlfield>"
+            + "<datafield tag=\"035\" ind1=\" \" ind2=\" \"><subfield code=\"a\">(DE-101)041766180</subfield></datafield>"
+            + "<datafield tag=\"035\" ind1=\" \" ind2=\" \"><subfield code=\"a\">(DE-588)4176618-0</subfield></datafield>"
+            + "<datafield tag=\"150\" ind1=\" \" ind2=\" \"><subfield code=\"a\">Name</subfield></datafield></record></metadata></record>"));
+      harvester.processPage(page("<record><header status=\"deleted\"><identifier>oai:dnb.de/authorities/041766180</identifier>"
+            + "<datestamp>2017-03-16T11:14:25Z</datestamp></header></record>"));
+      assertEquals(1, sink.added.size());
+      SolrInputDocument doc = sink.added.get(0);
+      assertEquals("(DE-588)4176618-0", doc.getFieldValue("id"));
+      assertEquals("041766180", doc.getFieldValue("idn"));
+      assertEquals("Nothing should be deleted by the id", 0, sink.getDeletedCount());
+      assertEquals("The IDN of the added record should be deleted", Arrays.asList(doc.getFieldValue("idn")), sink.deletedIdns);
+   }
+
+   /**
+    * If the sink can't commit, the state is kept. The next harvest repeats the changes.
+    * 
+    * @throws IOException
+    */
+   @Test
+   public void stateAfterCommit() throws IOException {
+      Path stateFile = Files.createTempFile("OaiHarvesterTest", ".state");
+      Files.delete(stateFile); // no previous harvest
+      try (OaiStandIn repository = new OaiStandIn(Arrays.asList(Paths.get(TestData.getURI4UpdateData())))) {
+         NullSink sink = new NullSink() {
+            @Override
+            public void commit() throws IOException {
+               throw new IOException("Test");
+            }
+         };
+         OaiHarvester harvester = new OaiHarvester(sink, repository.getBaseUrl(), "MARC21-xml", "authorities", stateFile);
+         try {
+            harvester.harvest("2017-03-16T11:13:46Z");
+            fail("The failed commit should be reported");
+         }
+         catch (IOException expected) {
+            assertFalse("The state should not be saved", Files.exists(stateFile));
+         }
+      }
+      finally {
+         Files.deleteIfExists(stateFile);
+      }
+   }
+
+   private static InputStream page(String records) {
+      String page = "<OAI-PMH xmlns=\"http://www.openarchives.org/OAI/2.0/\"><ListRecords>" + records + "</ListRecords></OAI-PMH>";
+      return new ByteArrayInputStream(page.getBytes(StandardCharsets.UTF_8));
+   }
+
+   /**
+    * Remember the added records and the IDNs of the deletions
+    */
+   private static class RecordingSink extends NullSink {
+      private final List<SolrInputDocument> added       = new ArrayList<>();
+      private final List<String>            deletedIdns = new ArrayList<>();
+
+      @Override
+      public synchronized void add(SolrInputDocument doc) {
+         added.add(doc);
+      }
+
+      @Override
+      public synchronized void deleteByIdn(String idn) {
+         deletedIdns.add(idn);
+      }
+   }
+}
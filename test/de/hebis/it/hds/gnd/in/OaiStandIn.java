@@ -0,0 +1,99 @@
+/*
+ * Copyright 2016, 2017 by HeBIS (www.hebis.de).
+ * 
+ * This file is part of HeBIS project Gnd4Index.
+ *
+ * This is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or any later version.
+ *
+ * This code is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with the code.  If not, see http://www.gnu.org/licenses/agpl>.
+ */
+package de.hebis.it.hds.gnd.in;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+/**
+ * Local stand-in for an OAI repository. The pages of 'ListRecords' are read from files.<br>
+ * The first request gets the first file. The resumption token "n" is answered with the file #n. All but the last page get a resumption token.
+ *
+ * @author Uwe Reh (uh), HeBIS-IT
+ * @version 2026-10-17 uh initial
+ */
+public class OaiStandIn implements Closeable {
+   private final HttpServer   server;
+   private final List<Path>   pages;
+   private final List<String> queries = Collections.synchronizedList(new ArrayList<>());
+
+   /**
+    * Start the server on a free port
+    * 
+    * @param pages The files with the responses
+    * @throws IOException If the server can't be started
+    */
+   public OaiStandIn(List<Path> pages) throws IOException {
+      this.pages = pages;
+      server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+      server.createContext("/oai", this::answer);
+      server.start();
+   }
+
+   /**
+    * @return The base URL of the repository
+    */
+   public String getBaseUrl() {
+      return "http://127.0.0.1:" + server.getAddress().getPort() + "/oai";
+   }
+
+   /**
+    * @return The query strings of all received requests
+    */
+   public List<String> getQueries() {
+      return queries;
+   }
+
+   @Override
+   public void close() {
+      server.stop(0);
+   }
+
+   private void answer(HttpExchange exchange) throws IOException {
+      String query = exchange.getRequestURI().getRawQuery();
+      queries.add(query);
+      int pageNo = 0;
+      int tokenStart = (query == null) ? -1 : query.indexOf("resumptionToken=");
+      if (tokenStart >= 0) pageNo = Integer.parseInt(query.substring(tokenStart + 16));
+      byte[] body;
+      if (pageNo >= pages.size()) {
+         body = "<OAI-PMH xmlns=\"http://www.openarchives.org/OAI/2.0/\"><error code=\"badResumptionToken\">unknown</error></OAI-PMH>".getBytes(StandardCharsets.UTF_8);
+      }
+      else {
+         String page = new String(Files.readAllBytes(pages.get(pageNo)), StandardCharsets.UTF_8);
+         String token = (pageNo + 1 < pages.size()) ? "<resumptionToken>" + (pageNo + 1) + "</resumptionToken>" : "<resumptionToken/>";
+         body = page.replace("</ListRecords>", token + "</ListRecords>").getBytes(StandardCharsets.UTF_8);
+      }
+      exchange.getResponseHeaders().add("Content-Type", "text/xml; charset=UTF-8");
+      exchange.sendResponseHeaders(200, body.length);
+      try (OutputStream out = exchange.getResponseBody()) {
+         out.write(body);
+      }
+   }
+}
@@ -0,0 +1,115 @@
+/*
+ * Copyright 2016, 2017 by HeBIS (www.hebis.de).
+ * 
+ * This file is part of HeBIS project Gnd4Index.
+ *
+ * This is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or any later version.
+ *
+ * This code is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with the code.  If not, see http://www.gnu.org/licenses/agpl>.
+ */
+package de.hebis.it.hds.gnd.in;
+
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+import org.junit.Test;
+
+/**
+ * Test for {@link ReadAheadInputStream}
+ *
+ * @author Uwe Reh (uh), HeBIS-IT
+ * @version 2026-10-18 uh initial
+ */
+public class ReadAheadInputStreamTest {
+
+   /**
+    * An unchecked exception of the source reaches the consumer, instead of leaving it waiting.
+    * 
+    * @throws IOException
+    */
+   @Test(timeout = 10000)
+   public void runtimeFailure() throws IOException {
+      try (InputStream in = new ReadAheadInputStream(new TestSource(100000, new IllegalStateException("Test")), "ReadAheadTest")) {
+         try {
+            while (in.read() >= 0) {
+               // skip the data
+            }
+            fail("The failure should be reported");
+         }
+         catch (IOException expected) {
+            assertTrue("The cause should be passed", expected.getCause() instanceof IllegalStateException);
+         }
+      }
+   }
+
+   /**
+    * The source is closed, after the background thread is stopped.
+    * 
+    * @throws IOException
+    */
+   @Test(timeout = 10000)
+   public void close() throws IOException {
+      TestSource source = new TestSource(Long.MAX_VALUE, null);
+      InputStream in = new ReadAheadInputStream(source, "ReadAheadTest");
+      assertTrue(in.read(new byte[1000]) > 0);
+      in.close();
+      assertTrue(source.closed);
+      assertFalse("The source shouldn't be closed while reading", source.closedWhileReading);
+   }
+
+   /**
+    * Endless zeros or a failure after some bytes
+    */
+   private static class TestSource extends InputStream {
+      private final RuntimeException failure;
+      private long                   remaining;
+      private volatile boolean       reading            = false;
+      private volatile boolean       closed             = false;
+      private volatile boolean       closedWhileReading = false;
+
+      private TestSource(long size, RuntimeException failure) {
+         this.remaining = size;
+         this.failure = failure;
+      }
+
+      @Override
+      public int read() {
+         throw new UnsupportedOperationException();
+      }
+
+      @Override
+      public int read(byte[] buffer, int offset, int length) {
+         reading = true;
+         try {
+            if (remaining == 0) {
+               if (failure != null) throw failure;
+               return -1;
+            }
+            int ret = (int) Math.min(length, remaining);
+            remaining -= ret;
+            return ret;
+         }
+         finally {
+            reading = false;
+         }
+      }
+
+      @Override
+      public void close() {
+         closedWhileReading = reading;
+         closed = true;
+      }
+   }
+}
@@ -0,0 +1,201 @@
+/*
+ * Copyright 2016, 2017 by HeBIS (www.hebis.de).
+ * 
+ * This file is part of HeBIS project Gnd4Index.
+ *
+ * This is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or any later version.
+ *
+ * This code is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with the code.  If not, see http://www.gnu.org/licenses/agpl>.
+ */
+package de.hebis.it.hds.gnd.in.sink;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.fail;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+
+import org.apache.solr.common.SolrInputDocument;
+import org.junit.Test;
+
+/**
+ * Test for {@link ChangeDetectingSink}
+ *
+ * @author Uwe Reh (uh), HeBIS-IT
+ * @version 2026-10-17 uh initial
+ * @version 2026-10-18 uh failed records, merged store
+ */
+public class ChangeDetectingSinkTest {
+
+   /**
+    * The second run should only pass the changed and new records.
+    * 
+    * @throws IOException
+    */
+   @Test
+   public void secondRun() throws IOException {
+      Path store = Files.createTempFile("ChangeDetectingSinkTest", ".hashes");
+      Files.delete(store); // first run
+      try {
+         NullSink first = new NullSink();
+         try (ChangeDetectingSink sink = new ChangeDetectingSink(first, store)) {
+            sink.add(newDoc("1", "<record>eins</record>"));
+            sink.add(newDoc("2", "<record>zwei</record>"));
+            sink.add(newDoc("3", "<record>drei</record>"));
+            sink.commit();
+            assertEquals(3, sink.getNewCount());
+         }
+         assertEquals("All records are new", 3, first.getCount());
+         NullSink second = new NullSink();
+         try (ChangeDetectingSink sink = new ChangeDetectingSink(second, store)) {
+            sink.add(newDoc("1", "<record>eins</record>"));
+            sink.add(newDoc("2", "<record>zwei, geändert</record>"));
+            sink.add(newDoc("4", "<record>vier</record>"));
+            sink.commit();
+            assertEquals("new: 1, changed: 1, unchanged: 1, vanished: 1", sink.getReport());
+         }
+         assertEquals("The unchanged record should be skipped", 2, second.getCount());
+      }
+      finally {
+         Files.deleteIfExists(store);
+      }
+   }
+
+   /**
+    * Records which fail in the next sink should be sent again by the next run.
+    * 
+    * @throws IOException
+    */
+   @Test
+   public void failedRecords() throws IOException {
+      Path store = Files.createTempFile("ChangeDetectingSinkTest", ".hashes");
+      Files.delete(store);
+      try {
+         FailingSink first = new FailingSink("(DE-588)2");
+         try (ChangeDetectingSink sink = new ChangeDetectingSink(first, store)) {
+            sink.add(newDoc("1", "<record>eins</record>"));
+            sink.add(newDoc("2", "<record>zwei</record>"));
+            try {
+               sink.add(newDoc("3", "<record>drei</record>"));
+               fail("The exception of the next sink is expected.");
+            }
+            catch (IllegalStateException e) {
+               // expected
+            }
+            sink.commit();
+            assertEquals(1, sink.getFailedCount());
+         }
+         NullSink second = new NullSink();
+         try (ChangeDetectingSink sink = new ChangeDetectingSink(second, store)) {
+            sink.add(newDoc("1", "<record>eins</record>"));
+            sink.add(newDoc("2", "<record>zwei</record>"));
+            sink.add(newDoc("3", "<record>drei</record>"));
+            sink.commit();
+            assertEquals("new: 2, changed: 0, unchanged: 1, vanished: 0", sink.getReport());
+         }
+         assertEquals("The failed records should be sent again", 2, second.getCount());
+      }
+      finally {
+         Files.deleteIfExists(store);
+      }
+   }
+
+   /**
+    * A partial run (e.g. OAI) should only update the store.
+    * 
+    * @throws IOException
+    */
+   @Test
+   public void mergedStore() throws IOException {
+      Path store = Files.createTempFile("ChangeDetectingSinkTest", ".hashes");
+      Files.delete(store);
+      try {
+         try (ChangeDetectingSink sink = new ChangeDetectingSink(new NullSink(), store)) {
+            for (int i = 0; i < 100; i++) {
+               sink.add(newDoc(String.valueOf(i), "<record>" + i + "</record>"));
+            }
+            sink.commit();
+         }
+         try (ChangeDetectingSink sink = new ChangeDetectingSink(new NullSink(), store)) { // partial
+            sink.add(newDoc("5", "<record>5, geändert</record>"));
+            sink.delete("(DE-588)6");
+            sink.commit();
+            assertEquals("new: 0, changed: 1, unchanged: 0, vanished: 98", sink.getReport());
+         }
+         NullSink full = new NullSink();
+         try (ChangeDetectingSink sink = new ChangeDetectingSink(full, store)) {
+            for (int i = 0; i < 100; i++) {
+               sink.add(newDoc(String.valueOf(i), "<record>" + i + "</record>"));
+            }
+            sink.commit();
+            assertEquals("new: 1, changed: 1, unchanged: 98, vanished: 0", sink.getReport());
+         }
+         assertEquals("Only the records of the partial run should be sent", 2, full.getCount());
+      }
+      finally {
+         Files.deleteIfExists(store);
+      }
+   }
+
+   /**
+    * The hash should see each char
+    */
+   @Test
+   public void hash() {
+      assertNotEquals(ChangeDetectingSink.hash("ab"), ChangeDetectingSink.hash("ba"));
+      assertNotEquals(ChangeDetectingSink.hash("Ā"), ChangeDetectingSink.hash("\u0001"));
+      assertEquals(ChangeDetectingSink.hash("Ärger"), ChangeDetectingSink.hash("Ärger"));
+   }
+
+   /**
+    * Reports one record as failed in background and refuses the id '(DE-588)3' immediately
+    */
+   private static class FailingSink extends NullSink {
+      private final String                  failingId;
+      private final List<SolrInputDocument> pending = new ArrayList<>();
+      private Consumer<SolrInputDocument>   listener;
+
+      private FailingSink(String failingId) {
+         this.failingId = failingId;
+      }
+
+      @Override
+      public void setFailureListener(Consumer<SolrInputDocument> listener) {
+         this.listener = listener;
+      }
+
+      @Override
+      public void add(SolrInputDocument doc) {
+         if ("(DE-588)3".equals(doc.getFieldValue("id"))) throw new IllegalStateException("refused");
+         pending.add(doc);
+         super.add(doc);
+      }
+
+      @Override
+      public void flush() {
+         for (SolrInputDocument doc : pending) {
+            if (failingId.equals(doc.getFieldValue("id"))) listener.accept(doc);
+         }
+         pending.clear();
+      }
+   }
+
+   private static SolrInputDocument newDoc(String id, String fullrecord) {
+      SolrInputDocument doc = FileSinkTest.newDoc("(DE-588)" + id, "Name " + id);
+      doc.addField("fullrecord", fullrecord);
+      return doc;
+   }
+}
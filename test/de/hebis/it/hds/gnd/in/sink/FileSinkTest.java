@@ -0,0 +1,76 @@
+/*
+ * Copyright 2016, 2017 by HeBIS (www.hebis.de).
+ * 
+ * This file is part of HeBIS project Gnd4Index.
+ *
+ * This is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or any later version.
+ *
+ * This code is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with the code.  If not, see http://www.gnu.org/licenses/agpl>.
+ */
+package de.hebis.it.hds.gnd.in.sink;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import org.apache.solr.common.SolrInputDocument;
+import org.junit.Test;
+
+/**
+ * Test for {@link FileSink}
+ *
+ * @author Uwe Reh (uh), HeBIS-IT
+ * @version 2026-10-17 uh initial
+ */
+public class FileSinkTest {
+
+   /**
+    * The file should be a valid solr update request with one document or deletion per line
+    * 
+    * @throws IOException
+    */
+   @Test
+   public void writeUpdateXml() throws IOException {
+      Path file = Files.createTempFile("FileSinkTest", ".xml");
+      try {
+         try (FileSink sink = new FileSink(file)) {
+            sink.add(newDoc("(DE-588)1", "Ärger & Co"));
+            sink.add(newDoc("(DE-588)2", "Zwei"));
+            sink.delete("(DE-588)<3>");
+            sink.deleteByIdn("041766180");
+         }
+         List<String> lines = Files.readAllLines(file, StandardCharsets.UTF_8);
+         assertEquals("<update>, two documents, two deletions and </update> are expected", 6, lines.size());
+         assertEquals("<update>", lines.get(0));
+         assertEquals("</update>", lines.get(5));
+         assertTrue("The first document should contain the escaped name", lines.get(1).contains("Ärger &amp; Co"));
+         assertTrue("The documents should be wrapped by <add>", lines.get(2).startsWith("<add><doc") && lines.get(2).endsWith("</doc></add>"));
+         assertTrue("The second document should contain the id", lines.get(2).contains("(DE-588)2"));
+         assertEquals("<delete><id>(DE-588)&lt;3&gt;</id></delete>", lines.get(3));
+         assertEquals("<delete><query>idn:041766180</query></delete>", lines.get(4));
+      }
+      finally {
+         Files.delete(file);
+      }
+   }
+
+   static SolrInputDocument newDoc(String id, String preferred) {
+      SolrInputDocument doc = new SolrInputDocument();
+      doc.addField("id", id);
+      doc.addField("preferred", preferred);
+      return doc;
+   }
+}
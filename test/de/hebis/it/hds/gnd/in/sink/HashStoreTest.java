@@ -0,0 +1,97 @@
+/*
+ * Copyright 2016, 2017 by HeBIS (www.hebis.de).
+ * 
+ * This file is part of HeBIS project Gnd4Index.
+ *
+ * This is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or any later version.
+ *
+ * This code is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with the code.  If not, see http://www.gnu.org/licenses/agpl>.
+ */
+package de.hebis.it.hds.gnd.in.sink;
+
+import static org.junit.Assert.assertEquals;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.SplittableRandom;
+
+import org.junit.Test;
+
+/**
+ * Test for {@link HashStore}
+ *
+ * @author Uwe Reh (uh), HeBIS-IT
+ * @version 2026-10-18 uh initial
+ */
+public class HashStoreTest {
+
+   /**
+    * Random puts and removes should give the same result as a HashMap. Few keys, so the clusters get long.
+    *
+    * @throws IOException not expected
+    */
+   @Test
+   public void likeHashMap() throws IOException {
+      SplittableRandom random = new SplittableRandom(42);
+      HashStore store = new HashStore(16);
+      Map<Long, Long> expected = new HashMap<>();
+      for (int i = 0; i < 200000; i++) {
+         long key = random.nextInt(5000) * 0x100000000L; // same low bits
+         long value = random.nextInt(3);
+         if (random.nextInt(3) == 0) {
+            assertEquals("remove " + key, expected.remove(key) != null, store.remove(key));
+            continue;
+         }
+         Long old = expected.put(key, value);
+         int result = store.put(key, value);
+         int wanted = (old == null) ? HashStore.ADDED : (old.longValue() == value) ? HashStore.UNCHANGED : HashStore.CHANGED;
+         assertEquals("put " + key, wanted, result);
+      }
+      assertEquals(expected.size(), store.size());
+      // write and read
+      store.confirm();
+      ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+      try (DataOutputStream out = new DataOutputStream(bytes)) {
+         assertEquals(expected.size(), store.write(out));
+      }
+      HashStore copy = HashStore.read(new DataInputStream(new ByteArrayInputStream(bytes.toByteArray())));
+      assertEquals(expected.size(), copy.unseen());
+      for (Map.Entry<Long, Long> entry : expected.entrySet()) {
+         assertEquals(HashStore.UNCHANGED, copy.put(entry.getKey(), entry.getValue()));
+      }
+      assertEquals(0, copy.unseen());
+   }
+
+   /**
+    * Pending entries should not be written, failed entries are dropped only with the same hash
+    *
+    * @throws IOException not expected
+    */
+   @Test
+   public void pending() throws IOException {
+      HashStore store = new HashStore(4);
+      store.put(1, 10);
+      store.confirm();
+      store.put(2, 20);
+      assertEquals("An other hash should not be dropped.", false, store.remove(2, 21));
+      ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+      try (DataOutputStream out = new DataOutputStream(bytes)) {
+         assertEquals("Only the confirmed entry should be written.", 1, store.write(out));
+      }
+      assertEquals(true, store.remove(2, 20));
+      assertEquals(1, store.size());
+   }
+}
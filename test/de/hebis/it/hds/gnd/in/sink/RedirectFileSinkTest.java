@@ -0,0 +1,60 @@
+/*
+ * Copyright 2016, 2017 by HeBIS (www.hebis.de).
+ * 
+ * This file is part of HeBIS project Gnd4Index.
+ *
+ * This is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or any later version.
+ *
+ * This code is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with the code.  If not, see http://www.gnu.org/licenses/agpl>.
+ */
+package de.hebis.it.hds.gnd.in.sink;
+
+import static org.junit.Assert.assertEquals;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import org.junit.Test;
+
+/**
+ * Test for {@link RedirectFileSink}
+ *
+ * @author Uwe Reh (uh), HeBIS-IT
+ * @version 2026-10-17 uh initial
+ */
+public class RedirectFileSinkTest {
+
+   /**
+    * Only the redirections should be written
+    * 
+    * @throws IOException
+    */
+   @Test
+   public void redirectLines() throws IOException {
+      Path file = Files.createTempFile("RedirectFileSinkTest", ".tsv");
+      try {
+         try (RedirectFileSink sink = new RedirectFileSink(file)) {
+            sink.add(FileSinkTest.newDoc("(DE-588)1", "Eins"));
+            sink.delete("(DE-588)2");
+            sink.redirect("(DE-588)100951457", "(DE-588)143804367");
+         }
+         List<String> lines = Files.readAllLines(file, StandardCharsets.UTF_8);
+         assertEquals("One redirection is expected", 1, lines.size());
+         assertEquals("(DE-588)100951457\t(DE-588)143804367", lines.get(0));
+      }
+      finally {
+         Files.delete(file);
+      }
+   }
+}
@@ -0,0 +1,266 @@
+/*
+ * Copyright 2016, 2017 by HeBIS (www.hebis.de).
+ * 
+ * This file is part of HeBIS project Gnd4Index.
+ *
+ * This is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or any later version.
+ *
+ * This code is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with the code.  If not, see http://www.gnu.org/licenses/agpl>.
+ */
+package de.hebis.it.hds.gnd.in.sink;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.List;
+import java.util.StringJoiner;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.apache.solr.client.solrj.SolrClient;
+import org.apache.solr.client.solrj.SolrRequest;
+import org.apache.solr.client.solrj.request.UpdateRequest;
+import org.apache.solr.common.SolrException;
+import org.apache.solr.common.SolrInputDocument;
+import org.apache.solr.common.util.NamedList;
+import org.junit.Test;
+
+import de.hebis.it.hds.gnd.in.MarcXmlParser;
+
+/**
+ * Test for {@link SolrSink}
+ *
+ * @author Uwe Reh (uh), HeBIS-IT
+ * @version 2026-10-17 uh initial
+ * @version 2026-10-18 uh order of documents and deletions, also in parallel
+ * @version 2026-10-18 uh retries of single documents in background
+ */
+public class SolrSinkTest {
+
+   /**
+    * Full batches are sent, the rest with the flush
+    * 
+    * @throws IOException
+    */
+   @Test
+   public void batches() throws IOException {
+      RecordingClient client = new RecordingClient();
+      try (SolrSink writer = new SolrSink(client, 10, 0, 2, 1000)) {
+         for (int i = 0; i < 25; i++) {
+            writer.add(newDoc(i));
+         }
+         writer.flush();
+         assertEquals("Three requests are expected", 3, client.batchSizes.size());
+         assertEquals("All documents should be sent", 25, writer.getSentCount());
+         assertEquals("Two full batches are expected", 2, client.batchSizes.stream().filter(size -> size == 10).count());
+         assertTrue("The rest should be sent by the flush", client.batchSizes.contains(5));
+         assertEquals("commitWithin should be passed", 1000, client.commitWithin);
+      }
+   }
+
+   /**
+    * Solr applies the documents of a request before the deletions. So documents and deletions are sent in separate requests, in the order of
+    * arrival.
+    * 
+    * @throws IOException
+    */
+   @Test
+   public void addAndDelete() throws IOException {
+      RecordingClient client = new RecordingClient();
+      try (SolrSink writer = new SolrSink(client, 10, 0, 1, -1)) {
+         writer.add(newDoc(1));
+         writer.add(newDoc(2));
+         writer.delete("(test)1");
+         writer.add(newDoc(1));
+         writer.flush();
+         assertEquals(Arrays.asList("+(test)1 +(test)2", "-(test)1", "+(test)1"), client.requests);
+         assertEquals(3, writer.getSentCount());
+         assertEquals(1, writer.getDeletedCount());
+      }
+   }
+
+   /**
+    * With several requests in flight, batches of documents may overtake each other, but not a deletion.
+    * 
+    * @throws IOException
+    */
+   @Test
+   public void deletionInParallel() throws IOException {
+      RecordingClient client = new RecordingClient();
+      client.delay = 50;
+      try (SolrSink writer = new SolrSink(client, 2, 0, 4, -1)) {
+         for (int i = 0; i < 4; i++) {
+            writer.add(newDoc(i));
+         }
+         writer.delete("(test)1");
+         writer.add(newDoc(1));
+         writer.flush();
+         assertEquals(4, client.requests.size());
+         assertTrue("The batches of documents come first", client.requests.subList(0, 2).containsAll(Arrays.asList("+(test)0 +(test)1", "+(test)2 +(test)3")));
+         assertEquals("-(test)1", client.requests.get(2));
+         assertEquals("+(test)1", client.requests.get(3));
+      }
+   }
+
+   /**
+    * Incomplete batches are sent after the flush interval
+    * 
+    * @throws Exception
+    */
+   @Test
+   public void flushInterval() throws Exception {
+      RecordingClient client = new RecordingClient();
+      try (SolrSink writer = new SolrSink(client, 100, 50, 1, -1)) {
+         writer.add(newDoc(1));
+         for (int i = 0; (i < 100) && client.batchSizes.isEmpty(); i++) {
+            Thread.sleep(20);
+         }
+         assertEquals("The incomplete batch should be sent", 1, client.batchSizes.size());
+      }
+   }
+
+   /**
+    * Transient errors are retried, the documents arrive after all.
+    * 
+    * @throws IOException
+    */
+   @Test
+   public void retry() throws IOException {
+      RecordingClient client = new RecordingClient();
+      client.failures.set(2);
+      try (SolrSink writer = new SolrSink(client, 10, 0, 2, -1)) {
+         writer.setRetries(3, 10);
+         for (int i = 0; i < 10; i++) {
+            writer.add(newDoc(i));
+         }
+         writer.flush();
+         assertEquals("Two retries are expected", 2, writer.getRetryCount());
+         assertEquals("All documents should be sent", 10, writer.getSentCount());
+         assertEquals(0, writer.getFailedCount());
+      }
+   }
+
+   /**
+    * Documents and deletions which still fail are written to the dead letter file, which can be parsed again.
+    * 
+    * @throws IOException
+    */
+   @Test
+   public void deadLetters() throws IOException {
+      Path file = Files.createTempFile("SolrSinkTest", ".mrc.xml");
+      try {
+         RecordingClient client = new RecordingClient();
+         client.failures.set(Integer.MAX_VALUE);
+         try (SolrSink writer = new SolrSink(client, 2, 0, 1, -1)) {
+            writer.setRetries(1, 10);
+            writer.setDeadLetters(new DeadLetterFile(file));
+            for (int i = 0; i < 3; i++) {
+               SolrInputDocument doc = newDoc(i);
+               doc.addField("fullrecord", "<record type=\"Authority\"><leader>00000nz  a2200000n  4500</leader>"
+                     + "<datafield tag=\"035\" ind1=\" \" ind2=\" \"><subfield code=\"a\">(DE-588)" + i + "</subfield></datafield>"
+                     + "<datafield tag=\"150\" ind1=\" \" ind2=\" \"><subfield code=\"a\">Name " + i + "</subfield></datafield></record>");
+               writer.add(doc);
+            }
+            writer.delete("(DE-588)<4>");
+            writer.deleteByIdn("041766180");
+            writer.flush();
+            assertEquals("All documents and the deletions should fail", 5, writer.getFailedCount());
+         }
+         NullSink reloaded = new NullSink();
+         try (InputStream in = Files.newInputStream(file)) {
+            assertEquals("The dead letters should be readable", 5, new MarcXmlParser(reloaded).parseStream(in));
+         }
+         assertEquals(3, reloaded.getCount());
+         assertEquals("The deletions should be repeated", 2, reloaded.getDeletedCount());
+      }
+      finally {
+         Files.delete(file);
+      }
+   }
+
+   /**
+    * Without batching the retry is done in background too, the caller doesn't wait for the delay.
+    * 
+    * @throws IOException
+    */
+   @Test
+   public void unbatchedRetry() throws IOException {
+      RecordingClient client = new RecordingClient();
+      client.failures.set(1);
+      try (SolrSink writer = new SolrSink(client)) {
+         writer.setRetries(1, 2000);
+         long start = System.nanoTime();
+         writer.add(newDoc(1));
+         long millis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+         assertTrue("The caller shouldn't wait for the retry: " + millis + " ms", millis < 1000);
+         writer.flush();
+         assertEquals("The document should be sent by the retry", 1, writer.getSentCount());
+         assertEquals(1, writer.getRetryCount());
+      }
+   }
+
+   private static SolrInputDocument newDoc(int id) {
+      SolrInputDocument doc = new SolrInputDocument();
+      doc.addField("id", "(test)" + id);
+      return doc;
+   }
+
+   /**
+    * Stand-in for solr, just remembers the sizes and the content of the update requests. The first requests may fail.
+    */
+   @SuppressWarnings("serial")
+   private static class RecordingClient extends SolrClient {
+      private final List<Integer> batchSizes   = new CopyOnWriteArrayList<>();
+      /** "+id" for each document, "-id" for each deletion */
+      private final List<String>  requests     = new CopyOnWriteArrayList<>();
+      private volatile int        commitWithin = 0;
+      private final AtomicInteger failures     = new AtomicInteger(0);
+      /** Milliseconds each request takes */
+      private volatile long       delay        = 0;
+
+      @SuppressWarnings("rawtypes")
+      @Override
+      public NamedList<Object> request(SolrRequest request, String collection) {
+         if (failures.getAndDecrement() > 0) throw new SolrException(SolrException.ErrorCode.SERVICE_UNAVAILABLE, "Test");
+         if (delay > 0) {
+            try {
+               Thread.sleep(delay);
+            }
+            catch (InterruptedException e) {
+               Thread.currentThread().interrupt();
+            }
+         }
+         if (request instanceof UpdateRequest) {
+            UpdateRequest update = (UpdateRequest) request;
+            StringJoiner content = new StringJoiner(" ");
+            if (update.getDocuments() != null) {
+               batchSizes.add(update.getDocuments().size());
+               update.getDocuments().forEach(doc -> content.add("+" + doc.getFieldValue("id")));
+            }
+            if (update.getDeleteById() != null) update.getDeleteById().forEach(id -> content.add("-" + id));
+            requests.add(content.toString());
+            commitWithin = update.getCommitWithin();
+         }
+         return new NamedList<>();
+      }
+
+      @Override
+      public void close() {
+         // nothing to do
+      }
+   }
+}
@@ -0,0 +1,67 @@
+/*
+ * Copyright 2016, 2017 by HeBIS (www.hebis.de).
+ * 
+ * This file is part of HeBIS project Gnd4Index.
+ *
+ * This is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or any later version.
+ *
+ * This code is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with the code.  If not, see http://www.gnu.org/licenses/agpl>.
+ */
+package de.hebis.it.hds.gnd.in.sink;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import org.apache.solr.common.SolrInputDocument;
+import org.junit.Test;
+
+/**
+ * Test for {@link SynonymFileSink}
+ *
+ * @author Uwe Reh (uh), HeBIS-IT
+ * @version 2026-10-17 uh initial
+ */
+public class SynonymFileSinkTest {
+
+   /**
+    * The lines should be formated like the export of AutorityRecordFileWriter
+    * 
+    * @throws IOException
+    */
+   @Test
+   public void synonymLines() throws IOException {
+      Path file = Files.createTempFile("SynonymFileSinkTest", ".prop");
+      try {
+         try (SynonymFileSink sink = new SynonymFileSink(file, "!_#_!")) {
+            SolrInputDocument doc = FileSinkTest.newDoc("(DE-588)11862444X", "May, Karl");
+            doc.addField("synonyms", "Old Shatterhand");
+            doc.addField("synonyms", "Kara Ben Nemsi");
+            sink.add(doc);
+            sink.add(FileSinkTest.newDoc("(DE-588)2-4", "Conferenza Nazionale della Ceramica"));
+            sink.add(new SolrInputDocument()); // without id, to be ignored
+         }
+         List<String> lines = Files.readAllLines(file, StandardCharsets.UTF_8);
+         assertTrue("The header should start with '#'", lines.get(0).startsWith("#"));
+         assertEquals("The header and two records are expected", 7, lines.size());
+         assertEquals("(DE-588)11862444X = May, Karl!_#_!Old Shatterhand!_#_!Kara Ben Nemsi", lines.get(5));
+         assertEquals("(DE-588)2-4 = Conferenza Nazionale della Ceramica", lines.get(6));
+      }
+      finally {
+         Files.delete(file);
+      }
+   }
+}
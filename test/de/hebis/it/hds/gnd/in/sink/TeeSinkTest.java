@@ -0,0 +1,54 @@
+/*
+ * Copyright 2016, 2017 by HeBIS (www.hebis.de).
+ * 
+ * This file is part of HeBIS project Gnd4Index.
+ *
+ * This is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or any later version.
+ *
+ * This code is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with the code.  If not, see http://www.gnu.org/licenses/agpl>.
+ */
+package de.hebis.it.hds.gnd.in.sink;
+
+import static org.junit.Assert.assertEquals;
+
+import java.io.IOException;
+
+import org.junit.Test;
+
+/**
+ * Test for {@link TeeSink} and {@link NullSink}
+ *
+ * @author Uwe Reh (uh), HeBIS-IT
+ * @version 2026-10-17 uh initial
+ */
+public class TeeSinkTest {
+
+   /**
+    * Each record should arrive in all sinks
+    * 
+    * @throws IOException
+    */
+   @Test
+   public void fanOut() throws IOException {
+      NullSink first = new NullSink();
+      NullSink second = new NullSink();
+      NullSink third = new NullSink();
+      try (TeeSink tee = new TeeSink(new TeeSink(first, second), third)) {
+         for (int i = 0; i < 5; i++) {
+            tee.add(FileSinkTest.newDoc("(DE-588)" + i, "Name " + i));
+         }
+         tee.commit();
+      }
+      assertEquals(5, first.getCount());
+      assertEquals(5, second.getCount());
+      assertEquals(5, third.getCount());
+   }
+}
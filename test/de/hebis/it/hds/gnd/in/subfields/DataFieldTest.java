@@ -0,0 +1,153 @@
+/*
+ * Copyright 2016, 2017 by HeBIS (www.hebis.de).
+ * 
+ * This file is part of HeBIS project Gnd4Index.
+ *
+ * This is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or any later version.
+ *
+ * This code is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with the code.  If not, see http://www.gnu.org/licenses/agpl>.
+ */
+package de.hebis.it.hds.gnd.in.subfields;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import de.hebis.it.hds.gnd.Diagnostics;
+import org.apache.solr.common.SolrInputDocument;
+import org.junit.Test;
+
+/**
+ * Test class for {@link DataField}
+ *
+ * @author Uwe Reh (uh), HeBIS-IT
+ * @version 2026-10-17 uh initial
+ * @version 2026-10-18 uh repeated and absent subfields, reset, record id
+ */
+public class DataFieldTest {
+
+   /**
+    * Repeated subfields keep the order, only the first value is stored if the subfield isn't repeatable.
+    */
+   @Test
+   public void repeatedSubfields() {
+      SolrInputDocument doc = new SolrInputDocument();
+      DataField dataField = new DataField(null).reset(doc, "testid", 450, '1', DataField.NO_IND);
+      dataField.addSubField("a", "first");
+      dataField.addSubField("b", "other");
+      dataField.addSubField("a", "second");
+      assertEquals(Arrays.asList("first", "second"), dataField.getValues("a"));
+      assertEquals("first", dataField.getFirstValue("a"));
+      dataField.storeValues("a", "synonyms", true, (String) null);
+      assertEquals(Arrays.asList("first", "second"), new ArrayList<>(doc.getFieldValues("synonyms")));
+      long warnings = Diagnostics.getCount("Unexpected repeated subfield", 450);
+      dataField.storeValues("a", "preferred", false, (String) null);
+      assertEquals("Only the first value is expected.", Arrays.asList("first"), new ArrayList<>(doc.getFieldValues("preferred")));
+      assertEquals("The repetition should be counted.", warnings + 1, Diagnostics.getCount("Unexpected repeated subfield", 450));
+   }
+
+   /**
+    * Absent and unusual subfield codes
+    */
+   @Test
+   public void absentSubfields() {
+      DataField dataField = new DataField(null).reset(new SolrInputDocument(), "testid", 450, DataField.NO_IND, DataField.NO_IND);
+      dataField.addSubField("a", "value");
+      dataField.addSubField("ab", "unusual code");
+      assertTrue("An empty list is expected.", dataField.getValues("c").isEmpty());
+      assertNull(dataField.get("c"));
+      assertNull(dataField.getFirstValue("c"));
+      assertTrue("Unusual codes are skipped.", dataField.getValues("ab").isEmpty());
+      assertNull("No indicator was given.", dataField.getFirstValue("ind1"));
+   }
+
+   /**
+    * Nothing of the previous datafield should survive a reset.
+    */
+   @Test
+   public void reset() {
+      SolrInputDocument doc = new SolrInputDocument();
+      DataField dataField = new DataField(null).reset(doc, "testid", 450, '1', '2');
+      dataField.addSubField("a", "old");
+      dataField.addSubField("9", "4:rel");
+      dataField.reset(doc, "testid", 550, DataField.NO_IND, '7');
+      assertTrue(dataField.getValues("a").isEmpty());
+      assertNull(dataField.getSub9SubField('4'));
+      assertEquals("550", dataField.getFirstValue("tag"));
+      assertNull(dataField.getFirstValue("ind1"));
+      assertEquals("7", dataField.getFirstValue("ind2"));
+      dataField.addSubField("a", "new");
+      assertEquals(Arrays.asList("new"), dataField.getValues("a"));
+   }
+
+   /**
+    * The record id is kept in the field 'id' and as pseudo subfield.
+    */
+   @Test
+   public void recordId() {
+      SolrInputDocument doc = new SolrInputDocument();
+      DataField dataField = new DataField(null).reset(doc, "PPN: 1", 35, DataField.NO_IND, DataField.NO_IND);
+      assertEquals("PPN: 1", dataField.getRecordId());
+      assertEquals("PPN: 1", doc.getFieldValue("id"));
+      dataField.setRecordId("(DE-588)1");
+      assertEquals("(DE-588)1", dataField.getFirstValue("recordId"));
+      assertEquals("The id should be replaced.", Arrays.asList("(DE-588)1"), new ArrayList<>(doc.getFieldValues("id")));
+      dataField.setRecordId(null);
+      assertEquals("NULL should be ignored.", "(DE-588)1", dataField.getRecordId());
+      dataField.reset(new SolrInputDocument(), null, 35, DataField.NO_IND, DataField.NO_IND);
+      assertNull("The id of the previous record should be forgotten.", dataField.getRecordId());
+   }
+
+   /**
+    * Doublets should be skipped, the order of the first occurrences kept. Below and above the limit for the linear search.
+    */
+   @Test
+   public void storeMultiValued() {
+      DataField dataField = new DataField("testid", null);
+      List<Object> expected = new ArrayList<>();
+      for (int i = 0; i < 50; i++) {
+         dataField.storeMultiValued("synonyms", "name " + i);
+         dataField.storeMultiValued("synonyms", "name " + (i / 2));
+         expected.add("name " + i);
+      }
+      assertEquals("Each value once in the order of insertion is expected.", expected, new ArrayList<>(dataField.getFieldValues("synonyms")));
+   }
+
+   /**
+    * Values stored by other methods, and values of the previous record
+    */
+   @Test
+   public void storeMultiValuedMixed() {
+      SolrInputDocument doc = new SolrInputDocument();
+      DataField dataField = new DataField(null).reset(doc, "testid", 400, DataField.NO_IND, DataField.NO_IND);
+      for (int i = 0; i < 10; i++) {
+         dataField.storeMultiValued("related", "r" + i);
+      }
+      doc.addField("related", "x");
+      dataField.storeMultiValued("related", "x");
+      dataField.storeMultiValued("related", "r3");
+      assertEquals("Values stored by others should be known.", 11, dataField.getFieldValues("related").size());
+      dataField.replaceUnique("related", "y");
+      dataField.storeMultiValued("related", "r3");
+      assertEquals("The replaced field should be known.", Arrays.asList("y", "r3"), new ArrayList<>(dataField.getFieldValues("related")));
+      // next record
+      doc = new SolrInputDocument();
+      dataField.reset(doc, "nextid", 400, DataField.NO_IND, DataField.NO_IND);
+      for (int i = 0; i < 10; i++) {
+         dataField.storeMultiValued("related", "r" + i);
+      }
+      assertEquals("The values of the previous record should be forgotten.", 10, dataField.getFieldValues("related").size());
+   }
+}
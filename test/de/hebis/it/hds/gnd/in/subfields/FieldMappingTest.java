@@ -0,0 +1,125 @@
+/*
+ * Copyright 2016, 2017 by HeBIS (www.hebis.de).
+ * 
+ * This file is part of HeBIS project Gnd4Index.
+ *
+ * This is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or any later version.
+ *
+ * This code is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with the code.  If not, see http://www.gnu.org/licenses/agpl>.
+ */
+package de.hebis.it.hds.gnd.in.subfields;
+
+import static org.junit.Assert.*;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Collection;
+
+import org.junit.Test;
+
+import de.hebis.it.hds.gnd.in.subfields.FieldMapping.ValueFilter;
+
+/**
+ * Test the compiled mapping rules
+ *
+ * @author Uwe Reh (uh), HeBIS-IT
+ * @version 2026-10-17 uh initial
+ * @version 2026-10-18 uh the mapping in use can't be replaced
+ * @version 2026-10-18 uh missing rule sets
+ */
+public class FieldMappingTest {
+
+   /**
+    * The precompiled filters should behave like {@link String#matches(String)} and {@link String#replaceAll(String, String)}
+    */
+   @Test
+   public void filter() {
+      ValueFilter noUrl = FieldMapping.filter("http.+");
+      assertTrue("Same expression, same filter", noUrl == FieldMapping.filter("http.+"));
+      assertTrue("An URL should match", noUrl.matches("http://anywhere.edu"));
+      assertFalse("'http' alone should not match", noUrl.matches("http"));
+      assertFalse("An id should not match", noUrl.matches("(DE-588)121453839"));
+      ValueFilter dnbUri = FieldMapping.filter("https?://d-nb.info.*");
+      assertTrue("The DNB URI should match", dnbUri.matches("https://d-nb.info/gnd/121453839"));
+      assertFalse("An other URI should not match", dnbUri.matches("http://anywhere.edu"));
+      ValueFilter coding = FieldMapping.filter("%DE.*");
+      assertEquals("The trailing coding should be removed", "Jon Doh", coding.removeFrom("Jon Doh%DE3-1-2"));
+      assertEquals("Nothing to remove", "Jon Doh", coding.removeFrom("Jon Doh"));
+   }
+
+   /**
+    * The build in rules should be available
+    */
+   @Test
+   public void buildInRules() {
+      assertTrue("The rule set 'related' is expected", FieldMapping.getInstance().getRuleSetNames().contains("related"));
+      DataField testDataField = TestHelper.dataFieldFactory("(DE-588)100000193", null, "530", "a", "Foo");
+      TestHelper.addSubField(testDataField, "0", "(DE-588)121453839", "http://d-nb.info/gnd/121453839");
+      FieldMapping.apply("related", testDataField);
+      Collection<Object> result = testDataField.getFieldValues("relatedIds");
+      assertTrue("Exact one related id is expected", (result != null) && (result.size() == 1));
+      assertTrue("The related id '(DE-588)121453839' is expected", result.contains("(DE-588)121453839"));
+      result = testDataField.getFieldValues("related");
+      assertTrue("The related term 'Foo' is expected", (result != null) && result.contains("Foo"));
+   }
+
+   /**
+    * The mapping in use can't be replaced, the dispatch tables of the parsers are bound to it. The same mapping again is fine.
+    */
+   @Test
+   public void configureAfterUse() {
+      FieldMapping inUse = FieldMapping.getInstance();
+      FieldMapping.configure(null);
+      FieldMapping.configure(" ");
+      assertTrue("The mapping should be kept", inUse == FieldMapping.getInstance());
+      try {
+         FieldMapping.configure("/no/such/OtherMapping.properties");
+         fail("The mapping in use shouldn't be replaced");
+      }
+      catch (IllegalStateException expected) {
+         assertTrue("The mapping should be kept", inUse == FieldMapping.getInstance());
+      }
+   }
+
+   /**
+    * A mapping file without the rule sets of the handlers is rejected while loading.
+    * 
+    * @throws IOException
+    */
+   @Test
+   public void missingRuleSets() throws IOException {
+      Path path = Files.createTempFile("FieldMappingTest", ".properties");
+      Files.write(path, Arrays.asList("heading.a = preferred ; single", "372.a = occupation"), StandardCharsets.UTF_8);
+      try {
+         new FieldMapping(path.toString());
+         fail("The incomplete mapping should be rejected");
+      }
+      catch (RuntimeException expected) {
+         assertTrue("The missing rule sets should be named", expected.getMessage().contains("complexSeeReference"));
+         assertFalse("Only the missing rule sets should be named", expected.getMessage().contains("heading"));
+      }
+      finally {
+         Files.delete(path);
+      }
+      assertTrue("The build in mapping should be complete", FieldMapping.getInstance().getRuleSetNames().containsAll(FieldMapping.REQUIRED_RULE_SETS));
+   }
+
+   /**
+    * Unknown rule sets are a configuration error
+    */
+   @Test(expected = IllegalStateException.class)
+   public void unknownRuleSet() {
+      FieldMapping.apply("noSuchRuleSet", TestHelper.dataFieldFactory("unknown", null, "999", "a", "Foo"));
+   }
+}
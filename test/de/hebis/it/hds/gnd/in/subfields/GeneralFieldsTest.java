@@ -117,4 +117,16 @@ public class GeneralFieldsTest {
       assertTrue("The qualified ddc should to be '4:999'", result.contains("4:999"));
    }
 
+   /**
+    * Target of a redirected record (data field 682)
+    */
+   @Test
+   public void controllInfos() {
+      DataField testDataField = TestHelper.dataFieldFactory("(DE-588)old", null, "682", "0", "(DE-101)143804367", "(DE-588)143804367", "http://d-nb.info/gnd/143804367");
+      GeneralFields.controllInfos(testDataField);
+      Collection<Object> result = testDataField.getFieldValues(GeneralFields.REDIRECT_TARGET);
+      assertTrue("The target is expected", (result != null) && (result.size() == 1));
+      assertTrue("The gnd id is expected as target", result.contains("(DE-588)143804367"));
+   }
+
 }
@@ -17,11 +17,15 @@
  */
 package de.hebis.it.hds.gnd.in.subfields;
 
+import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertTrue;
 
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
 
+import org.apache.solr.common.SolrInputDocument;
 import org.junit.Test;
 
 import de.hebis.it.hds.gnd.EvalDataFieldException;
@@ -31,6 +35,8 @@ import de.hebis.it.hds.gnd.EvalDataFieldException;
  *
  * @author Uwe Reh (uh), HeBIS-IT
  * @version 30.03.2017 uh initial
+ * @version 2026-10-17 uh parser without regular expressions, bounding box
+ * @version 2026-10-18 uh only the first bounding box
  */
 public class GeoFieldsTest {
    /**
@@ -49,7 +55,7 @@ public class GeoFieldsTest {
       GeoFields.coordinates(testDataField);
       Collection<Object> result = testDataField.getFieldValues("coordinates");
       assertTrue("Coordinates (degree) should exist", (result != null));
-      assertTrue("Coordinates (degree) should be '54.6944, 15.9875'.", result.contains("54.6944, 15.9875"));
+      assertTrue("Coordinates (degree) should be '54.006944, 15.9875'.", result.contains("54.006944, 15.9875"));
       // reference
       result = testDataField.getFieldValues("sameAs");
       assertTrue("URL to geonames should exist.", (result != null));
@@ -98,6 +104,92 @@ public class GeoFieldsTest {
       assertTrue("Coordinates (decimal) should be '49.3225, 0.0'.", result.contains("49.3225, 0.0"));
    }
    
+   /**
+    * Bounding box of an area (data field 034)
+    * @throws EvalDataFieldException 
+    */
+   @Test
+   public void boundingBox() throws EvalDataFieldException {
+      DataField testDataField = TestHelper.dataFieldFactory("testid", null, "034", "d", "W 003 30 00");
+      TestHelper.addSubField(testDataField, "e", "E 001 30 00");
+      TestHelper.addSubField(testDataField, "f", "N 051 00 00");
+      TestHelper.addSubField(testDataField, "g", "S 001 00 00");
+      TestHelper.addSubField(testDataField, "9", "A:agx");
+      try {
+         GeoFields.configure(true);
+         GeoFields.coordinates(testDataField);
+      }
+      finally {
+         GeoFields.configure(false);
+      }
+      assertTrue("The center should be '25.0, -1.0'.", testDataField.getFieldValues("coordinates").contains("25.0, -1.0"));
+      assertTrue("West should be '-3.5'.", testDataField.getFieldValues("bbox_west").contains("-3.5"));
+      assertTrue("East should be '1.5'.", testDataField.getFieldValues("bbox_east").contains("1.5"));
+      assertTrue("North should be '51.0'.", testDataField.getFieldValues("bbox_north").contains("51.0"));
+      assertTrue("South should be '-1.0'.", testDataField.getFieldValues("bbox_south").contains("-1.0"));
+      // not stored by default
+      testDataField = TestHelper.dataFieldFactory("testid", null, "034", "d", "E015.987500");
+      TestHelper.addSubField(testDataField, "e", "E015.987500");
+      TestHelper.addSubField(testDataField, "f", "N054.694400");
+      TestHelper.addSubField(testDataField, "g", "N054.694400");
+      GeoFields.coordinates(testDataField);
+      assertTrue("The center should be '54.6944, 15.9875'.", testDataField.getFieldValues("coordinates").contains("54.6944, 15.9875"));
+      assertTrue("The bounding box isn't expected.", testDataField.getFieldValues("bbox_west") == null);
+   }
+
+   /**
+    * Several areas in one record: only the first box is stored, the centers of all.
+    * 
+    * @throws EvalDataFieldException
+    */
+   @Test
+   public void twoBoundingBoxes() throws EvalDataFieldException {
+      SolrInputDocument doc = new SolrInputDocument();
+      DataField dataField = new DataField(null);
+      try {
+         GeoFields.configure(true);
+         dataField.reset(doc, "testid", 34, DataField.NO_IND, DataField.NO_IND);
+         addBox(dataField, "E006.000000", "E008.000000", "N052.000000", "N050.000000");
+         GeoFields.coordinates(dataField);
+         dataField.reset(doc, "testid", 34, DataField.NO_IND, DataField.NO_IND);
+         addBox(dataField, "E006.000000", "E010.000000", "N054.000000", "N050.000000"); // same west and south edge
+         GeoFields.coordinates(dataField);
+      }
+      finally {
+         GeoFields.configure(false);
+      }
+      assertEquals("Both centers are expected.", Arrays.asList("51.0, 7.0", "52.0, 8.0"), new ArrayList<>(doc.getFieldValues("coordinates")));
+      assertEquals(Arrays.asList("6.0"), new ArrayList<>(doc.getFieldValues("bbox_west")));
+      assertEquals(Arrays.asList("8.0"), new ArrayList<>(doc.getFieldValues("bbox_east")));
+      assertEquals(Arrays.asList("52.0"), new ArrayList<>(doc.getFieldValues("bbox_north")));
+      assertEquals(Arrays.asList("50.0"), new ArrayList<>(doc.getFieldValues("bbox_south")));
+   }
+
+   private static void addBox(DataField dataField, String west, String east, String north, String south) {
+      dataField.addSubField("d", west);
+      dataField.addSubField("e", east);
+      dataField.addSubField("f", north);
+      dataField.addSubField("g", south);
+      dataField.addSubField("9", "A:dgx");
+   }
+
+   /**
+    * Conversion of single values
+    */
+   @Test
+   public void toNormalizedDecimal() {
+      assertEquals(8.5, GeoFields.toNormalizedDecimal("E0083000", 'a'), 0);
+      assertEquals(-8.5, GeoFields.toNormalizedDecimal("W 008 30'00\"", 'a'), 0);
+      assertEquals(-0.016944, GeoFields.toNormalizedDecimal("S 000 01 01", 'a'), 0);
+      assertEquals(Double.parseDouble("54.694402"), GeoFields.toNormalizedDecimal("N054.694402", 'd'), 0);
+      assertEquals(-12.25, GeoFields.toNormalizedDecimal("-12.25", 'd'), 0);
+      assertEquals(-12.25, GeoFields.toNormalizedDecimal("S 012.25", 'd'), 0);
+      assertTrue("Minutes > 59 are invalid.", Double.isNaN(GeoFields.toNormalizedDecimal("E 008 60 00", 'a')));
+      assertTrue("Unknown orientation is invalid.", Double.isNaN(GeoFields.toNormalizedDecimal("X 008.5", 'd')));
+      assertTrue("Two decimal points are invalid.", Double.isNaN(GeoFields.toNormalizedDecimal("E 008.5.1", 'd')));
+      assertTrue("Too short for degrees.", Double.isNaN(GeoFields.toNormalizedDecimal("E 8 1", 'a')));
+   }
+
    /**
     * Other representation of the coordinates (data field 034)
     * @throws EvalDataFieldException 
@@ -195,5 +287,9 @@ public class GeoFieldsTest {
       assertTrue("'a' should be detectet.", ('a' == GeoFields.getCoding(testDataField)));
       testDataField = TestHelper.dataFieldFactory("testid", null, "034", "d", "N 054.0025");
       assertTrue("'d' should be detectet.", ('d' == GeoFields.getCoding(testDataField)));
+      testDataField = TestHelper.dataFieldFactory("testid", null, "034", "d", "E0083000");
+      assertTrue("'?' is expected, without formatting spaces.", ('?' == GeoFields.getCoding(testDataField)));
+      testDataField = TestHelper.dataFieldFactory("testid", null, "034", "d", "E8.5");
+      assertTrue("'?' is expected.", ('?' == GeoFields.getCoding(testDataField)));
    }
 }
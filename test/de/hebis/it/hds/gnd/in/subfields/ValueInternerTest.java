@@ -0,0 +1,77 @@
+/*
+ * Copyright 2016, 2017 by HeBIS (www.hebis.de).
+ * 
+ * This file is part of HeBIS project Gnd4Index.
+ *
+ * This is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or any later version.
+ *
+ * This code is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with the code.  If not, see http://www.gnu.org/licenses/agpl>.
+ */
+package de.hebis.it.hds.gnd.in.subfields;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+/**
+ * Test class for {@link ValueInterner}
+ *
+ * @author Uwe Reh (uh), HeBIS-IT
+ * @version 2026-10-17 uh initial
+ */
+public class ValueInternerTest {
+
+   /**
+    * Equal values should be mapped to the same instance
+    */
+   @Test
+   public void sameInstance() {
+      ValueInterner interner = new ValueInterner(10, 8);
+      String first = interner.intern(new String("nawi"));
+      assertSame("The first value should be taken.", first, interner.intern(new String("nawi")));
+      assertEquals("One value is expected.", 1, interner.size());
+      assertNull("NULL should be passed through.", interner.intern(null));
+   }
+
+   /**
+    * Neither long values nor values beyond the limit should be stored
+    */
+   @Test
+   public void bounded() {
+      ValueInterner interner = new ValueInterner(2, 4);
+      String longValue = "gndgen-too-long";
+      assertSame("Long values should be returned as they are.", longValue, interner.intern(longValue));
+      interner.intern("p");
+      interner.intern("n");
+      String third = new String("b");
+      assertSame("The table is full.", third, interner.intern(third));
+      assertEquals("Two values are expected.", 2, interner.size());
+      assertSame("Known values are still shared.", interner.intern("p"), interner.intern(new String("p")));
+   }
+
+   /**
+    * Relation codes should be shared by the data fields
+    */
+   @Test
+   public void dataField() {
+      DataField first = new DataField(null).reset(null, "testid", 500, DataField.NO_IND, DataField.NO_IND);
+      DataField second = new DataField(null).reset(null, "testid", 500, DataField.NO_IND, DataField.NO_IND);
+      first.addSubField("4", new String("pseu"));
+      second.addSubField("4", new String("pseu"));
+      assertSame("Relation codes should be shared.", first.getFirstValue("4"), second.getFirstValue("4"));
+      first.addSubField("a", new String("Goethe"));
+      second.addSubField("a", new String("Goethe"));
+      assertTrue("Names should be kept as they are.", first.getFirstValue("a") != second.getFirstValue("a"));
+   }
+}
@@ -0,0 +1,180 @@
+/*
+ * Copyright 2016, 2017 by HeBIS (www.hebis.de).
+ * 
+ * This file is part of HeBIS project Gnd4Index.
+ *
+ * This is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or any later version.
+ *
+ * This code is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with the code.  If not, see http://www.gnu.org/licenses/agpl>.
+ */
+package de.hebis.it.hds.gnd.out;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.util.Arrays;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.junit.Test;
+
+/**
+ * Test for {@link AuthorityCache}
+ *
+ * @author Uwe Reh (uh), HeBIS-IT
+ * @version 2026-10-17 uh initial
+ */
+public class AuthorityCacheTest {
+   private final AtomicInteger loads = new AtomicInteger();
+
+   private AuthorityBean load(String recordId) {
+      loads.incrementAndGet();
+      if (recordId.startsWith("unknown")) return null;
+      AuthorityBean ret = new AuthorityBean();
+      ret.id = recordId;
+      return ret;
+   }
+
+   /**
+    * Hits, misses and unknown ids
+    *
+    * @throws AuthorityRecordException not expected
+    */
+   @Test
+   public void hitsAndMisses() throws AuthorityRecordException {
+      AuthorityCache cache = new AuthorityCache(10, 0, TimeUnit.SECONDS);
+      AuthorityBean first = cache.get("(DE-588)1", this::load);
+      assertSame("The cached record is expected.", first, cache.get("(DE-588)1", this::load));
+      assertNull("Unknown ids should return NULL.", cache.get("unknown", this::load));
+      assertNull("Unknown ids should return NULL.", cache.get("unknown", this::load));
+      assertEquals("Unknown ids are not cached.", 3, loads.get());
+      assertEquals(1, cache.getHits());
+      assertEquals(3, cache.getMisses());
+      assertTrue("A reload should deliver a new record.", first != cache.reload("(DE-588)1", this::load));
+      cache.invalidateAll();
+      assertEquals("The cache should be empty.", 0, cache.size());
+   }
+
+   /**
+    * The least recently used records should be dropped
+    *
+    * @throws AuthorityRecordException not expected
+    */
+   @Test
+   public void bounded() throws AuthorityRecordException {
+      AuthorityCache cache = new AuthorityCache(3, 0, TimeUnit.SECONDS);
+      cache.get("a", this::load);
+      cache.get("b", this::load);
+      cache.get("c", this::load);
+      cache.get("a", this::load); // 'b' is the eldest now
+      cache.get("d", this::load);
+      assertEquals("The size should be limited.", 3, cache.size());
+      assertEquals(1, cache.getEvictions());
+      assertNull("'b' should be evicted.", cache.getIfPresent("b"));
+      assertNotNull("'a' was used recently.", cache.getIfPresent("a"));
+      // many segments
+      cache = new AuthorityCache(1000, 0, TimeUnit.SECONDS);
+      for (int i = 0; i < 5000; i++) {
+         cache.get("(DE-588)" + i, this::load);
+      }
+      assertEquals("The size should be limited.", 1000, cache.size());
+      assertEquals(4000, cache.getEvictions());
+   }
+
+   /**
+    * Records should expire after the time to live
+    *
+    * @throws AuthorityRecordException not expected
+    */
+   @Test
+   public void expiration() throws AuthorityRecordException {
+      AtomicLong now = new AtomicLong();
+      AuthorityCache cache = new AuthorityCache(10, 60, TimeUnit.SECONDS, now::get);
+      AuthorityBean first = cache.get("a", this::load);
+      now.addAndGet(TimeUnit.SECONDS.toNanos(59));
+      assertSame("The record should be valid.", first, cache.get("a", this::load));
+      now.addAndGet(TimeUnit.SECONDS.toNanos(2));
+      assertTrue("The record should be expired.", first != cache.get("a", this::load));
+      assertEquals(1, cache.getExpirations());
+   }
+
+   /**
+    * Concurrent misses for the same id should share one load, errors are passed to all waiting threads
+    *
+    * @throws Exception not expected
+    */
+   @Test
+   public void singleFlight() throws Exception {
+      AuthorityCache cache = new AuthorityCache(10, 0, TimeUnit.SECONDS);
+      CountDownLatch started = new CountDownLatch(1);
+      CountDownLatch release = new CountDownLatch(1);
+      AuthorityCache.Loader slow = id -> {
+         started.countDown();
+         try {
+            release.await();
+         }
+         catch (InterruptedException e) {
+            throw new AuthorityRecordException("interrupted");
+         }
+         return load(id);
+      };
+      ExecutorService pool = Executors.newFixedThreadPool(4);
+      try {
+         Future<AuthorityBean> first = pool.submit(() -> cache.get("a", slow));
+         started.await();
+         Future<AuthorityBean> second = pool.submit(() -> cache.get("a", slow));
+         AuthorityBean other = cache.get("b", this::load); // different ids don't wait
+         assertNotNull(other);
+         Thread.sleep(50);
+         release.countDown();
+         assertSame("Both threads should get the same record.", first.get(), second.get());
+         assertEquals("Only one load per id is expected.", 2, loads.get());
+         // errors
+         CountDownLatch failing = new CountDownLatch(1);
+         AuthorityCache.Loader broken = id -> {
+            try {
+               failing.await();
+            }
+            catch (InterruptedException e) {
+               throw new AuthorityRecordException("interrupted");
+            }
+            throw new AuthorityRecordException("Solr is down");
+         };
+         Future<AuthorityBean> third = pool.submit(() -> cache.get("c", broken));
+         Future<AuthorityBean> fourth = pool.submit(() -> cache.get("c", broken));
+         Thread.sleep(50);
+         failing.countDown();
+         for (Future<AuthorityBean> result : Arrays.asList(third, fourth)) {
+            try {
+               result.get();
+               fail("An exception is expected.");
+            }
+            catch (ExecutionException e) {
+               assertTrue("The exception of the loader is expected.", e.getCause() instanceof AuthorityRecordException);
+            }
+         }
+         assertNull("Failures should not be cached.", cache.getIfPresent("c"));
+      }
+      finally {
+         pool.shutdownNow();
+      }
+   }
+}